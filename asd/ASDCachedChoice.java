@@ -0,0 +1,94 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import java.util.function.UnaryOperator;
+
+/**
+   Instances are choices for advancing by splicing in a subphrase that
+   has been completed before.  Each holds, besides the phrase type of
+   the subphrase and its word index, the number of words it spans and
+   a node with the subphrase's semantic value and structure, whose
+   nodes are never linked into a phrase structure.  The semantic
+   values of the nodes are copied, by the copier of the cache if it
+   has one, both when the subphrase is stored and each time it is
+   spliced in.  Instances are immutable, so that they can be shared.
+   @version 1.00 2026 Oct
+ */
+final class ASDCachedChoice extends ASDParseChoice
+{  ASDCachedChoice(ASDGrammarNode initialNode, ASDPhraseNode completed,
+      int givenSpan, UnaryOperator<Object> givenCopier)
+   {  super(ASDParser.CACHED, initialNode, completed.word(),
+         completed.wordIndex);
+      copier = givenCopier;
+      node = copy(completed, null, copier);
+      span = givenSpan;
+   }
+
+   /**
+      Returns a copy of the completed subphrase, made from nodes from
+      a given pool, with its next link set to a given node.
+    */
+   ASDPhraseNode splice(ASDParserPool pool, ASDPhraseNode next)
+   {  ASDPhraseNode result = copy(node, pool, copier);
+      result.setNextNode(next);
+      return result;
+   }
+
+   /**
+      Returns a copy of a given node and of all of the nodes below it
+      and after it, made from nodes from a given pool, or new nodes
+      if the pool is null, with their semantic values copied by a given
+      copier, or shared if it is null.  The top node is copied without
+      its next link.
+    */
+   private static ASDPhraseNode copy(ASDPhraseNode original,
+      ASDParserPool pool, UnaryOperator<Object> copier)
+   {  ASDPhraseNode result = copyNode(original, pool, copier);
+      result.setNextNode(null);
+      return result;
+   }
+
+   private static ASDPhraseNode copyNode(ASDPhraseNode original,
+      ASDParserPool pool, UnaryOperator<Object> copier)
+   {  ASDPhraseNode result = pool == null ? new ASDPhraseNode()
+                                          : pool.phraseNode();
+      result.copy(original);
+      result.pinnedThrough = 0;
+      if (copier != null && original.value() != null)
+         result.setValue(copier.apply(original.value()));
+      if (original.subphrase() != null)
+      {  // copy the nodes of the subphrase, in order:
+         ASDPhraseNode last = copyNode(original.subphrase(), pool, copier);
+         result.setSubphrase(last);
+         for (ASDPhraseNode n = original.subphrase().nextNode();
+              n != null; n = n.nextNode())
+         {  ASDPhraseNode c = copyNode(n, pool, copier);
+            last.setNextNode(c);
+            last = c;
+         }
+         last.setNextNode(null);
+      }
+      return result;
+   } // end copyNode
+
+   final ASDPhraseNode node;  // the completed subphrase, not shared
+   final int span;            // the number of words it spans
+   private final UnaryOperator<Object> copier;
+      // copies semantic values; null if they are shared
+} // end class ASDCachedChoice
@@ -0,0 +1,65 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import java.util.*;
+
+/**
+   Instances record subphrases in the chart of an ASDChartParser.
+   @version 1.00 2026 Oct
+ */
+class ASDChartEntry
+{  ASDChartEntry(int givenEnd, String type, int givenTypeIndex,
+      Object givenValue, ASDPhraseNode givenSubphrase)
+   {  end = givenEnd;
+      phraseType = type;
+      typeIndex = givenTypeIndex;
+      value = givenValue;
+      subphrase = givenSubphrase;
+   }
+
+   /**
+      Returns a new phrase node that represents the subphrase,
+      linked to a given grammar node.
+    */
+   ASDPhraseNode newPhraseNode(ASDGrammarNode instance)
+   {  ASDPhraseNode result = new ASDPhraseNode();
+      result.setWord(phraseType, typeIndex);
+      result.setValue(value);
+      result.setSubphrase(subphrase);
+      result.setInstance(instance);
+      return result;
+   }
+
+   final int end;             // the position after the subphrase
+   final String phraseType;   // the type of the subphrase
+   final int typeIndex;       // the word index of phraseType
+   final Object value;        // the semantic value of the subphrase
+   final ASDPhraseNode subphrase;
+      // the first node in the subphrase as first parsed; the nodes
+      // are not shared with any other subphrase or path
+   final ArrayList<ASDChartItem> alternatives
+      = new ArrayList<ASDChartItem>(1);
+      // the items at the final grammar nodes of the paths on which
+      // the subphrase was parsed, one for each distinct way of
+      // completing it
+   long count = 0;
+      // the number of ways of parsing the subphrase, once counted
+   byte countState = 0;
+      // 0 if not counted, 1 while being counted, 2 once counted
+} // end class ASDChartEntry
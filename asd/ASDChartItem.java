@@ -0,0 +1,80 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import java.util.*;
+
+/**
+   Instances are the items of an ASDChartParser: the states reached by
+   paths through the grammar from one position in the utterance, each
+   a grammar node, the position after the last word or subphrase
+   matched, and the feature-value pairs after the semantic action of
+   the node.  All of the paths that reach the same state from the
+   same position are packed into one item, with a step for each way
+   of arriving at it, and they are continued from it only once, since
+   the rest of the parse cannot distinguish them.  At a final node,
+   whose semantic value may depend on the subphrase matched there,
+   the chart entry for that subphrase is part of the state as well.
+   <BR><BR>
+   Items are equal if their states are equal; the feature values are
+   compared by the ASDValueEquivalence of the ASDChartParser.
+   @version 1.00 2026 Oct
+ */
+class ASDChartItem
+{  ASDChartItem(ASDGrammarNode givenInstance, int givenEnd,
+      ASDChartEntry givenEntry, ASDFeatures givenFeatures,
+      ASDValueEquivalence givenEquivalence)
+   {  instance = givenInstance;
+      end = givenEnd;
+      entry = givenEntry;
+      features = givenFeatures;
+      equivalence = givenEquivalence;
+      hash = (31 * (31 * System.identityHashCode(instance) + end)
+         + System.identityHashCode(entry)) * 31
+         + features.hash(equivalence);
+   }
+
+   public boolean equals(Object otherObject)
+   {  if (!(otherObject instanceof ASDChartItem)) return false;
+      ASDChartItem other = (ASDChartItem) otherObject;
+      return instance == other.instance && end == other.end
+         && entry == other.entry && hash == other.hash
+         && features.equivalent(other.features, equivalence);
+   }
+
+   public int hashCode() { return hash; }
+
+   final ASDGrammarNode instance;  // the grammar node
+   final int end;  // the position after the last word or subphrase
+   final ASDChartEntry entry;
+      // the chart entry for the subphrase matched at a final node;
+      // otherwise null
+   final ASDFeatures features;
+      // the feature-value pairs after the semantic action of the node,
+      // which are not changed once the item is made
+   private final ASDValueEquivalence equivalence;
+      // compares the feature values
+   final ArrayList<ASDChartStep> arrivals = new ArrayList<ASDChartStep>(1);
+      // the steps that arrive at the item; the first made it
+   private final int hash;
+   long count = 0;
+      // the number of ways of parsing the subphrases matched on the
+      // paths that arrive at the item, once counted
+   byte countState = 0;
+      // 0 if not counted, 1 while being counted, 2 once counted
+} // end class ASDChartItem
@@ -0,0 +1,416 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import java.util.*;
+
+/**
+   Instances are parsers that find all parses of an utterance with an
+   ASDGrammar by building a chart (a well-formed substring table) of
+   the subphrases of the utterance, instead of by backtracking.
+   <BR><BR>
+   The subphrases that begin at each position in the utterance are
+   found once, working from the last position to the first, so every
+   subphrase that a phrase may contain is already in the chart when
+   the phrase is parsed.  A subphrase is entered in the chart once for
+   each distinct combination of beginning, end, phrase type and
+   semantic value, no matter how many phrases contain it.  Every
+   subphrase of each phrase type that can begin at a position is
+   found, whether or not it is needed there, so the parses found are
+   those found by an ASDParser that does not save uniquely parsed
+   subphrases.
+   <BR><BR>
+   The paths through the grammar from a position are packed as well:
+   all of the paths that reach the same grammar node at the same
+   position with equal feature-value pairs are continued only once,
+   so the number of steps is polynomial in the length of the
+   utterance, however ambiguous it is, as long as the number of
+   distinct semantic values and feature values is.  Which values are
+   distinct is decided by an ASDValueEquivalence given to the
+   constructor: by default values are compared with equals, so values
+   computed separately are merged only if their classes override
+   equals and hashCode; an ASDStructuralEquivalence compares them
+   member by member instead.  Values that are equivalent must be
+   interchangeable, since only one of them is kept.
+   <BR><BR>
+   Each subphrase in the chart also keeps every alternative way in
+   which it was parsed, so the chart is a packed forest of all the
+   parses of the utterance, which is returned by forest().
+   <BR><BR>
+   An ASDChartParser works with the ASDParser it is given, which
+   supplies the grammar, the ASDSemantics and the segmentation of the
+   utterance.  While a semantic action or value is being evaluated,
+   the ASDParser's currentNode() is the phrase node being entered or
+   completed, and its features are those of the subphrase being
+   parsed, so semantics written for the ASDParser can be used
+   unchanged.  Semantic actions and values may be evaluated in an
+   order different from the one an ASDParser would use, however, and
+   they must not depend on parts of the phrase structure outside the
+   subphrase in which they are evaluated.
+   @version 1.00 2026 Oct
+ */
+public class ASDChartParser
+{
+   /**
+      Initializes an ASDChartParser to parse with a given ASDParser,
+      which must already be using a grammar.
+      @param givenParser the ASDParser that supplies the grammar and
+      semantics, and in which semantic actions and values are evaluated
+    */
+   public ASDChartParser(ASDParser givenParser)
+   {  this(givenParser, ASDValueEquivalence.EQUALS);
+   }
+
+   /**
+      Initializes an ASDChartParser to parse with a given ASDParser,
+      which must already be using a grammar, merging the subphrases
+      and paths whose semantic values and feature values are
+      equivalent by a given equivalence.
+      @param givenParser the ASDParser that supplies the grammar and
+      semantics, and in which semantic actions and values are evaluated
+      @param givenEquivalence the equivalence of values
+    */
+   public ASDChartParser(ASDParser givenParser,
+      ASDValueEquivalence givenEquivalence)
+   {  parser = givenParser;
+      equivalence = givenEquivalence;
+   }
+
+   /**
+      Returns the string that was bracketed by the parser for the k-th
+      complete parse of the utterance, as by ASDParser.bracketPhrase().
+      @param k the index of the parse, origin 0
+    */
+   public String bracketPhrase(int k)
+   {  return parser.bracketPhrase(phraseStructure(k).nextNode());
+   }
+
+   /**
+      Returns the packed forest of all the parses found by the most
+      recent invocation of parse.  Unlike parseCount(), the forest
+      counts separately parses that differ only in the way their
+      subphrases were parsed.
+    */
+   public ASDParseForest forest()
+   {  return new ASDParseForest(roots, parser.phraseStructure().word());
+   }
+
+   /**
+      Attempts to find all parses of a given string as one of a
+      list of expected phrase types, in a specified maximum number
+      of steps.  Each step is an attempt to enter a node in the
+      grammar, or to complete a subphrase.
+      @param aString the string to be parsed
+      @param expected an ArrayList of strings, each the name
+      of one of the expected phrase types
+      @param maxSteps the maximum number of steps permitted
+      @return the positive number of steps required if the chart was
+      completed, whether or not any parses were found;
+      the negative number of steps performed if the parse was
+      quit by the semantics or the step limit was reached
+    */
+   public int parse(String aString, ArrayList<?> expected, int maxSteps)
+   {  parser.initialize(aString, expected);
+      compiled = parser.compiled();
+      semantics = parser.evaluatesSemantics();
+      anythingIndex = parser.anythingIndex();
+      dummyIndex = parser.dummyIndex();
+      steps = 0;
+      stepLimit = maxSteps;
+      quit = false;
+      parses = new ArrayList<ASDPhraseNode>();
+      roots = new ArrayList<ASDChartEntry>();
+      items = new HashMap<ASDChartItem, ASDChartItem>();
+
+      // Collect the nodes of the segmented utterance:
+      ArrayList<ASDPhraseNode> tokenList = new ArrayList<ASDPhraseNode>();
+      ASDPhraseNode header = parser.phraseStructure();
+      for (ASDPhraseNode node = header.nextNode(); node != null;
+           node = node.nextNode())
+         tokenList.add(node);
+      tokens = tokenList.toArray(new ASDPhraseNode[tokenList.size()]);
+      int n = tokens.length;
+      chart = new ArrayList<ArrayList<ASDChartEntry>>(n + 1);
+      for (int j = 0; j <= n; ++j)
+         chart.add(new ArrayList<ASDChartEntry>());
+
+      for (int start = n - 1; start >= 0 && !quit; --start)
+         parseFrom(start);
+      parser.setContext(header, new ASDFeatures());
+      items = null;
+      if (quit)
+         return -steps;
+
+      // The complete parses are the subphrases that span the whole
+      // utterance and are of expected phrase types:
+      if (n > 0)
+         for (ASDChartEntry entry : chart.get(0))
+         {  if (entry.end == n)
+            {  ASDPhraseNode node = entry.newPhraseNode(null);
+               if (parser.isExpected(node))
+               {  roots.add(entry);
+                  ASDPhraseNode newHeader = new ASDPhraseNode();
+                  newHeader.setWord(header.word());
+                  newHeader.setNextNode(node);
+                  parses.add(newHeader);
+               }
+            }
+         }
+      return steps;
+   } // end parse
+
+   /**
+      Returns the number of complete parses found by the most recent
+      invocation of parse that differ in phrase type or semantic value.
+    */
+   public int parseCount()
+   {  return parses == null ? 0 : parses.size();
+   }
+
+   /**
+      Returns the phrase structure of the k-th complete parse found
+      by the most recent invocation of parse.
+      @param k the index of the parse, origin 0
+      @return the header node of the phrase structure, which is
+      followed by a single node for the whole utterance
+    */
+   public ASDPhraseNode phraseStructure(int k)
+   {  return parses.get(k);
+   }
+
+   /**
+      Returns the number of subphrases in the chart built by the most
+      recent invocation of parse.
+    */
+   public int subphraseCount()
+   {  int result = 0;
+      if (chart != null)
+         for (int j = 0; j < chart.size(); ++j)
+            result += chart.get(j).size();
+      return result;
+   }
+
+   /**
+      Finds all subphrases that begin at a given position, assuming
+      that those that begin at all later positions are already in
+      the chart.  Each such subphrase begins with the word at the
+      position, or with a subphrase already found that begins there,
+      so the list of subphrases at the position is scanned as it grows.
+      @param start the position, origin 0
+    */
+   private void parseFrom(int start)
+   {  items.clear();
+      beginAt(start, tokens[start], null, start + 1);
+      ArrayList<ASDChartEntry> found = chart.get(start);
+      for (int j = 0; j < found.size() && !quit; ++j)
+      {  ASDChartEntry entry = found.get(j);
+         beginAt(start, entry.newPhraseNode(null), entry, entry.end);
+      }
+   } // end parseFrom
+
+   /**
+      Begins subphrases at each initial instance, in the grammar,
+      of the word in a given phrase node, or of ANYTHING.
+      @param start the position at which the subphrases begin
+      @param first a node for the word or subphrase with which they
+      begin
+      @param firstEntry the chart entry for the subphrase with which
+      they begin; null if they begin with a word
+      @param end the position after that word or subphrase
+    */
+   private void beginAt(int start, ASDPhraseNode first,
+      ASDChartEntry firstEntry, int end)
+   {  ASDParseChoice[] initials = parser.initialsForTypes(first,
+         ASDCompiledGrammar.UNSPECIFIED_TYPES);
+      ASDParseChoice[] anything = compiled.initialChoices(anythingIndex,
+         ASDCompiledGrammar.UNSPECIFIED_TYPES);
+      for (int j = 0; j < initials.length + anything.length && !quit; ++j)
+      {  ASDGrammarNode g = j < initials.length
+            ? initials[j].nextNode : anything[j - initials.length].nextNode;
+         enter(start, new ASDChartStep(copyNode(first, g), end,
+            firstEntry, null), new ASDFeatures());
+      }
+   } // end beginAt
+
+   /**
+      Enters the grammar node of a step on a path through the grammar,
+      evaluating its semantic action.  If another path from the same
+      position has already reached the same item -- the same node and
+      position with equal feature-value pairs -- the step is added to
+      it as another way of arriving there, and the path is not
+      continued again.  Otherwise the path is continued from the new
+      item in every possible way: by completing a subphrase if the
+      node is final, or else by advancing to each of its successors
+      that is a dummy node or that matches the word or a subphrase at
+      the next position.
+      @param start the position at which the path began
+      @param step the step
+      @param features the feature-value pairs for the path before the
+      step, which are copied if the semantics might modify them
+    */
+   private void enter(int start, ASDChartStep step, ASDFeatures features)
+   {  if (++steps > stepLimit) { quit = true; return; }
+      ASDGrammarNode grammarNode = step.node.instance();
+      String action = grammarNode.semanticAction();
+      if (semantics && action != null && action.length() > 0)
+      {  features = features.copy();
+         parser.setContext(step.node, features);
+         String resultOfAction = parser.evaluateAction(grammarNode);
+         if (resultOfAction == parser.QUIT) { quit = true; return; }
+         if (resultOfAction == parser.NOADVANCE) return;
+      }
+      boolean isFinal = grammarNode.isFinal();
+      ASDChartItem item = new ASDChartItem(grammarNode, step.end,
+         isFinal ? step.entry : null, features, equivalence);
+      ASDChartItem existing = items.get(item);
+      if (existing != null)
+      {  existing.arrivals.add(step);
+         return;
+      }
+      item.arrivals.add(step);
+      items.put(item, item);
+      int g = grammarNode.index;
+      if (isFinal)
+      {  complete(start, item, grammarNode, compiled.phraseType[g]);
+         return;
+      }
+      int[] successors = compiled.successorNodes[g];
+      int[] successorWords = compiled.successorWords[g];
+      int end = step.end;
+      for (int j = 0; j < successors.length && !quit; ++j)
+      {  ASDGrammarNode successor = compiled.nodes[successors[j]];
+         int word = successorWords[j];
+         if (word == dummyIndex)
+         {  ASDPhraseNode dummy = new ASDPhraseNode();
+            dummy.setWord(parser.DUMMYWORD, dummyIndex);
+            dummy.setInstance(successor);
+            enter(start, new ASDChartStep(dummy, end, null, item),
+               features);
+            continue;
+         }
+         if (end < tokens.length && (word == tokens[end].wordIndex
+                                     || word == anythingIndex))
+            enter(start, new ASDChartStep(
+                     copyNode(tokens[end], successor), end + 1, null, item),
+                  features);
+         ArrayList<ASDChartEntry> found = chart.get(end);
+         for (int k = 0; k < found.size() && !quit; ++k)
+         {  ASDChartEntry entry = found.get(k);
+            if (word == entry.typeIndex || word == anythingIndex)
+               enter(start, new ASDChartStep(entry.newPhraseNode(successor),
+                        entry.end, entry, item), features);
+         }
+      }
+   } // end enter
+
+   /**
+      Completes a subphrase at a new item for a final grammar node,
+      evaluating its semantic value, and enters it in the chart.  If
+      an equal one is already there, the item is added to it as an
+      alternative way of parsing it instead.
+      @param start the position at which the subphrase begins
+      @param last the item for the final grammar node
+      @param finalNode the final grammar node
+      @param typeIndex the word index of the phrase type completed
+    */
+   private void complete(int start, ASDChartItem last,
+      ASDGrammarNode finalNode, int typeIndex)
+   {  if (++steps > stepLimit) { quit = true; return; }
+      ASDChartStep lastStep = last.arrivals.get(0);
+      String val = finalNode.semanticValue();
+      Object computedValue;
+      if (semantics && val != null && val.length() > 0)
+      {  parser.setContext(lastStep.node, last.features.copy());
+         computedValue = parser.evaluateValue(finalNode);
+      }
+      else // no class for computing semantics
+         computedValue = val;
+      if (computedValue == parser.QUIT) { quit = true; return; }
+      if (computedValue == parser.NOADVANCE) return;
+
+      String phraseType = finalNode.phraseType();
+      ArrayList<ASDChartEntry> found = chart.get(start);
+      for (int j = 0; j < found.size(); ++j)
+      {  ASDChartEntry entry = found.get(j);
+         if (entry.end == last.end && entry.typeIndex == typeIndex
+             && equivalence.equivalent(entry.value, computedValue))
+         {  // an equal subphrase is already in the chart
+            entry.alternatives.add(last);
+            return;
+         }
+      }
+
+      // Link copies of the nodes on the first path to the item into
+      // the subphrase, since the nodes themselves may be shared with
+      // other paths.  The first arrival at each item came from an
+      // item made before it, so the path ends at the first step.
+      ASDPhraseNode subphrase = null;
+      for (ASDChartStep step = lastStep; step != null;
+           step = step.previous == null ? null
+                  : step.previous.arrivals.get(0))
+      {  ASDPhraseNode node = (ASDPhraseNode) step.node.clone();
+         node.setNextNode(subphrase);
+         subphrase = node;
+      }
+      ASDChartEntry entry = new ASDChartEntry(last.end, phraseType,
+         typeIndex, computedValue, subphrase);
+      entry.alternatives.add(last);
+      found.add(entry);
+   } // end complete
+
+   /**
+      Returns a copy of a given phrase node, linked to a given grammar
+      node.
+    */
+   private static ASDPhraseNode copyNode(ASDPhraseNode node,
+      ASDGrammarNode instance)
+   {  ASDPhraseNode result = (ASDPhraseNode) node.clone();
+      result.setNextNode(null);
+      result.setInstance(instance);
+      return result;
+   }
+
+   private ASDParser parser;
+      // the parser that supplies the grammar and semantics
+   private final ASDValueEquivalence equivalence;
+      // decides which semantic values and feature values are merged
+   private ASDCompiledGrammar compiled;
+      // the compiled form of the grammar being used
+   private boolean semantics;
+      // indicates whether or not the parser evaluates semantic
+      // action and semantic value strings
+   private int anythingIndex, dummyIndex;
+      // word indices of ANYTHING and the dummy word
+   private ASDPhraseNode[] tokens;
+      // the nodes for the words of the utterance
+   private ArrayList<ArrayList<ASDChartEntry>> chart;
+      // position -> list of the ASDChartEntries for the subphrases
+      // that begin there
+   private HashMap<ASDChartItem, ASDChartItem> items;
+      // the items reached by paths from the position being parsed
+   private ArrayList<ASDPhraseNode> parses;
+      // header nodes of the complete parses found
+   private ArrayList<ASDChartEntry> roots;
+      // the chart entries for the complete parses found
+   private int steps;
+      // the number of steps performed by the current parse
+   private int stepLimit;
+      // the maximum number of steps permitted
+   private boolean quit;
+      // indicates whether the current parse has been quit
+} // end class ASDChartParser
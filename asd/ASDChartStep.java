@@ -0,0 +1,45 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+
+/**
+   Instances are the steps on paths through the grammar in an
+   ASDChartParser, each of which arrives at a grammar node from the
+   item for the node before it, so that paths with a common
+   beginning share its items.
+   @version 1.00 2026 Oct
+ */
+class ASDChartStep
+{  ASDChartStep(ASDPhraseNode givenNode, int givenEnd,
+      ASDChartEntry givenEntry, ASDChartItem givenPrevious)
+   {  node = givenNode;
+      end = givenEnd;
+      entry = givenEntry;
+      previous = givenPrevious;
+   }
+
+   final ASDPhraseNode node;
+      // the phrase node for the step, linked to its grammar node
+   final int end;  // the position after the step
+   final ASDChartEntry entry;
+      // the chart entry for the subphrase matched by the step;
+      // null if the step matched a word or a dummy node
+   final ASDChartItem previous;
+      // the item for the node before; null if the step is the first
+} // end class ASDChartStep
@@ -0,0 +1,61 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import java.util.ArrayList;
+
+/**
+   Instances are put on an ASDParser's backup stack at points of local
+   ambiguity during a parse.  Each holds the fields of the parse state
+   that are not restored by undoing the changes recorded on the undo
+   trail after it, and the size of the trail at that point.
+   Instances are reused, through the parser's ASDParserPool.
+   @version 1.00 2026 Oct
+ */
+class ASDChoicePoint
+{  /**
+      Saves the fields of a given parse state.
+    */
+   void save(ASDParseState state, int mark)
+   {  currentNode = state.currentNode;
+      currentChoices = state.currentChoices;
+      nextNodeSubphrase = state.nextNodeSubphrase;
+      advanceCase = state.advanceCase;
+      trailMark = mark;
+   }
+
+   /**
+      Restores the saved fields of a given parse state.
+    */
+   void restore(ASDParseState state)
+   {  state.currentNode = currentNode;
+      state.currentChoices = currentChoices;
+      state.nextNodeSubphrase = nextNodeSubphrase;
+      state.advanceCase = advanceCase;
+   }
+
+   ASDPhraseNode currentNode;
+   ArrayList<ASDParseChoice> currentChoices;
+      // shared with the parse state, which removes each choice
+      // from it as the choice is tried
+   ASDPhraseNode nextNodeSubphrase;
+   char advanceCase;
+   int trailMark;
+      // the size of the parser's undo trail when the choice point
+      // was put on the backup stack
+} // end class ASDChoicePoint
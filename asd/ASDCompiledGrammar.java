@@ -0,0 +1,546 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+   Instances are compiled forms of an ASDGrammar, for use by the
+   inner loop of the ASDParser.  Every word (including every phrase
+   type) in the grammar is interned as a dense integer word index,
+   and every instance (ASDGrammarNode) as a dense integer node index.
+   The successors, successor types and begins-types of each node are
+   stored as primitive arrays of those indices, so the parser can
+   compare integers instead of Strings when it computes its choices.
+   Phrase types are additionally numbered densely, so that lists of
+   phrase types can be represented as bit masks.
+   <BR><BR>
+   For each non-final node the compiled grammar also keeps a dispatch
+   index from successor word to the positions, in the node's list of
+   successors, of the successors with that word.  The dummy and
+   ANYTHING successors of a node are simply the buckets for those
+   words, so the parser can find the successors that match the next
+   word in time proportional to the number of matches, rather than to
+   the number of successors.
+   <BR><BR>
+   Sets of phrase types (the expected types of a parse, or the successor
+   types of a node) are interned as type set indices.  The INITIAL
+   choices for a given word and type set are computed once and kept as
+   an immutable array in a cache owned by the compiled grammar, which
+   may be shared safely by any number of ASDParser instances, in
+   different threads.
+   <BR><BR>
+   A compiled grammar reflects the ASDGrammar at the time it was
+   compiled.  It is obtained from ASDGrammar.compiledGrammar().
+   @version 1.00 2026 Oct
+ */
+public class ASDCompiledGrammar
+{
+   /**
+      Compiles a given ASDGrammar.  The grammar nodes are given their
+      node indices as a side effect.
+      @param grammar the grammar to be compiled
+    */
+   ASDCompiledGrammar(ASDGrammar grammar)
+   {  source = grammar;
+      HashMap<?, ?> table = grammar.lexicon();
+      wordIndices = new HashMap<String, Integer>(table.size() * 2);
+      words = new ArrayList<String>(table.size() * 2);
+      ArrayList<ASDGrammarNode> nodeList
+         = new ArrayList<ASDGrammarNode>(table.size() * 2);
+
+      // Intern the words in the lexicon and number their instances:
+      for (Map.Entry<?, ?> e : table.entrySet())
+      {  intern((String) e.getKey());
+         ArrayList<?> instances = (ArrayList<?>) e.getValue();
+         if (instances != null)
+            for (int j = 0; j < instances.size(); ++j)
+            {  ASDGrammarNode gNode = (ASDGrammarNode) instances.get(j);
+               gNode.index = nodeList.size();
+               nodeList.add(gNode);
+            }
+      }
+      nodes = nodeList.toArray(new ASDGrammarNode[nodeList.size()]);
+
+      // Intern all phrase types and all other words that are
+      // mentioned by the nodes, and give every phrase type a
+      // dense type index:
+      ArrayList<Integer> typeList = new ArrayList<Integer>();
+      for (int n = 0; n < nodes.length; ++n)
+      {  ASDGrammarNode gNode = nodes[n];
+         if (gNode.isFinal())
+            internType(gNode.phraseType(), typeList);
+         else
+            internTypes(gNode.successorTypes(), typeList);
+         if (gNode.isInitial())
+            internTypes(gNode.beginsTypes(), typeList);
+         ArrayList<?> successors = gNode.successors();
+         if (successors != null)
+            for (int j = 0; j < successors.size(); ++j)
+               intern(((ASDGrammarSuccessor) successors.get(j)).getWord());
+      }
+      wordCount = words.size();
+      typeCount = typeList.size();
+      maskLength = (typeCount + 63) / 64;
+      typeOfWord = new int[wordCount];
+      Arrays.fill(typeOfWord, -1);
+      for (int t = 0; t < typeCount; ++t)
+         typeOfWord[typeList.get(t).intValue()] = t;
+      typeSetMasks = new long[][] { null };
+      ArrayList<AtomicReferenceArray<ASDParseChoice[]>> initials
+         = new ArrayList<AtomicReferenceArray<ASDParseChoice[]>>(1);
+      initials.add(new AtomicReferenceArray<ASDParseChoice[]>(wordCount));
+      initialsByTypeSet = initials;
+
+      // Instances of each word, in lexicon order:
+      instances = new int[wordCount][];
+      for (Map.Entry<?, ?> e : table.entrySet())
+      {  ArrayList<?> wordInstances = (ArrayList<?>) e.getValue();
+         if (wordInstances == null || wordInstances.size() == 0)
+            continue;
+         int[] indices = new int[wordInstances.size()];
+         for (int j = 0; j < indices.length; ++j)
+            indices[j] = ((ASDGrammarNode) wordInstances.get(j)).index;
+         instances[wordIndex((String) e.getKey())] = indices;
+      }
+
+      // Per-node arrays:
+      int n = nodes.length;
+      nodeWord = new int[n];
+      phraseType = new int[n];
+      successorNodes = new int[n][];
+      successorWords = new int[n][];
+      successorTypeMasks = new long[n][];
+      beginsTypeMasks = new long[n][];
+      dispatchWords = new int[n][];
+      dispatchPositions = new int[n][][];
+      firstTypeSuccessor = new int[n];
+      successorTypeSet = new int[n];
+      finalChoices = new ASDParseChoice[n];
+      dummyChoices = new ASDParseChoice[n];
+      nonDummyChoices = new ASDParseChoice[n];
+      for (int g = 0; g < n; ++g)
+      {  ASDGrammarNode gNode = nodes[g];
+         nodeWord[g] = wordIndex(gNode.word());
+         phraseType[g] = gNode.isFinal()
+            ? wordIndex(gNode.phraseType()) : -1;
+         if (gNode.isFinal())
+            finalChoices[g] = new ASDParseChoice(ASDParser.FINAL, null,
+               gNode.phraseType(), phraseType[g]);
+         dummyChoices[g]
+            = new ASDParseChoice(ASDParser.DUMMY, gNode, null, -1);
+         nonDummyChoices[g]
+            = new ASDParseChoice(ASDParser.NONDUMMY, gNode, null, -1);
+         if (gNode.isInitial())
+            beginsTypeMasks[g] = typeMask(gNode.beginsTypes());
+         ArrayList<?> successors = gNode.successors();
+         if (successors == null)
+            continue;  // final node
+         successorTypeMasks[g] = typeMask(gNode.successorTypes());
+         successorTypeSet[g] = typeSet(successorTypeMasks[g]);
+         int[] succNodes = new int[successors.size()];
+         int[] succWords = new int[successors.size()];
+         int count = 0;
+         for (int j = 0; j < successors.size(); ++j)
+         {  ASDGrammarSuccessor s = (ASDGrammarSuccessor) successors.get(j);
+            int target = findInstance(s.getWord(), s.getInstance());
+            if (target < 0)
+               continue;  // edge to a non-existent node
+            succNodes[count] = target;
+            succWords[count] = wordIndex(s.getWord());
+            ++count;
+         }
+         if (count < succNodes.length)
+         {  succNodes = Arrays.copyOf(succNodes, count);
+            succWords = Arrays.copyOf(succWords, count);
+         }
+         successorNodes[g] = succNodes;
+         successorWords[g] = succWords;
+         buildDispatchIndex(g);
+      }
+
+      // Open-addressing table of the words, for wordIndex(s,start,end):
+      int slots = Integer.highestOneBit(Math.max(wordCount, 1) * 2) * 2;
+      wordSlots = new int[slots];
+      for (int w = 0; w < wordCount; ++w)
+      {  int slot = word(w).hashCode() & (slots - 1);
+         while (wordSlots[slot] != 0)
+            slot = (slot + 1) & (slots - 1);
+         wordSlots[slot] = w + 1;
+      }
+   } // end ASDCompiledGrammar
+
+   /**
+      Returns the ASDGrammar from which this compiled form was made.
+    */
+   public ASDGrammar grammar() { return source; }
+
+   /**
+      Returns the ASDGrammarNode with a given node index.
+    */
+   public ASDGrammarNode node(int index) { return nodes[index]; }
+
+   /**
+      Returns the number of nodes (word instances) in the grammar.
+    */
+   public int nodeCount() { return nodes.length; }
+
+   /**
+      Returns the word with a given word index.
+    */
+   public String word(int index) { return words.get(index); }
+
+   /**
+      Returns the number of distinct words, including phrase types,
+      known to the grammar.
+    */
+   public int wordCount() { return wordCount; }
+
+   /**
+      Returns the word index of a given word; -1 if the word does
+      not occur in the grammar.
+    */
+   public int wordIndex(String word)
+   {  if (word == null) return -1;
+      Integer index = wordIndices.get(word);
+      return index == null ? -1 : index.intValue();
+   }
+
+   /**
+      Returns the word index of the word in a given span of a string,
+      without making a String of the span; -1 if the word does not
+      occur in the grammar.
+      @param s the string
+      @param start the index of the first character of the span
+      @param end the index after the last character of the span
+    */
+   public int wordIndex(String s, int start, int end)
+   {  int hash = 0;
+      for (int j = start; j < end; ++j)
+         hash = 31 * hash + s.charAt(j);
+      int mask = wordSlots.length - 1;
+      int length = end - start;
+      for (int slot = hash & mask; wordSlots[slot] != 0;
+           slot = (slot + 1) & mask)
+      {  String word = words.get(wordSlots[slot] - 1);
+         if (word.length() == length && word.regionMatches(0, s, start, length))
+            return wordSlots[slot] - 1;
+      }
+      return -1;
+   } // end wordIndex(s, start, end)
+
+   /**
+      Returns a bit mask, indexed by phrase type index, of the phrase
+      types named in a given list of Strings.  Strings which are not
+      phrase types in the grammar are ignored.
+      @param types a list of phrase type names; null if unspecified
+      @return the mask; null if types is null
+    */
+   public long[] typeMask(List<?> types)
+   {  if (types == null) return null;
+      long[] mask = new long[maskLength];
+      for (int j = 0; j < types.size(); ++j)
+      {  int w = wordIndex((String) types.get(j));
+         int t = w < 0 ? -1 : typeOfWord[w];
+         if (t >= 0)
+            mask[t >> 6] |= 1L << t;
+      }
+      return mask;
+   }
+
+   /**
+      Returns the type set index of the set of phrase types represented
+      by a given mask, interning the set if it has not been seen before.
+      The index UNSPECIFIED_TYPES stands for a null mask.
+      @param mask a mask as returned by typeMask; null if the phrase
+      types are unspecified
+    */
+   public synchronized int typeSet(long[] mask)
+   {  if (mask == null) return UNSPECIFIED_TYPES;
+      long[][] masks = typeSetMasks;
+      for (int j = UNSPECIFIED_TYPES + 1; j < masks.length; ++j)
+         if (Arrays.equals(masks[j], mask))
+            return j;
+      int result = masks.length;
+      ArrayList<AtomicReferenceArray<ASDParseChoice[]>> newInitials
+         = new ArrayList<AtomicReferenceArray<ASDParseChoice[]>>(
+              initialsByTypeSet);
+      newInitials.add(new AtomicReferenceArray<ASDParseChoice[]>(wordCount));
+      long[][] newMasks = Arrays.copyOf(masks, result + 1);
+      newMasks[result] = mask.clone();
+      initialsByTypeSet = newInitials;
+      typeSetMasks = newMasks;
+      return result;
+   } // end typeSet
+
+   /**
+      Returns the semantic binding of the nodes of the grammar to the
+      methods of a given class of semantics objects, making it the
+      first time it is requested for that class and dispatcher.  The
+      result is shared by all of the parsers that use the compiled
+      grammar.
+      @param targetClass the class of the semantics objects
+      @param dispatcher a dispatcher for the class; null to find the
+      methods by reflection
+    */
+   public synchronized ASDSemanticBinding semanticBinding(
+      Class<?> targetClass, ASDSemanticDispatcher dispatcher)
+   {  Object key = dispatcher == null ? (Object) targetClass : dispatcher;
+      ASDSemanticBinding result = semanticBindings.get(key);
+      if (result == null)
+      {  result = new ASDSemanticBinding(this, targetClass, dispatcher);
+         semanticBindings.put(key, result);
+      }
+      return result;
+   } // end semanticBinding
+
+   /**
+      Returns the INITIAL choices for the instances of the word with a
+      given word index that can begin phrases of the types in the type
+      set with a given index.  The result is shared, and must not be
+      modified.
+      @param word the word index; -1 if the word is not in the grammar
+      @param typeSet a type set index returned by typeSet
+    */
+   ASDParseChoice[] initialChoices(int word, int typeSet)
+   {  if (word < 0 || instances[word] == null) return NO_CHOICES;
+      AtomicReferenceArray<ASDParseChoice[]> cache
+         = initialsByTypeSet.get(typeSet);
+      ASDParseChoice[] result = cache.get(word);
+      if (result == null)
+      {  // Another thread may compute the same array at the same
+         // time; either copy will do.
+         result = computeInitialChoices(instances[word],
+            typeSetMasks[typeSet]);
+         cache.set(word, result);
+      }
+      return result;
+   } // end initialChoices
+
+   /**
+      Creates an INITIAL choice for each of the given instances that is
+      initial and can begin a phrase of one of the expected phrase types.
+      @param wordEntry node indices of the instances of a word
+      @param expected a mask of the expected phrase types; null
+      if they are unspecified
+    */
+   private ASDParseChoice[] computeInitialChoices(int[] wordEntry,
+      long[] expected)
+   {  ArrayList<ASDParseChoice> result
+         = new ArrayList<ASDParseChoice>(wordEntry.length);
+      for (int j = 0; j < wordEntry.length; ++j)
+      {  ASDGrammarNode wordInstance = nodes[wordEntry[j]];
+         // An instance that begins subphrases of unknown types,
+         // or one whose types include one of the expected types,
+         // is a candidate:
+         if (wordInstance.isInitial() && intersects(
+               beginsTypeMasks[wordEntry[j]], expected))
+            result.add(new ASDParseChoice(ASDParser.INITIAL,
+               wordInstance, null, -1));
+      }
+      if (result.size() == 0) return NO_CHOICES;
+      return result.toArray(new ASDParseChoice[result.size()]);
+   } // end computeInitialChoices
+
+   /**
+      Indicates whether two phrase type masks have a type in common.
+      A null mask stands for unspecified types, which match anything.
+    */
+   static boolean intersects(long[] a, long[] b)
+   {  if (a == null || b == null) return true;
+      for (int j = 0; j < a.length; ++j)
+         if ((a[j] & b[j]) != 0) return true;
+      return false;
+   }
+
+   /**
+      Indicates whether the word with a given word index is a phrase
+      type included in a given phrase type mask.
+    */
+   boolean typeInMask(int word, long[] mask)
+   {  if (word < 0) return false;
+      int t = typeOfWord[word];
+      return t >= 0 && (mask[t >> 6] & (1L << t)) != 0;
+   }
+
+   /**
+      Returns the node indices of the instances of the word with a given
+      word index; null if the word has no instances in the grammar.
+    */
+   int[] instancesOf(int word)
+   {  return word < 0 ? null : instances[word];
+   }
+
+   /**
+      Returns the positions, in ascending order, of the successors of
+      the node with a given node index whose word has a given word index;
+      null if there are none.
+    */
+   int[] successorPositions(int node, int word)
+   {  if (word < 0) return null;
+      int[] keys = dispatchWords[node];
+      int low = 0;
+      int high = keys.length - 1;
+      while (low <= high)
+      {  int mid = (low + high) >>> 1;
+         if (keys[mid] < word)
+            low = mid + 1;
+         else if (keys[mid] > word)
+            high = mid - 1;
+         else
+            return dispatchPositions[node][mid];
+      }
+      return null;
+   } // end successorPositions
+
+   /* Helping methods for the constructor: */
+
+   /**
+      Groups the successors of a non-final node by word, and finds
+      the first of them whose word is one of the node's successor
+      phrase types.
+    */
+   private void buildDispatchIndex(int g)
+   {  int[] succWords = successorWords[g];
+      TreeMap<Integer, ArrayList<Integer>> buckets
+         = new TreeMap<Integer, ArrayList<Integer>>();
+      firstTypeSuccessor[g] = -1;
+      for (int j = 0; j < succWords.length; ++j)
+      {  Integer key = Integer.valueOf(succWords[j]);
+         ArrayList<Integer> bucket = buckets.get(key);
+         if (bucket == null)
+         {  bucket = new ArrayList<Integer>(2);
+            buckets.put(key, bucket);
+         }
+         bucket.add(Integer.valueOf(j));
+         if (firstTypeSuccessor[g] < 0 && successorTypeMasks[g] != null
+             && typeInMask(succWords[j], successorTypeMasks[g]))
+            firstTypeSuccessor[g] = j;
+      }
+      int[] keys = new int[buckets.size()];
+      int[][] positions = new int[keys.length][];
+      int k = 0;
+      for (Map.Entry<Integer, ArrayList<Integer>> e : buckets.entrySet())
+      {  keys[k] = e.getKey().intValue();
+         ArrayList<Integer> bucket = e.getValue();
+         positions[k] = new int[bucket.size()];
+         for (int j = 0; j < positions[k].length; ++j)
+            positions[k][j] = bucket.get(j).intValue();
+         ++k;
+      }
+      dispatchWords[g] = keys;
+      dispatchPositions[g] = positions;
+   } // end buildDispatchIndex
+
+   private int findInstance(String word, String instance)
+   {  int w = wordIndex(word);
+      if (w < 0 || instances[w] == null) return -1;
+      int[] candidates = instances[w];
+      for (int j = 0; j < candidates.length; ++j)
+         if (nodes[candidates[j]].instance().equals(instance))
+            return candidates[j];
+      return -1;
+   }
+
+   private int intern(String word)
+   {  Integer index = wordIndices.get(word);
+      if (index != null) return index.intValue();
+      int result = words.size();
+      words.add(word);
+      wordIndices.put(word, Integer.valueOf(result));
+      return result;
+   }
+
+   private void internType(String type, ArrayList<Integer> typeList)
+   {  if (type == null) return;
+      Integer w = Integer.valueOf(intern(type));
+      if (!typeList.contains(w))
+         typeList.add(w);
+   }
+
+   private void internTypes(ArrayList<?> types, ArrayList<Integer> typeList)
+   {  if (types == null) return;
+      for (int j = 0; j < types.size(); ++j)
+         internType((String) types.get(j), typeList);
+   }
+
+   /**
+      The type set index that stands for unspecified phrase types.
+    */
+   public static final int UNSPECIFIED_TYPES = 0;
+
+   static final ASDParseChoice[] NO_CHOICES = new ASDParseChoice[0];
+
+   private final ASDGrammar source;
+   private final HashMap<String, Integer> wordIndices;
+      // word -> word index
+   private final ArrayList<String> words;  // word index -> word
+   private final int wordCount;
+   private final int[] wordSlots;
+      // open-addressing hash table of word index + 1, by the hash
+      // codes of the words; 0 for an empty slot
+   private final int typeCount;
+   private final int maskLength;      // length of phrase type masks
+   private final int[] typeOfWord;
+      // word index -> phrase type index; -1 if not a phrase type
+   private final int[][] instances;
+      // word index -> node indices of its instances; null if none
+   final ASDGrammarNode[] nodes;      // node index -> grammar node
+   final int[] nodeWord;              // node index -> word index
+   final int[] phraseType;
+      // node index -> word index of phrase type ending there; -1 if
+      // the node is not final
+   final int[][] successorNodes;
+      // node index -> node indices of successors; null if final
+   final int[][] successorWords;
+      // node index -> word indices of successors; null if final
+   final long[][] successorTypeMasks;
+      // node index -> mask of successor phrase types; null if the
+      // node is final or the successor types are unspecified
+   final long[][] beginsTypeMasks;
+      // node index -> mask of phrase types the node can begin; null
+      // if the node is not initial or the types are unspecified
+   final int[][] dispatchWords;
+      // node index -> distinct successor word indices, ascending;
+      // null if the node is final
+   final int[][][] dispatchPositions;
+      // node index -> for each of its dispatchWords, the positions of
+      // the successors with that word
+   final int[] firstTypeSuccessor;
+      // node index -> position of the first successor whose word is
+      // one of the node's successor types; -1 if none or unspecified
+   final int[] successorTypeSet;
+      // node index -> type set index of the node's successor types
+   final ASDParseChoice[] finalChoices;
+      // node index -> shared FINAL choice; null if the node is not final
+   final ASDParseChoice[] dummyChoices;
+      // node index -> shared DUMMY choice for advancing to the node
+   final ASDParseChoice[] nonDummyChoices;
+      // node index -> shared NONDUMMY choice for advancing to the node
+   private volatile long[][] typeSetMasks;
+      // type set index -> mask of the phrase types in the set
+   private volatile ArrayList<AtomicReferenceArray<ASDParseChoice[]>>
+      initialsByTypeSet;
+      // type set index -> word index -> shared array of INITIAL
+      // choices, once computed; replaced, not changed, when a type
+      // set is added
+   private final HashMap<Object, ASDSemanticBinding> semanticBindings
+      = new HashMap<Object, ASDSemanticBinding>();
+      // class of semantics objects, or dispatcher, -> binding
+} // end class ASDCompiledGrammar
@@ -0,0 +1,218 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import java.io.*;
+import java.util.*;
+
+/**
+   Generates the Java source of an ASDSemanticDispatcher for a class of
+   semantics objects, from the semantic action and semantic value strings
+   in one or more grammar files.  The dispatcher calls each method named
+   by the strings directly, in a switch statement, so a method that is
+   missing or misnamed in the semantics class is detected when the
+   dispatcher is compiled, and no reflection is needed to evaluate the
+   strings when parsing.  Strings which are not Java identifiers are
+   reported and left out; the ASDSemanticBinding made with the
+   dispatcher reports them again when a parser is bound to it.
+   <BR><BR>
+   Command line usage:
+   <BR><tt><b> java asd.ASDDispatcherGenerator semanticsClass
+   dispatcherClass outputFile grammarFile ...</b></tt>
+   <BR>
+   where semanticsClass and dispatcherClass are fully qualified class
+   names, the dispatcher class to be in the same package as the
+   semantics class, and each grammarFile is the file, as named to the
+   parser at run time, that the dispatcher is for.  The generator
+   should be run again whenever the grammars change.  For the English
+   demo, from the directory that contains npXdemo.grm (the grammar that
+   NpXDemoSemantics loads):
+   <BR><tt><b> java asd.ASDDispatcherGenerator englishdemo.NpXDemoSemantics
+   englishdemo.NpXDemoDispatcher englishdemo/NpXDemoDispatcher.java
+   npXdemo.grm</b></tt>
+   @version 1.00 2026 Oct
+ */
+public class ASDDispatcherGenerator
+{  public static void main(String[] args) throws IOException
+   {  if (args.length < 4)
+      {  System.out.println("Usage should be: java asd.ASDDispatcherGenerator"
+            + " semanticsClass dispatcherClass outputFile grammarFile ...");
+         System.exit(0);
+      }
+      ASDDispatcherGenerator generator
+         = new ASDDispatcherGenerator(args[0], args[1]);
+      for (int j = 3; j < args.length; ++j)
+         generator.addGrammar(args[j]);
+      PrintWriter out = new PrintWriter(new BufferedWriter(
+         new FileWriter(args[2])));
+      generator.write(out);
+      out.close();
+      if (out.checkError())
+      {  System.out.println("Error writing " + args[2]);
+         System.exit(1);
+      }
+   } // end main
+
+   /**
+      Initializes a generator for a given semantics class.
+      @param semanticsClass the fully qualified name of the class
+      @param dispatcherClass the fully qualified name of the
+      dispatcher class to be generated
+    */
+   public ASDDispatcherGenerator(String semanticsClass,
+      String dispatcherClass)
+   {  semanticsName = semanticsClass;
+      dispatcherName = dispatcherClass;
+   }
+
+   /**
+      Adds the semantic action and semantic value strings of the
+      grammar in a given file to those to be dispatched.
+      @param fileName the name of the grammar file, which is recorded
+      as given in the comment at the beginning of the source
+    */
+   public void addGrammar(String fileName) throws IOException
+   {  ASDGrammar grammar = new ASDGrammar(fileName, false, false);
+      grammarNames.add(fileName);
+      for (Object list : grammar.lexicon().values())
+      {  ArrayList<?> instances = (ArrayList<?>) list;
+         if (instances == null) continue;
+         for (int j = 0; j < instances.size(); ++j)
+         {  ASDGrammarNode node = (ASDGrammarNode) instances.get(j);
+            String action = node.semanticAction();
+            if (action != null && action.length() > 0)
+               addName(action, actions);
+            String value = node.semanticValue();
+            if (value != null && value.length() > 0
+                && !ASDSemanticBinding.isConstant(value))
+               addName(value, values);
+         }
+      }
+   } // end addGrammar
+
+   /**
+      Writes the source of the dispatcher class.
+    */
+   public void write(PrintWriter out)
+   {  int dot = dispatcherName.lastIndexOf('.');
+      String packageName = dot < 0 ? null : dispatcherName.substring(0, dot);
+      String className = dispatcherName.substring(dot + 1);
+      out.println("// Generated by asd.ASDDispatcherGenerator from "
+         + grammarNames + ";");
+      out.println("// do not edit.  Run the generator again when the "
+         + "grammars change.");
+      out.println();
+      if (packageName != null)
+      {  out.println("package " + packageName + ";");
+         out.println();
+      }
+      out.println("/**");
+      out.println("   Dispatches the semantic actions and semantic values of "
+         + "the grammars");
+      out.println("   to the methods of " + semanticsName + ".");
+      out.println(" */");
+      out.println("public final class " + className
+         + " implements asd.ASDSemanticDispatcher");
+      out.println("{  /**");
+      out.println("      The instance to be passed to "
+         + "ASDParser.bindSemantics.");
+      out.println("    */");
+      out.println("   public static final " + className + " INSTANCE = new "
+         + className + "();");
+      out.println();
+      out.println("   private " + className + "() { }");
+      out.println();
+      writeIndex(out, "actionIndex", actions);
+      out.println();
+      writeIndex(out, "valueIndex", values);
+      out.println();
+      writeCalls(out, "String action", actions);
+      out.println();
+      writeCalls(out, "Object value", values);
+      out.println("} // end class " + className);
+   } // end write
+
+   private void addName(String name, TreeSet<String> names)
+   {  if (isIdentifier(name))
+         names.add(name);
+      else if (rejected.add(name))
+         System.out.println("Not a method name: " + name);
+   }
+
+   private static boolean isIdentifier(String s)
+   {  if (!Character.isJavaIdentifierStart(s.charAt(0))) return false;
+      for (int j = 1; j < s.length(); ++j)
+         if (!Character.isJavaIdentifierPart(s.charAt(j))) return false;
+      return true;
+   }
+
+   /**
+      Writes a method that maps each name to its case index.
+    */
+   private void writeIndex(PrintWriter out, String method,
+      TreeSet<String> names)
+   {  out.println("   public int " + method + "(String name)");
+      out.println("   {  switch (name)");
+      String prefix = FIRST_CASE;
+      int index = 0;
+      for (String name : names)
+      {  out.println(prefix + "case \"" + name + "\": return "
+            + index++ + ";");
+         prefix = NEXT_CASE;
+      }
+      out.println(prefix + "default: return -1;");
+      out.println("      }");
+      out.println("   }");
+   } // end writeIndex
+
+   /**
+      Writes a method that calls the method with each case index.
+    */
+   private void writeCalls(PrintWriter out, String method,
+      TreeSet<String> names)
+   {  out.println("   public " + method + "(int index, Object target)");
+      out.println("   {  " + semanticsName + " s = (" + semanticsName
+         + ") target;");
+      out.println("      switch (index)");
+      String prefix = FIRST_CASE;
+      int index = 0;
+      for (String name : names)
+      {  out.println(prefix + "case " + index++ + ": return s." + name
+            + "();");
+         prefix = NEXT_CASE;
+      }
+      out.println(prefix + "default: throw new IllegalArgumentException("
+         + "\"No case \" + index);");
+      out.println("      }");
+      out.println("   }");
+   } // end writeCalls
+
+   private static final String FIRST_CASE = "      {  ";
+   private static final String NEXT_CASE = "         ";
+
+   private final String semanticsName;   // the semantics class name
+   private final String dispatcherName;  // the dispatcher class name
+   private final ArrayList<String> grammarNames = new ArrayList<String>();
+      // the names of the grammar files
+   private final TreeSet<String> actions = new TreeSet<String>();
+      // the semantic action method names, sorted
+   private final TreeSet<String> values = new TreeSet<String>();
+      // the semantic value method names, sorted
+   private final HashSet<String> rejected = new HashSet<String>();
+      // the strings reported as not method names
+} // end class ASDDispatcherGenerator
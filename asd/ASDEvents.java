@@ -0,0 +1,212 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import java.util.*;
+import jdk.jfr.*;
+
+/**
+   ASDEvents emits the Java Flight Recorder events of the ASD parser,
+   so that slow parses in a running application can be diagnosed with
+   the standard JFR tools, such as jcmd JFR.start and jfr print:
+   <BR><BR>
+   asd.ParseStart, when a parser is initialized for an utterance;
+   <BR>asd.ParseEnd, when an attempt to find the next parse ends, with
+   its outcome, number of steps and duration;
+   <BR>asd.BacktrackStorm, once for an utterance, when the number of
+   backups since the parser was initialized exceeds the threshold
+   given by setBacktrackStormThreshold;
+   <BR>asd.SemanticInvocation, for a semantic action or value which
+   takes longer than the JFR threshold setting of the event, 1 ms
+   by default;
+   <BR>asd.GrammarLoad, when a grammar is loaded from a file.
+   <BR><BR>
+   Each method first asks whether the event is enabled in a recording,
+   and does nothing more if it is not, so the events cost no more than
+   that test when no recording is being made.
+   @version 1.00 2026 Oct
+ */
+public final class ASDEvents
+{
+   private ASDEvents() { }  // not to be instantiated
+
+   /**
+      Returns System.nanoTime(), to be given to parseEnded when an
+      attempt to find a parse ends, if the ParseEnd event is enabled;
+      0 otherwise.
+    */
+   static long parseBegun()
+   {  return PARSE_END.isEnabled() ? System.nanoTime() : 0;
+   }
+
+   /**
+      Emits a ParseEnd event for an attempt by a given parser to find
+      the next parse of its utterance, if the event is enabled.
+      @param parser the parser
+      @param startNanos the value returned by parseBegun when the
+      attempt began
+      @param status the outcome: ASDParseOutcome.SUCCEEDED, EXHAUSTED,
+      QUIT, STEP_LIMIT, TIMED_OUT or CANCELLED
+      @param steps the number of advance steps performed
+    */
+   static void parseEnded(ASDParser parser, long startNanos,
+      int status, int steps)
+   {  if (!PARSE_END.isEnabled()) return;
+      ParseEndEvent event = new ParseEndEvent();
+      event.utteranceLength = parser.utteranceLength();
+      event.expectedTypes = names(parser.expectedTypes());
+      event.outcome = ASDParseOutcome.statusName(status);
+      event.steps = steps;
+      event.backups = parser.backups();
+      event.parseDuration = startNanos == 0 ? 0
+         : System.nanoTime() - startNanos;
+      event.commit();
+   } // end parseEnded
+
+   /**
+      Returns the number of backups since a parser was initialized
+      beyond which a BacktrackStorm event is emitted; by default the
+      value of the system property asd.backtrackStorm, or 1000.
+    */
+   public static int getBacktrackStormThreshold()
+   {  return stormThreshold;
+   }
+
+   /**
+      Sets the number of backups since a parser was initialized beyond
+      which a BacktrackStorm event is emitted.
+      @param threshold the number of backups, at least 0
+    */
+   public static void setBacktrackStormThreshold(int threshold)
+   {  if (threshold < 0)
+         throw new IllegalArgumentException(
+            "Backtrack storm threshold must not be negative");
+      stormThreshold = threshold;
+   }
+
+   /**
+      Emits a ParseStart event for a parser which has just been
+      initialized, if the event is enabled.
+    */
+   static void parseStarted(ASDParser parser)
+   {  if (!PARSE_START.isEnabled()) return;
+      ParseStartEvent event = new ParseStartEvent();
+      event.utteranceLength = parser.utteranceLength();
+      event.expectedTypes = names(parser.expectedTypes());
+      event.commit();
+   }
+
+   /**
+      Emits a BacktrackStorm event for a parser whose number of
+      backups has just exceeded the threshold, if the event is enabled.
+    */
+   static void backtrackStorm(ASDParser parser)
+   {  if (!BACKTRACK_STORM.isEnabled()) return;
+      BacktrackStormEvent event = new BacktrackStormEvent();
+      event.utteranceLength = parser.utteranceLength();
+      event.expectedTypes = names(parser.expectedTypes());
+      event.backups = parser.backups();
+      event.steps = parser.parseStepNumber();
+      event.commit();
+   }
+
+   /**
+      Returns a new SemanticInvocation event, begun, if the event is
+      enabled; null otherwise.
+    */
+   static SemanticInvocationEvent semanticBegun()
+   {  if (!SEMANTIC_INVOCATION.isEnabled()) return null;
+      SemanticInvocationEvent event = new SemanticInvocationEvent();
+      event.begin();
+      return event;
+   }
+
+   /**
+      Ends a SemanticInvocation event returned by semanticBegun, and
+      emits it if it took longer than the threshold of the event.
+      @param event the event; null if it was not enabled
+      @param kind "action" or "value"
+      @param method the semantic action or value string
+    */
+   static void semanticEnded(SemanticInvocationEvent event, String kind,
+      String method)
+   {  if (event == null) return;
+      event.end();
+      if (event.shouldCommit())
+      {  event.kind = kind;
+         event.method = method;
+         event.commit();
+      }
+   }
+
+   /**
+      Returns a new GrammarLoad event, begun, if the event is
+      enabled; null otherwise.
+    */
+   static GrammarLoadEvent grammarLoadBegun()
+   {  if (!GRAMMAR_LOAD.isEnabled()) return null;
+      GrammarLoadEvent event = new GrammarLoadEvent();
+      event.begin();
+      return event;
+   }
+
+   /**
+      Ends and emits a GrammarLoad event returned by grammarLoadBegun.
+      @param event the event; null if it was not enabled
+      @param fileName the name of the grammar file
+      @param words the number of distinct words in the grammar
+    */
+   static void grammarLoaded(GrammarLoadEvent event, String fileName,
+      int words)
+   {  if (event == null) return;
+      event.end();
+      if (event.shouldCommit())
+      {  event.fileName = fileName;
+         event.words = words;
+         event.commit();
+      }
+   }
+
+   /**
+      Returns the names in a list of expected phrase types, separated
+      by spaces.
+    */
+   private static String names(List<?> expected)
+   {  if (expected == null) return null;
+      StringBuilder result = new StringBuilder();
+      for (int j = 0; j < expected.size(); ++j)
+      {  if (j > 0) result.append(' ');
+         result.append(expected.get(j));
+      }
+      return result.toString();
+   } // end names
+
+   /*
+      Instances of the event classes which are never committed, used
+      only to ask whether the events are enabled.
+    */
+   private static final Event PARSE_START = new ParseStartEvent();
+   private static final Event PARSE_END = new ParseEndEvent();
+   private static final Event BACKTRACK_STORM = new BacktrackStormEvent();
+   private static final Event SEMANTIC_INVOCATION
+      = new SemanticInvocationEvent();
+   private static final Event GRAMMAR_LOAD = new GrammarLoadEvent();
+
+   private static volatile int stormThreshold
+      = Integer.getInteger("asd.backtrackStorm", 1000).intValue();
+} // end class ASDEvents
@@ -0,0 +1,122 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import java.util.Arrays;
+
+/**
+   Instances are the tables of feature-value pairs of subphrases.
+   The ASDParser interns each feature name as a small slot index, and
+   a table keeps the values in an array indexed by slot, so that it
+   can be filled and cleared without hashing or making new objects.
+   A value of null means that the feature has none.  A copy shares
+   the array with the original until either of them is changed.
+   Tables can be compared by an ASDValueEquivalence for their values,
+   so that an ASDChartParser can merge paths that reach a grammar node
+   with the same features.
+   @version 1.00 2026 Oct
+ */
+class ASDFeatures
+{  /**
+      Returns the value of the feature with a given slot index;
+      null if none.
+    */
+   Object get(int slot)
+   {  return slot < values.length ? values[slot] : null;
+   }
+
+   /**
+      Sets the value of the feature with a given slot index.
+      @return the previous value; null if none
+    */
+   Object set(int slot, Object value)
+   {  if (slot >= values.length)
+      {  if (value == null) return null;
+         values = Arrays.copyOf(values,
+            Math.max(slot + 1, Math.max(8, 2 * values.length)));
+         shared = false;
+      }
+      else if (shared)
+      {  values = values.clone();
+         shared = false;
+      }
+      Object old = values[slot];
+      values[slot] = value;
+      return old;
+   } // end set
+
+   /**
+      Returns a copy of the table, which shares its array until either
+      is changed.
+    */
+   ASDFeatures copy()
+   {  ASDFeatures result = new ASDFeatures();
+      result.values = values;
+      result.shared = shared = true;
+      return result;
+   }
+
+   /**
+      Removes all of the values.
+    */
+   void clear()
+   {  if (shared)
+      {  values = EMPTY;
+         shared = false;
+      }
+      else
+         Arrays.fill(values, null);
+   }
+
+   /**
+      Indicates whether a given table has values for the same features
+      as this one, which are equivalent by a given equivalence.
+    */
+   boolean equivalent(ASDFeatures otherTable,
+      ASDValueEquivalence equivalence)
+   {  Object[] other = otherTable.values;
+      int length = Math.max(values.length, other.length);
+      for (int slot = 0; slot < length; ++slot)
+      {  Object value = slot < values.length ? values[slot] : null;
+         Object otherValue = slot < other.length ? other[slot] : null;
+         if ((value == null) != (otherValue == null)
+             || (value != null
+                 && !equivalence.equivalent(value, otherValue)))
+            return false;
+      }
+      return true;
+   } // end equivalent
+
+   /**
+      Returns a hash code which is the same for tables that are
+      equivalent by a given equivalence.
+    */
+   int hash(ASDValueEquivalence equivalence)
+   {  int result = 0;
+      for (int slot = 0; slot < values.length; ++slot)
+         if (values[slot] != null)
+            result += 31 * equivalence.hash(values[slot]) + slot;
+      return result;
+   }
+
+   private static final Object[] EMPTY = new Object[0];
+
+   private Object[] values = EMPTY;  // slot index -> value; null if none
+   private boolean shared = false;
+      // indicates whether or not values may be shared with a copy
+} // end class ASDFeatures
@@ -49,7 +49,8 @@ public class ASDGrammar
     */
    public ASDGrammar(String fileName, boolean includeCoords)
       throws IOException, ASDInputException, MalformedURLException
-   {  ASDGrammarReader reader = null;
+   {  GrammarLoadEvent event = ASDEvents.grammarLoadBegun();
+      ASDGrammarReader reader = null;
 //      try
 //      {
       reader = new ASDGrammarReader(fileName, includeCoords);
@@ -73,6 +74,7 @@ public class ASDGrammar
       reader.close(); // closes the InputStream used by the reader,
          // if it was opened using a URL.
       incomingMarked = false;
+      ASDEvents.grammarLoaded(event, fileName, table.size());
    } // end ASDGrammar(String fileName, includeCoords)
 
    /**
@@ -101,7 +103,8 @@ public class ASDGrammar
       instances in the grammar.
     */
    void computeSuccessorTypes()
-   {  Set typesRecognized = phraseTypes();
+   {  checkNotFrozen();
+      Set typesRecognized = phraseTypes();
       Set entrySet = table.entrySet();
       for (Iterator it = entrySet.iterator(); it.hasNext(); )
       {  Map.Entry e = (Map.Entry) it.next();
@@ -125,6 +128,49 @@ public class ASDGrammar
       }
    }
 
+   /**
+      Returns the compiled form of the grammar, which is used by the
+      ASDParser.  It is compiled the first time it is requested, and
+      again after setNodesWithIncomingEdgesNotMarked has been invoked
+      to indicate that the grammar has been modified.
+    */
+   public ASDCompiledGrammar compiledGrammar()
+   {  if (frozen) return compiled;
+      synchronized(this)
+      {  if (compiled == null)
+            compiled = new ASDCompiledGrammar(this);
+         return compiled;
+      }
+   }
+
+   /**
+      Freezes the grammar, so that it can be shared by any number of
+      ASDParser instances in different threads.  All successor links
+      are looked up, the nodes with incoming edges are marked, the set
+      of phrase types is computed and the grammar is compiled, so that
+      parsers never modify the grammar afterward.  The grammar must not
+      be modified once it is frozen, and the methods that would mark
+      it as modified throw an IllegalStateException.
+      @return the grammar itself
+    */
+   public synchronized ASDGrammar freeze()
+   {  if (frozen) return this;
+      markNodesWithIncomingEdges();  // also looks up all successors
+      Set<Object> types = new HashSet<Object>();
+      for (Iterator<?> it = phraseTypes().iterator(); it.hasNext(); )
+         types.add(it.next());
+      frozenPhraseTypes = Collections.unmodifiableSet(types);
+      if (compiled == null)
+         compiled = new ASDCompiledGrammar(this);
+      frozen = true;
+      return this;
+   } // end freeze
+
+   /**
+      Indicates whether or not the grammar has been frozen.
+    */
+   public boolean isFrozen() { return frozen; }
+
    /**
       Returns the HashMap used to store the words and lists of
       instances in the grammar.
@@ -177,7 +223,8 @@ public class ASDGrammar
       This is needed by ASDParser to detect uniquely-parsed subphrases.
     */
    public void markNodesWithIncomingEdges()
-   {  Set entrySet = table.entrySet();
+   {  if (frozen) return;  // they were marked when it was frozen
+      Set entrySet = table.entrySet();
       for (Iterator it = entrySet.iterator(); it.hasNext(); )
       {  Map.Entry e = (Map.Entry) it.next();
          ArrayList instances = (ArrayList) e.getValue();
@@ -215,9 +262,12 @@ public class ASDGrammar
 
    /**
       Returns a Set containing the phrase types recognized by the grammar.
+      If the grammar is frozen, the Set is computed only once, and it
+      cannot be modified.
     */
    public Set phraseTypes()
-   {  Set result = new HashSet();
+   {  if (frozen) return frozenPhraseTypes;
+      Set result = new HashSet();
       Set entrySet = table.entrySet();
       for (Iterator it = entrySet.iterator(); it.hasNext(); )
       {  Map.Entry e = (Map.Entry) it.next();
@@ -249,7 +299,9 @@ public class ASDGrammar
       to ASDParser.
     */
    public void setNodesWithIncomingEdgesNotMarked()
-   {  incomingMarked = false;
+   {  checkNotFrozen();
+      incomingMarked = false;
+      compiled = null;  // the compiled form may be out of date
    }
 
    /**
@@ -264,6 +316,15 @@ public class ASDGrammar
       return wordEntry != null && wordEntry.size() == 1;
    }
 
+   /**
+      Throws an IllegalStateException if the grammar is frozen.
+    */
+   private void checkNotFrozen()
+   {  if (frozen)
+         throw new IllegalStateException(
+            "A frozen ASDGrammar cannot be modified.");
+   }
+
    /**
       The string used in dummy nodes in an ASD grammar.
     */
@@ -271,4 +332,10 @@ public class ASDGrammar
    private HashMap table; // to hold the words and their lists of instances
    private boolean incomingMarked = false; // indicates whether
       // ASDGrammarNodes with incoming edges have been marked
+   private ASDCompiledGrammar compiled = null;
+      // the compiled form of the grammar, once it has been requested
+   private volatile boolean frozen = false;
+      // indicates whether the grammar has been frozen
+   private Set<Object> frozenPhraseTypes = null;
+      // the phrase types recognized, once the grammar is frozen
 } // end class ASDGrammar
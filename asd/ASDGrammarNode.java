@@ -332,4 +332,7 @@ public class ASDGrammarNode
       // vertical pixel coordinate of the node
    protected boolean hasIncoming = false;  // false until known to be true
       // used to indicate whether the node has any incoming edges
+   int index = -1;
+      // the node index assigned by the most recent ASDCompiledGrammar
+      // compiled from the grammar containing the node; -1 if none
 } // end class ASDGrammarNode
\ No newline at end of file
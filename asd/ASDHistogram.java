@@ -0,0 +1,179 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import java.util.*;
+
+/**
+   Instances are histograms of non-negative long values, such as
+   latencies or numbers of steps, from which percentiles can be read
+   without keeping the values themselves.
+   <BR><BR>
+   The counts are kept in logarithmic buckets, as by HdrHistogram:
+   the values from 0 to 255 each have a count of their own, and each
+   range of values from 2^k to 2^(k+1) - 1 above them is divided into
+   128 sub-buckets of equal width, so that every value is counted in a
+   sub-bucket no wider than 1/128 of the value.  A percentile read from
+   the histogram is therefore the highest value of its sub-bucket,
+   within less than 1% above the true one.  The memory used depends
+   only on the highest value to be recorded: about 1 KB for each power
+   of two from 256 up to it.  Values above it are counted as the
+   highest value, and negative values as 0; the minimum, the maximum
+   and the mean are exact.
+   <BR><BR>
+   Instances are not synchronized; a histogram shared by several
+   threads must be synchronized by its user.
+   @version 1.00 2026 Oct
+ */
+public class ASDHistogram
+{
+   /**
+      Initializes an empty histogram.
+      @param givenHighestValue the highest value to be distinguished,
+      at least 2
+    */
+   public ASDHistogram(long givenHighestValue)
+   {  if (givenHighestValue < 2)
+         throw new IllegalArgumentException(
+            "ASDHistogram highest value must be at least 2");
+      highestValue = givenHighestValue;
+      counts = new long[countsIndex(highestValue) + 1];
+   }
+
+   /**
+      Counts a given value.
+    */
+   public void record(long value)
+   {  if (value < 0)
+         value = 0;
+      if (totalCount == 0 || value < min)
+         min = value;
+      if (totalCount == 0 || value > max)
+         max = value;
+      ++totalCount;
+      sum += value;
+      ++counts[countsIndex(Math.min(value, highestValue))];
+   } // end record
+
+   /**
+      Returns the number of values counted.
+    */
+   public long count() { return totalCount; }
+
+   /**
+      Returns the least value counted; 0 if none have been.
+    */
+   public long min() { return min; }
+
+   /**
+      Returns the greatest value counted; 0 if none have been.
+    */
+   public long max() { return max; }
+
+   /**
+      Returns the mean of the values counted; 0 if none have been.
+    */
+   public double mean()
+   {  return totalCount == 0 ? 0 : (double) sum / totalCount;
+   }
+
+   /**
+      Returns a given percentile of the values counted, by the
+      nearest-rank method: the highest value of the sub-bucket which
+      contains the value at that rank, but no more than the maximum.
+      @param percentile the percentile, from 0 to 100
+      @return the percentile; 0 if no values have been counted
+    */
+   public long valueAtPercentile(double percentile)
+   {  if (totalCount == 0) return 0;
+      long rank = (long) Math.ceil(
+         Math.min(Math.max(percentile, 0), 100) / 100 * totalCount);
+      if (rank < 1) rank = 1;
+      long seen = 0;
+      for (int j = 0; j < counts.length; ++j)
+      {  seen += counts[j];
+         if (seen >= rank)
+            return Math.max(Math.min(highestInBucket(j), max), min);
+      }
+      return max;
+   } // end valueAtPercentile
+
+   /**
+      Discards all of the values counted.
+    */
+   public void reset()
+   {  Arrays.fill(counts, 0);
+      totalCount = 0;
+      sum = 0;
+      min = 0;
+      max = 0;
+   }
+
+   /**
+      Returns the count, the minimum, the 50th, 90th, 99th and 99.9th
+      percentiles and the maximum, in one line.
+    */
+   public String toString()
+   {  return "n " + totalCount + ", min " + min
+         + ", p50 " + valueAtPercentile(50)
+         + ", p90 " + valueAtPercentile(90)
+         + ", p99 " + valueAtPercentile(99)
+         + ", p99.9 " + valueAtPercentile(99.9) + ", max " + max;
+   }
+
+   /**
+      Returns the index in counts of the sub-bucket which contains a
+      given value, which is not negative.
+    */
+   private static int countsIndex(long value)
+   {  int bucket = 64 - SUB_BUCKET_BITS
+         - Long.numberOfLeadingZeros(value | SUB_BUCKET_MASK);
+      int subBucket = (int) (value >>> bucket);
+      return ((bucket + 1) << (SUB_BUCKET_BITS - 1))
+         + subBucket - SUB_BUCKET_HALF_COUNT;
+   } // end countsIndex
+
+   /**
+      Returns the highest value counted in the sub-bucket with a
+      given index in counts.
+    */
+   private static long highestInBucket(int index)
+   {  int bucket = (index >> (SUB_BUCKET_BITS - 1)) - 1;
+      long subBucket = (index & (SUB_BUCKET_HALF_COUNT - 1))
+         + SUB_BUCKET_HALF_COUNT;
+      if (bucket < 0)
+      {  subBucket -= SUB_BUCKET_HALF_COUNT;
+         bucket = 0;
+      }
+      return (subBucket << bucket) + (1L << bucket) - 1;
+   } // end highestInBucket
+
+   private static final int SUB_BUCKET_BITS = 8;
+      // 2^SUB_BUCKET_BITS values have counts of their own
+   private static final int SUB_BUCKET_HALF_COUNT
+      = 1 << (SUB_BUCKET_BITS - 1);
+      // the number of sub-buckets in each power of two above them
+   private static final long SUB_BUCKET_MASK = (1L << SUB_BUCKET_BITS) - 1;
+
+   private final long highestValue;
+   private final long[] counts;  // sub-bucket index -> number of values
+   private long totalCount = 0;
+   private long sum = 0;
+   private long min = 0;
+   private long max = 0;
+} // end class ASDHistogram
@@ -0,0 +1,107 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import java.util.Arrays;
+
+/**
+   Instances hold the metrics of ASDParserMetrics for one grammar name
+   and list of expected phrase types.
+   @version 1.00 2026 Oct
+ */
+final class ASDMetricsEntry
+{
+   /**
+      Records an attempt to find a parse.
+      @param status the ASDParseOutcome status of the attempt
+      @param steps the number of advance steps performed
+      @param backups the number of backups performed
+      @param nanos the time taken, in nanoseconds; -1 if it was not
+      measured
+    */
+   synchronized void record(int status, int steps, long backups, long nanos)
+   {  ++outcomes[status];
+      stepCounts.record(steps);
+      backupCounts.record(backups);
+      if (nanos >= 0)
+         latencies.record(nanos / 1000);
+   }
+
+   synchronized void recordCacheLookup(boolean hit)
+   {  ++cacheLookups;
+      if (hit) ++cacheHits;
+   }
+
+   synchronized long attempts()
+   {  long result = 0;
+      for (int j = 0; j < outcomes.length; ++j)
+         result += outcomes[j];
+      return result;
+   }
+
+   synchronized long outcomes(int status) { return outcomes[status]; }
+
+   synchronized long cacheHits() { return cacheHits; }
+
+   synchronized long cacheLookups() { return cacheLookups; }
+
+   synchronized long percentile(String distribution, double percentile)
+   {  if (distribution.equals("latency"))
+         return latencies.valueAtPercentile(percentile);
+      if (distribution.equals("steps"))
+         return stepCounts.valueAtPercentile(percentile);
+      if (distribution.equals("backups"))
+         return backupCounts.valueAtPercentile(percentile);
+      return -1;
+   } // end percentile
+
+   synchronized void reset()
+   {  Arrays.fill(outcomes, 0);
+      latencies.reset();
+      stepCounts.reset();
+      backupCounts.reset();
+      cacheHits = 0;
+      cacheLookups = 0;
+   }
+
+   public synchronized String toString()
+   {  StringBuilder result = new StringBuilder();
+      result.append(attempts()).append(" attempts (");
+      for (int j = 0; j < outcomes.length; ++j)
+      {  if (j > 0) result.append(", ");
+         result.append(ASDParseOutcome.statusName(j)).append(' ')
+            .append(outcomes[j]);
+      }
+      result.append("); latency us: ").append(latencies)
+         .append("; steps: ").append(stepCounts)
+         .append("; backups: ").append(backupCounts)
+         .append("; cache: ").append(cacheHits).append(" hits in ")
+         .append(cacheLookups).append(" lookups");
+      return result.toString();
+   } // end toString
+
+   private final long[] outcomes = new long[ASDParseOutcome.CANCELLED + 1];
+      // ASDParseOutcome status -> number of attempts
+   private final ASDHistogram latencies = new ASDHistogram(3600000000L);
+      // in microseconds, distinguished up to an hour
+   private final ASDHistogram stepCounts
+      = new ASDHistogram(Integer.MAX_VALUE);
+   private final ASDHistogram backupCounts
+      = new ASDHistogram(Integer.MAX_VALUE);
+   private long cacheHits = 0, cacheLookups = 0;
+} // end class ASDMetricsEntry
@@ -0,0 +1,70 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import java.util.List;
+
+/**
+   Instances are the outcomes of searches by ASDParallelParser: the
+   parses found, the number of tasks run to find them, and the number
+   of steps taken from the budget shared by the tasks.
+   @version 1.00 2026 Oct
+ */
+public class ASDParallelParse
+{  ASDParallelParse(List<ASDParseResult> givenResults, int givenTasks,
+      int givenSteps, boolean givenLimited)
+   {  results = givenResults;
+      tasks = givenTasks;
+      steps = givenSteps;
+      limited = givenLimited;
+   }
+
+   /**
+      Returns the parses found, in the order described for
+      ASDParallelParser.parse.
+    */
+   public List<ASDParseResult> results() { return results; }
+
+   /**
+      Returns the number of tasks run by the search.
+    */
+   public int taskCount() { return tasks; }
+
+   /**
+      Returns the number of advance steps taken by the search, not
+      counting the steps replayed by tasks to reach the points at
+      which they began.
+    */
+   public int stepCount() { return steps; }
+
+   /**
+      Indicates whether the search was stopped because it had taken
+      the maximum number of steps permitted.
+    */
+   public boolean stepLimitReached() { return limited; }
+
+   public String toString()
+   {  return results + " (" + tasks + " tasks, " + steps + " steps"
+         + (limited ? ", step limit reached)" : ")");
+   }
+
+   private final List<ASDParseResult> results;
+   private final int tasks;
+   private final int steps;
+   private final boolean limited;
+} // end class ASDParallelParse
@@ -0,0 +1,333 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+   Instances search for the parses of an utterance in parallel, by
+   exploring the alternatives at the points of local ambiguity in the
+   parse as separate tasks in a ForkJoinPool.
+   <BR><BR>
+   A task is identified by the sequence of choices that leads from
+   the beginning of the parse to the point at which it starts.  It
+   replays those choices in an ASDParser of its own, then follows the
+   parse until it reaches a point at which there is more than one
+   choice for advancing, where it forks a task for each choice.
+   Below a given cutoff depth (the number of such points passed)
+   a task does not fork any more, but searches the rest of its part
+   of the parse by backtracking, as ASDParser.parse does.
+   <BR><BR>
+   The ASDParsers are obtained from a given Supplier and reused.  Each
+   must use the same grammar and equivalent semantics, and semantics
+   that belong to one parser must not be shared with another.  Since
+   the tasks do not share their phrase structures, a subphrase that is
+   parsed uniquely and saved by one task is not seen by the others.
+   <BR><BR>
+   The tasks share one budget of advance steps.  The steps a task
+   replays to reach the point at which it begins are not taken from
+   the budget, since they were taken from it by the task that first
+   followed them, but they are included in the steps of the parses
+   the task finds.  The steps of the searches that a parser with an
+   ASDSubphraseCache makes within one advance are taken from the
+   budget too.
+   <BR><BR>
+   With the COLLECT_ALL policy the parses are returned in the order in
+   which a single ASDParser would find them.  With FIRST_WINS the
+   search stops as soon as any task finds a parse, and that parse is
+   returned; which one is found first may differ from run to run.
+   @version 1.00 2026 Oct
+ */
+public class ASDParallelParser
+{
+   /**
+      Initializes an ASDParallelParser.
+      @param parserSupplier supplies a new ASDParser, with its grammar
+      and semantics, whenever the search needs another one
+      @param givenPool the ForkJoinPool in which to run the tasks
+      @param cutoffDepth the number of points of local ambiguity below
+      which tasks stop forking new tasks; 0 to search sequentially
+      @param givenPolicy COLLECT_ALL or FIRST_WINS
+    */
+   public ASDParallelParser(Supplier<ASDParser> parserSupplier,
+      ForkJoinPool givenPool, int cutoffDepth, int givenPolicy)
+   {  supplier = parserSupplier;
+      pool = givenPool;
+      cutoff = cutoffDepth;
+      policy = givenPolicy;
+   }
+
+   /**
+      Finds the parses of a given string as one of a list of expected
+      phrase types.
+      @param aString the string to be parsed
+      @param expected an ArrayList of strings, each the name
+      of one of the expected phrase types
+      @param maxSteps the maximum number of advance steps permitted
+      to all of the tasks together
+      @return the outcome of the search, whose results are a list of
+      ASDParseResult instances; with FIRST_WINS it has at most one
+      element.  The index of each result is its position in the list,
+      and its steps are those taken by the task that found it.
+    */
+   public ASDParallelParse parse(String aString, ArrayList<?> expected,
+      int maxSteps)
+   {  ASDSearch search = new ASDSearch(aString, expected, maxSteps);
+      ArrayList<ASDParseResult> found
+         = pool.invoke(search.new Task(new int[0], 0));
+      if (policy == FIRST_WINS)
+      {  found = new ArrayList<ASDParseResult>();
+         if (search.first.get() != null)
+            found.add(search.first.get());
+      }
+      ArrayList<ASDParseResult> result
+         = new ArrayList<ASDParseResult>(found.size());
+      for (int j = 0; j < found.size(); ++j)
+      {  ASDParseResult r = found.get(j);
+         result.add(new ASDParseResult(r.bracketedPhrase(),
+            r.phraseType(), r.value(), r.steps(), j));
+      }
+      return new ASDParallelParse(result, search.tasks.get(),
+         search.stepsTaken.get(), search.limited);
+   } // end parse
+
+   /**
+      A policy by which all parses are found.
+    */
+   public static final int COLLECT_ALL = 0;
+
+   /**
+      A policy by which the search stops at the first parse found.
+    */
+   public static final int FIRST_WINS = 1;
+
+   /**
+      Instances hold the state shared by the tasks searching for the
+      parses of one utterance.
+    */
+   private class ASDSearch
+   {  ASDSearch(String givenString, ArrayList<?> givenExpected,
+         int givenMaxSteps)
+      {  aString = givenString;
+         expected = givenExpected;
+         stepsLeft = new AtomicInteger(givenMaxSteps);
+      }
+
+      /**
+         Indicates whether the search should stop, because the
+         parse was quit, the step budget was used up or the first
+         parse has been found.
+       */
+      boolean stopped()
+      {  return quit || limited
+            || (policy == FIRST_WINS && first.get() != null);
+      }
+
+      /**
+         Takes one step from the budget shared by the tasks, if any
+         is left.
+         @return true if a step was taken; false if the budget was
+         used up, in which case the search is stopped
+       */
+      boolean takeStep()
+      {  if (stepsLeft.getAndDecrement() > 0)
+         {  stepsTaken.incrementAndGet();
+            return true;
+         }
+         limited = true;
+         return false;
+      }
+
+      /**
+         Takes the steps of the searches made by a parser for its
+         subphrase cache during its latest advance from the budget
+         shared by the tasks, stopping the search if that uses the
+         budget up.
+         @return the number of steps taken
+       */
+      int searchSteps(ASDParser parser)
+      {  int n = parser.takeSearchSteps();
+         if (n > 0)
+         {  stepsTaken.addAndGet(n);
+            if (stepsLeft.addAndGet(-n) < 0)
+               limited = true;
+         }
+         return n;
+      }
+
+      /**
+         Records a parse found by a task, if the search has not
+         stopped.
+       */
+      void found(ASDParser parser, int steps,
+         ArrayList<ASDParseResult> results)
+      {  ASDPhraseNode top = parser.phraseStructure().nextNode();
+         ASDParseResult r = new ASDParseResult(parser.bracketPhrase(),
+            top.word(), top.value(), steps, 0);
+         if (policy == FIRST_WINS)
+            first.compareAndSet(null, r);
+         else if (!quit)
+            results.add(r);
+      }
+
+      /**
+         Instances are the tasks in the search.
+       */
+      class Task extends RecursiveTask<ArrayList<ASDParseResult>>
+      {  Task(int[] givenChoices, int givenDepth)
+         {  choices = givenChoices;
+            depth = givenDepth;
+         }
+
+         protected ArrayList<ASDParseResult> compute()
+         {  ArrayList<ASDParseResult> results
+               = new ArrayList<ASDParseResult>();
+            if (stopped()) return results;
+            tasks.incrementAndGet();
+            ASDParser parser = idle.poll();
+            if (parser == null)
+               parser = supplier.get();
+            int[] path = choices;
+            int steps = 0;
+            int n = 0;  // the number of choices at which to fork
+            try
+            {  // Replay the choices that lead to the task, reusing
+               // the objects of the parser's previous parse, which
+               // is not referred to by any ASDParseResult:
+               parser.reset();
+               parser.initialize(aString, expected);
+               String advanceResult = parser.SUCCEED;
+               for ( ; steps < path.length
+                       && advanceResult == parser.SUCCEED; ++steps)
+                  advanceResult = parser.advanceChoice(path[steps]);
+               // The steps of searches made while replaying, which are
+               // not taken from the budget either:
+               steps += parser.takeSearchSteps();
+               if (advanceResult == parser.QUIT) quit = true;
+               if (advanceResult != parser.SUCCEED) return results;
+               if (path.length > 0 && parser.done())
+                  found(parser, steps, results);
+
+               // Follow the parse to the next point of local ambiguity:
+               while (depth < cutoff)
+               {  if (stopped()) return results;
+                  n = parser.choiceCount();
+                  if (n == 0) return results;
+                  if (n > 1) break;
+                  if (!takeStep()) return results;
+                  ++steps;
+                  advanceResult = parser.advanceChoice(0);
+                  steps += searchSteps(parser);
+                  path = append(path, 0);
+                  if (advanceResult == parser.QUIT) quit = true;
+                  if (advanceResult != parser.SUCCEED) return results;
+                  if (parser.done())
+                     found(parser, steps, results);
+               }
+
+               if (depth >= cutoff)
+               {  // Search the rest of the task's part of the parse
+                  // by backtracking:
+                  steps = 0;
+                  while (!stopped() && takeStep())
+                  {  ++steps;
+                     advanceResult = parser.advance();
+                     steps += searchSteps(parser);
+                     if (advanceResult == parser.QUIT)
+                     {  quit = true;
+                        break;
+                     }
+                     else if (advanceResult == parser.SUCCEED)
+                     {  if (parser.done())
+                        {  found(parser, steps, results);
+                           steps = 0;
+                        }
+                     }
+                     else if (!parser.backup()) // NOADVANCE
+                        break;
+                  }
+                  return results;
+               }
+            }
+            finally
+            {  idle.add(parser);
+            }
+
+            // Fork a task for each choice at the point of local
+            // ambiguity, after releasing the parser:
+            Task[] forked = new Task[n];
+            for (int j = 0; j < n; ++j)
+               forked[j] = new Task(append(path, j), depth + 1);
+            invokeAll(forked);
+            for (int j = 0; j < n; ++j)
+               results.addAll(forked[j].join());
+            return results;
+         } // end compute
+
+         private final int[] choices;
+            // the indices of the choices that lead to the task
+         private final int depth;
+            // the number of points of local ambiguity passed
+         private static final long serialVersionUID = 1L;
+      } // end class Task
+
+      final String aString;       // the string being parsed
+      final ArrayList<?> expected;   // the expected phrase types
+      final AtomicInteger stepsLeft;
+         // the steps left in the budget shared by the tasks
+      final AtomicInteger stepsTaken = new AtomicInteger();
+         // the steps taken from the budget
+      final AtomicInteger tasks = new AtomicInteger();
+         // the number of tasks run by the search
+      volatile boolean quit = false;
+         // indicates whether the semantics has quit the parse
+      volatile boolean limited = false;
+         // indicates whether the step budget has been used up
+      final AtomicReference<ASDParseResult> first
+         = new AtomicReference<ASDParseResult>();
+         // the first parse found, with the FIRST_WINS policy
+   } // end class ASDSearch
+
+   /**
+      Returns a copy of an array of choice indices with one more
+      index at the end.
+    */
+   private static int[] append(int[] path, int choice)
+   {  int[] result = Arrays.copyOf(path, path.length + 1);
+      result[path.length] = choice;
+      return result;
+   }
+
+   private final Supplier<ASDParser> supplier;
+      // supplies new ASDParsers
+   private final ConcurrentLinkedQueue<ASDParser> idle
+      = new ConcurrentLinkedQueue<ASDParser>();
+      // ASDParsers not in use by any task
+   private final ForkJoinPool pool;
+      // the pool in which the tasks run
+   private final int cutoff;
+      // the depth below which tasks do not fork
+   private final int policy;
+      // COLLECT_ALL or FIRST_WINS
+} // end class ASDParallelParser
@@ -0,0 +1,273 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import java.util.*;
+
+/**
+   Instances are bounded caches of the complete parses of whole
+   utterances, so that an application which is given the same
+   utterances again and again need not parse them again.
+   <BR><BR>
+   An entry is keyed by the utterance, with its white space normalized,
+   the list of expected phrase types, whether it was parsed strictly
+   (for applications which distinguish strict from relaxed parsing),
+   and the version of the grammar, which is its compiled form: a
+   grammar that is recompiled after being modified, or reloaded, is a
+   new version.  When an entry is added for a new version of a grammar,
+   the entries for the previous version are discarded.
+   <BR><BR>
+   The cache is bounded both by the number of entries and by their
+   total weight, an estimate of their size: the number of characters
+   in the utterance and in the bracketed phrases of its parses, plus
+   RESULT_WEIGHT for each parse.  When either bound is exceeded, the
+   least recently used entries are evicted.
+   <BR><BR>
+   The lists of ASDParseResult instances stored are unmodifiable, but
+   the cache does not copy their semantic values; an application whose
+   semantic values can be modified must store copies of them and copy
+   them again when they are retrieved.  Instances may be shared by
+   any number of threads.
+   @version 1.00 2026 Oct
+ */
+public class ASDParseCache
+{
+   /**
+      Initializes an empty cache.
+      @param givenMaxEntries the maximum number of entries
+      @param givenMaxWeight the maximum total weight of the entries
+    */
+   public ASDParseCache(int givenMaxEntries, long givenMaxWeight)
+   {  if (givenMaxEntries < 1 || givenMaxWeight < 1)
+         throw new IllegalArgumentException(
+            "ASDParseCache bounds must be positive");
+      maxEntries = givenMaxEntries;
+      maxWeight = givenMaxWeight;
+   }
+
+   /**
+      Returns the parses stored for an utterance, counting a hit or
+      a miss.
+      @param grammar the grammar with which the utterance is parsed
+      @param utterance the utterance
+      @param expected the list of the names of the expected phrase types
+      @param strict whether or not the utterance is parsed strictly
+      @return an unmodifiable list of ASDParseResult instances, in the
+      order in which they were found; null if none are stored
+    */
+   public synchronized List<ASDParseResult> get(ASDGrammar grammar,
+      String utterance, List<?> expected, boolean strict)
+   {  ASDParseCacheEntry e = entries.get(
+         new ASDParseCacheKey(grammar.compiledGrammar(),
+            normalize(utterance), expected, strict));
+      if (e == null)
+      {  ++misses;
+         return null;
+      }
+      ++hits;
+      return e.results;
+   } // end get
+
+   /**
+      Stores the parses of an utterance, replacing any stored for it
+      already, and evicts the least recently used entries if the cache
+      is then over either of its bounds.
+      @param grammar the grammar with which the utterance was parsed
+      @param utterance the utterance
+      @param expected the list of the names of the expected phrase types
+      @param strict whether or not the utterance was parsed strictly
+      @param results the ASDParseResult instances, in the order in
+      which they were found; the list is copied
+    */
+   public synchronized void put(ASDGrammar grammar, String utterance,
+      List<?> expected, boolean strict, List<ASDParseResult> results)
+   {  ASDCompiledGrammar version = grammar.compiledGrammar();
+      if (version != currentVersion)
+      {  if (currentVersion != null && !entries.isEmpty())
+         {  entries.clear();
+            weight = 0;
+            ++invalidations;
+         }
+         currentVersion = version;
+      }
+      String key = normalize(utterance);
+      ASDParseCacheEntry e = new ASDParseCacheEntry(
+         Collections.unmodifiableList(
+            new ArrayList<ASDParseResult>(results)),
+         weight(key, results));
+      ASDParseCacheEntry old = entries.put(
+         new ASDParseCacheKey(version, key, expected, strict), e);
+      weight += e.weight;
+      if (old != null)
+         weight -= old.weight;
+      for (Iterator<ASDParseCacheEntry> it = entries.values().iterator();
+           (entries.size() > maxEntries || weight > maxWeight)
+           && it.hasNext(); )
+      {  weight -= it.next().weight;
+         it.remove();
+         ++evictions;
+      }
+   } // end put
+
+   /**
+      Discards all of the entries, as when the grammar has been
+      changed in a way the cache cannot detect.
+    */
+   public synchronized void invalidate()
+   {  entries.clear();
+      weight = 0;
+      currentVersion = null;
+      ++invalidations;
+   }
+
+   /**
+      Returns the number of entries.
+    */
+   public synchronized int size() { return entries.size(); }
+
+   /**
+      Returns the total weight of the entries.
+    */
+   public synchronized long weight() { return weight; }
+
+   /**
+      Returns the number of calls of get that found an entry.
+    */
+   public synchronized long hits() { return hits; }
+
+   /**
+      Returns the number of calls of get that found no entry.
+    */
+   public synchronized long misses() { return misses; }
+
+   /**
+      Returns the number of entries evicted to keep the cache within
+      its bounds.
+    */
+   public synchronized long evictions() { return evictions; }
+
+   /**
+      Returns the number of times all of the entries were discarded
+      because the grammar changed or invalidate was called.
+    */
+   public synchronized long invalidations() { return invalidations; }
+
+   /**
+      Returns the counts, in one line.
+    */
+   public synchronized String toString()
+   {  return "ASDParseCache: " + entries.size() + " entries, weight "
+         + weight + ", " + hits + " hits, " + misses + " misses, "
+         + evictions + " evictions, " + invalidations + " invalidations";
+   }
+
+   /**
+      Returns a given utterance with leading and trailing white space
+      removed and each other sequence of white space characters
+      replaced by a single space.
+    */
+   static String normalize(String utterance)
+   {  StringBuilder result = new StringBuilder(utterance.length());
+      boolean space = false;
+      for (int j = 0; j < utterance.length(); ++j)
+      {  char c = utterance.charAt(j);
+         if (Character.isWhitespace(c))
+            space = result.length() > 0;
+         else
+         {  if (space) result.append(' ');
+            space = false;
+            result.append(c);
+         }
+      }
+      return result.toString();
+   } // end normalize
+
+   /**
+      Returns the weight of an entry for a given normalized utterance
+      and its parses.
+    */
+   private static long weight(String utterance,
+      List<ASDParseResult> results)
+   {  long result = utterance.length();
+      for (int j = 0; j < results.size(); ++j)
+      {  String phrase = results.get(j).bracketedPhrase();
+         result += RESULT_WEIGHT + (phrase == null ? 0 : phrase.length());
+      }
+      return result;
+   } // end weight
+
+   /**
+      The weight added for each parse of an entry, in addition to the
+      length of its bracketed phrase.
+    */
+   public static final int RESULT_WEIGHT = 64;
+
+   private final int maxEntries;
+   private final long maxWeight;
+   private final LinkedHashMap<ASDParseCacheKey, ASDParseCacheEntry> entries
+      = new LinkedHashMap<ASDParseCacheKey, ASDParseCacheEntry>(16, 0.75f,
+         true);  // least recently used first
+   private ASDCompiledGrammar currentVersion;
+      // the grammar version of the entries; null if none have been added
+   private long weight;  // the total weight of the entries
+   private long hits, misses, evictions, invalidations;
+} // end class ASDParseCache
+
+/**
+   Instances are the keys of ASDParseCache entries.
+ */
+final class ASDParseCacheKey
+{  ASDParseCacheKey(ASDCompiledGrammar givenVersion, String givenUtterance,
+      List<?> givenExpected, boolean givenStrict)
+   {  version = givenVersion;
+      utterance = givenUtterance;
+      expected = new ArrayList<Object>(givenExpected);
+      strict = givenStrict;
+      hash = ((System.identityHashCode(version) * 31
+         + utterance.hashCode()) * 31 + expected.hashCode()) * 2
+         + (strict ? 1 : 0);
+   }
+
+   public boolean equals(Object other)
+   {  if (!(other instanceof ASDParseCacheKey)) return false;
+      ASDParseCacheKey k = (ASDParseCacheKey) other;
+      return version == k.version && strict == k.strict
+         && utterance.equals(k.utterance) && expected.equals(k.expected);
+   }
+
+   public int hashCode() { return hash; }
+
+   private final ASDCompiledGrammar version;
+   private final String utterance;  // normalized
+   private final ArrayList<Object> expected;  // of String; a copy
+   private final boolean strict;
+   private final int hash;
+} // end class ASDParseCacheKey
+
+/**
+   Instances are the entries of an ASDParseCache.
+ */
+final class ASDParseCacheEntry
+{  ASDParseCacheEntry(List<ASDParseResult> givenResults, long givenWeight)
+   {  results = givenResults;
+      weight = givenWeight;
+   }
+
+   final List<ASDParseResult> results;  // unmodifiable
+   final long weight;
+} // end class ASDParseCacheEntry
@@ -0,0 +1,45 @@
+/*
+
+Copyright 2000-2005 James A. Mason
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+
+/**
+   Instances record choices for advancing the parse state, as triples
+      advanceType: INITIAL, DUMMY, NONDUMMY, FINAL, or CACHED for
+         an ASDCachedChoice
+      nextNode: the next ASDGrammarNode for the parser to advance to,
+         if advanceType is INITIAL, DUMMY, or NONDUMMY
+      completedType: a String representing the phrase type of the
+         completed subphrse, if advanceType is FINAL
+   together with the word index of completedType in the compiled grammar.
+   Instances are immutable, so that they can be shared.
+ */
+class ASDParseChoice
+{  ASDParseChoice(char type, ASDGrammarNode node, String completed,
+      int completedIndex)
+   {  advanceType = type;
+      nextNode = node;
+      completedType = completed;
+      completedTypeIndex = completedIndex;
+   }
+
+   public final char advanceType;
+   public final ASDGrammarNode nextNode;
+   public final String completedType;
+   public final int completedTypeIndex; // word index of completedType
+} // end class ASDParseChoice
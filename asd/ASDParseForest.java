@@ -0,0 +1,256 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import java.util.*;
+
+/**
+   Instances are packed forests of all the parses of an utterance, as
+   found by an ASDChartParser.  Each subphrase is stored once, with
+   the list of alternative ways in which it was parsed, and it is
+   shared by every parse that contains it.  Within a subphrase, the
+   paths through the grammar that reach the same grammar node at the
+   same position with equal features are packed into one item, with
+   the list of the alternative ways of arriving there, and the rest
+   of the path is shared by all of them.  The number of parses is
+   computed from the forest without enumerating them, and any one of
+   them can be extracted as a phrase structure by its index.
+   <BR><BR>
+   The parses are numbered in the order of the complete subphrases
+   for the whole utterance, then of their alternatives, with the
+   choices for later subphrases in an alternative varying fastest.
+   Counts that exceed Long.MAX_VALUE are reported as Long.MAX_VALUE.
+   @version 1.00 2026 Oct
+ */
+public class ASDParseForest
+{
+   /**
+      Initializes a forest with given chart entries for the complete
+      parses of an utterance.
+      @param givenRoots a list of ASDChartEntry instances
+      @param givenHeaderWord the word in the header node of the
+      phrase structures returned by parse
+    */
+   ASDParseForest(ArrayList<ASDChartEntry> givenRoots,
+      String givenHeaderWord)
+   {  roots = givenRoots == null ? new ArrayList<ASDChartEntry>()
+                                 : givenRoots;
+      headerWord = givenHeaderWord;
+   }
+
+   /**
+      Returns the number of ambiguity points in the forest: the number
+      of packed nodes, contained in at least one parse, that have more
+      than one alternative -- subphrases completed at more than one
+      final item, and items arrived at in more than one way.
+    */
+   public int ambiguityCount()
+   {  HashSet<Object> seen = new HashSet<Object>();
+      ArrayList<ASDChartEntry> pending = new ArrayList<ASDChartEntry>();
+      for (int j = 0; j < roots.size(); ++j)
+         pending.add(roots.get(j));
+      int result = 0;
+      while (pending.size() > 0)
+      {  ASDChartEntry entry = pending.remove(pending.size() - 1);
+         if (!seen.add(entry) || count(entry) == 0) continue;
+         int ways = 0;
+         ArrayList<ASDChartItem> items = new ArrayList<ASDChartItem>();
+         for (int j = 0; j < entry.alternatives.size(); ++j)
+         {  ASDChartItem last = entry.alternatives.get(j);
+            if (count(last) == 0) continue;
+            ++ways;
+            items.add(last);
+         }
+         if (ways > 1)
+            ++result;
+         // Find the subphrases on the paths to the items:
+         while (items.size() > 0)
+         {  ASDChartItem item = items.remove(items.size() - 1);
+            if (!seen.add(item)) continue;
+            int arrivals = 0;
+            for (int j = 0; j < item.arrivals.size(); ++j)
+            {  ASDChartStep step = item.arrivals.get(j);
+               if (count(step) == 0) continue;
+               ++arrivals;
+               if (step.entry != null)
+                  pending.add(step.entry);
+               if (step.previous != null)
+                  items.add(step.previous);
+            }
+            if (arrivals > 1)
+               ++result;
+         }
+      }
+      return result;
+   } // end ambiguityCount
+
+   /**
+      Returns the phrase structure of the k-th parse in the forest.
+      Only the nodes of that parse are created.
+      @param k the index of the parse, origin 0
+      @return the header node of the phrase structure, which is
+      followed by a single node for the whole utterance
+      @throws IndexOutOfBoundsException if k is negative or not less
+      than parseCount()
+    */
+   public ASDPhraseNode parse(long k)
+   {  if (k >= 0)
+         for (int j = 0; j < roots.size(); ++j)
+         {  ASDChartEntry root = roots.get(j);
+            long c = count(root);
+            if (k < c)
+            {  ASDPhraseNode header = new ASDPhraseNode();
+               header.setWord(headerWord);
+               header.setNextNode(build(root, k, null));
+               return header;
+            }
+            k -= c;
+         }
+      throw new IndexOutOfBoundsException("No parse " + k + " in forest");
+   } // end parse
+
+   /**
+      Returns the number of parses in the forest, without enumerating
+      them.
+    */
+   public long parseCount()
+   {  long result = 0;
+      for (int j = 0; j < roots.size(); ++j)
+         result = add(result, count(roots.get(j)));
+      return result;
+   }
+
+   /**
+      Returns the number of distinct complete subphrases for the whole
+      utterance -- those that differ in phrase type or semantic value.
+    */
+   public int rootCount() { return roots.size(); }
+
+   /**
+      Returns the semantic value of the j-th complete subphrase for the
+      whole utterance.
+      @param j the index of the subphrase, origin 0
+    */
+   public Object rootValue(int j)
+   {  return roots.get(j).value;
+   }
+
+   /**
+      Creates the k-th parse of the subphrase in a given chart entry.
+      @param entry the chart entry
+      @param k the index of the parse of the subphrase
+      @param instance the grammar node for the new phrase node
+      @return a new phrase node for the subphrase, with the nodes
+      of the parse below it
+    */
+   private ASDPhraseNode build(ASDChartEntry entry, long k,
+      ASDGrammarNode instance)
+   {  ASDChartItem item = null;
+      for (int j = 0; j < entry.alternatives.size(); ++j)
+      {  item = entry.alternatives.get(j);
+         long c = count(item);
+         if (k < c) break;
+         k -= c;
+      }
+      ASDPhraseNode subphrase = null;
+      while (item != null)
+      {  ASDChartStep step = null;
+         for (int j = 0; j < item.arrivals.size(); ++j)
+         {  step = item.arrivals.get(j);
+            long c = count(step);
+            if (k < c) break;
+            k -= c;
+         }
+         ASDPhraseNode node;
+         if (step.entry == null)
+            node = (ASDPhraseNode) step.node.clone();
+         else
+         {  long c = count(step.entry);
+            node = build(step.entry, k % c, step.node.instance());
+            k /= c;
+         }
+         node.setNextNode(subphrase);
+         subphrase = node;
+         item = step.previous;
+      }
+      ASDPhraseNode result = entry.newPhraseNode(instance);
+      result.setSubphrase(subphrase);
+      return result;
+   } // end build
+
+   /**
+      Returns the number of ways in which the subphrase in a given
+      chart entry can be parsed.  A subphrase that contains itself
+      contributes no parses through that alternative.
+    */
+   private static long count(ASDChartEntry entry)
+   {  if (entry.countState == 2) return entry.count;
+      if (entry.countState == 1) return 0;  // a cycle in the forest
+      entry.countState = 1;
+      long result = 0;
+      for (int j = 0; j < entry.alternatives.size(); ++j)
+         result = add(result, count(entry.alternatives.get(j)));
+      entry.count = result;
+      entry.countState = 2;
+      return result;
+   } // end count(entry)
+
+   /**
+      Returns the number of ways in which the subphrases matched on
+      the paths that arrive at a given item can be parsed.  A path
+      that passes through the item more than once contributes no
+      parses.
+    */
+   private static long count(ASDChartItem item)
+   {  if (item.countState == 2) return item.count;
+      if (item.countState == 1) return 0;  // a cycle of dummy nodes
+      item.countState = 1;
+      long result = 0;
+      for (int j = 0; j < item.arrivals.size(); ++j)
+         result = add(result, count(item.arrivals.get(j)));
+      item.count = result;
+      item.countState = 2;
+      return result;
+   } // end count(item)
+
+   /**
+      Returns the number of ways in which the subphrases matched on
+      the paths ending at a given step can be parsed.
+    */
+   private static long count(ASDChartStep step)
+   {  long result = step.entry == null ? 1 : count(step.entry);
+      if (step.previous != null && result > 0)
+         result = multiply(result, count(step.previous));
+      return result;
+   } // end count(step)
+
+   private static long add(long a, long b)
+   {  long sum = a + b;
+      return sum < 0 ? Long.MAX_VALUE : sum;
+   }
+
+   private static long multiply(long a, long b)
+   {  if (a == 0 || b == 0) return 0;
+      return a > Long.MAX_VALUE / b ? Long.MAX_VALUE : a * b;
+   }
+
+   private ArrayList<ASDChartEntry> roots;
+      // the chart entries for the complete parses
+   private String headerWord;
+      // the word in the header node of a phrase structure
+} // end class ASDParseForest
@@ -0,0 +1,109 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+
+/**
+   Instances are immutable records of how an attempt to find the next
+   parse of an utterance ended, as returned by ASDParser.parse with a
+   deadline: whether a parse was found, and if not, why the search
+   stopped, together with the number of advance steps performed.
+   @version 1.00 2026 Oct
+ */
+public final class ASDParseOutcome
+{
+   /**
+      Initializes a parse outcome.
+      @param givenStatus SUCCEEDED, EXHAUSTED, QUIT, STEP_LIMIT,
+      TIMED_OUT or CANCELLED
+      @param givenSteps the number of advance steps performed
+    */
+   ASDParseOutcome(int givenStatus, int givenSteps)
+   {  status = givenStatus;
+      steps = givenSteps;
+   }
+
+   /**
+      Returns SUCCEEDED, EXHAUSTED, QUIT, STEP_LIMIT, TIMED_OUT or
+      CANCELLED.
+    */
+   public int status() { return status; }
+
+   /**
+      Returns the number of advance steps performed, counted as by
+      ASDParser.parse(int maxSteps).
+    */
+   public int steps() { return steps; }
+
+   /**
+      Indicates whether or not a parse was found.
+    */
+   public boolean succeeded() { return status == SUCCEEDED; }
+
+   /**
+      Returns the name of the status and the number of steps.
+    */
+   public String toString()
+   {  return STATUS_NAMES[status] + " after " + steps + " steps";
+   }
+
+   /**
+      Returns the name of a given status, such as "SUCCEEDED".
+    */
+   static String statusName(int status) { return STATUS_NAMES[status]; }
+
+   /**
+      A status indicating that a parse was found.
+    */
+   public static final int SUCCEEDED = 0;
+
+   /**
+      A status indicating that there are no more parses: the parser
+      could not back up any further.
+    */
+   public static final int EXHAUSTED = 1;
+
+   /**
+      A status indicating that the semantics quit the parse.
+    */
+   public static final int QUIT = 2;
+
+   /**
+      A status indicating that the maximum number of steps was
+      performed without finding a parse.
+    */
+   public static final int STEP_LIMIT = 3;
+
+   /**
+      A status indicating that the deadline passed before a parse
+      was found.
+    */
+   public static final int TIMED_OUT = 4;
+
+   /**
+      A status indicating that the parse was cancelled before a parse
+      was found.
+    */
+   public static final int CANCELLED = 5;
+
+   private static final String[] STATUS_NAMES = { "SUCCEEDED",
+      "EXHAUSTED", "QUIT", "STEP_LIMIT", "TIMED_OUT", "CANCELLED" };
+
+   private final int status;
+   private final int steps;
+} // end class ASDParseOutcome
@@ -0,0 +1,98 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+
+/**
+   Instances are records of complete parses of an utterance, as
+   returned by ASDParser.parses and stored by ASDParseCache.  Each
+   holds what a caller would otherwise copy out of the ASDParser before
+   asking it for the next parse.  The fields are immutable, but the
+   semantic value is not copied: it is the object computed by the
+   semantics, shared with the parser's phrase structure and with
+   anything else that holds it, and it is immutable only if the
+   semantics makes it so.  An application whose semantic values can
+   be changed should give each consumer its own copy, as
+   NpXDemoSemantics does with SemanticValue.deepCopy before it stores
+   results in an ASDParseCache.
+   @version 1.00 2026 Oct
+ */
+public final class ASDParseResult
+{
+   /**
+      Initializes a parse result.
+      @param phrase the bracketed phrase, as from bracketPhrase()
+      @param type the phrase type of the whole utterance
+      @param givenValue the semantic value of the whole utterance
+      @param givenSteps the number of advance steps taken to find
+      the parse after the previous one
+      @param givenIndex the index of the parse, origin 0
+    */
+   public ASDParseResult(String phrase, String type, Object givenValue,
+      int givenSteps, int givenIndex)
+   {  bracketedPhrase = phrase;
+      phraseType = type;
+      value = givenValue;
+      steps = givenSteps;
+      index = givenIndex;
+   }
+
+   /**
+      Returns the utterance with parentheses around each subphrase of
+      more than one non-dummy word, as from ASDParser.bracketPhrase().
+    */
+   public String bracketedPhrase() { return bracketedPhrase; }
+
+   /**
+      Returns the index of the parse among those of the utterance,
+      in the order found, origin 0.
+    */
+   public int index() { return index; }
+
+   /**
+      Returns the phrase type of the whole utterance in the parse.
+    */
+   public String phraseType() { return phraseType; }
+
+   /**
+      Returns the number of advance steps the parser took to find the
+      parse, after it had found the previous one, counted as by
+      ASDParser.parse(int maxSteps).
+    */
+   public int steps() { return steps; }
+
+   /**
+      Returns the semantic value of the whole utterance in the parse;
+      null if none.  The value is shared, not copied; see the class
+      comment.
+    */
+   public Object value() { return value; }
+
+   /**
+      Returns the bracketed phrase and the semantic value.
+    */
+   public String toString()
+   {  return bracketedPhrase + " = " + value;
+   }
+
+   private final String bracketedPhrase;
+   private final String phraseType;
+   private final Object value;
+   private final int steps;
+   private final int index;
+} // end class ASDParseResult
@@ -0,0 +1,64 @@
+/*
+
+Copyright 2000-2005 James A. Mason
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import java.util.ArrayList;
+
+/**
+   Instances record the state of a parse.  At points of local
+   ambiguity during a parse, part of it is put on the backup
+   stack in an ASDChoicePoint, and changes to the rest are
+   recorded on the undo trail, for recovery later if the
+   parser backtracks.  Since this
+   is intended to be like a C struct, the instance variables
+   are made public for efficiency.  Since this is class is
+   intended to be used only by the the ASDParser class, it is
+   not declared public.
+
+   @author James A. Mason
+   @version 1.03 2000 May 26; Jun 13; 2001 Feb 5; Aug 29
+ */
+class ASDParseState
+{
+   public ASDPhraseNode phraseStructure;
+      // the first (dummy) node in the current phrase structure
+   public ASDPhraseNode currentNode;
+      // the current node at top level in the phrase structure
+   public ArrayList<ASDParseChoice> currentChoices;
+      // the choices for next advance of the parse
+   public int beginning;
+      // the index of the first node in the current subphrase
+      // (origin 1)
+   public ASDFeatures features;
+      // the feature-value pairs for the current top-level
+      // subphrase
+   public boolean unique;
+      // indicates whether or not the current top-level
+      // subphrase is, so far, uniquely parsed
+   public ASDSubphraseStackFrame subphraseStack;
+      // stacks the beginning indices for all currently
+      // incomplete subphrases; null if there are none
+   public ASDPhraseNode nextNodeSubphrase;
+      // link to subphrase of next node after current one
+      // (if any), to detect possible cases of permanent
+      // final advance after the current node
+   public char advanceCase;
+      // the kind of advance about to be applied after the
+      // current parse state is put on the backup stack:
+      // ASDParser.INITIAL, .FINAL, .DUMMY, .NONDUMMY or .CACHED
+} // end class ASDParseState
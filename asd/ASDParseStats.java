@@ -0,0 +1,164 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+
+/**
+   Instances are counts of the work an ASDParser does to parse an
+   utterance, to explain why one utterance takes longer than another.
+   An ASDParser fills one in only if it has been given one by
+   setStats; it clears it when it is initialized for each utterance,
+   and adds to it for every parse of the utterance found after that.
+   Times are measured with System.nanoTime().
+   @version 1.00 2026 Oct
+ */
+public class ASDParseStats
+{
+   /**
+      Returns the number of INITIAL advances, each of which began
+      a subphrase.
+    */
+   public long initialAdvances() { return initialAdvances; }
+
+   /**
+      Returns the number of FINAL advances, each of which completed
+      a subphrase.
+    */
+   public long finalAdvances() { return finalAdvances; }
+
+   /**
+      Returns the number of DUMMY advances.
+    */
+   public long dummyAdvances() { return dummyAdvances; }
+
+   /**
+      Returns the number of NONDUMMY advances.
+    */
+   public long nonDummyAdvances() { return nonDummyAdvances; }
+
+   /**
+      Returns the number of calls of advance() that returned NOADVANCE,
+      because there were no choices left or the semantics rejected
+      the advance.
+    */
+   public long failedAdvances() { return failedAdvances; }
+
+   /**
+      Returns the number of successful backups.
+    */
+   public long backups() { return backups; }
+
+   /**
+      Returns the greatest number of choice points on the backup stack.
+    */
+   public int maxBackstackDepth() { return maxBackstackDepth; }
+
+   /**
+      Returns the number of phrase nodes made for dummy nodes and
+      completed subphrases, including copies.
+    */
+   public long phraseNodesMade() { return phraseNodesMade; }
+
+   /**
+      Returns the number of phrase nodes copied, when uniquely parsed
+      subphrases were saved.
+    */
+   public long phraseNodesCopied() { return phraseNodesCopied; }
+
+   /**
+      Returns the number of times lists of choices for advancing
+      were computed.
+    */
+   public long choiceLists() { return choiceLists; }
+
+   /**
+      Returns the total number of choices in the lists computed.
+    */
+   public long choices() { return choices; }
+
+   /**
+      Returns the greatest number of choices in one list.
+    */
+   public int maxChoices() { return maxChoices; }
+
+   /**
+      Returns the number of semantic actions evaluated.
+    */
+   public long semanticActions() { return semanticActions; }
+
+   /**
+      Returns the number of semantic values evaluated.
+    */
+   public long semanticValues() { return semanticValues; }
+
+   /**
+      Returns the time spent evaluating semantic actions and values,
+      in nanoseconds.
+    */
+   public long semanticNanos() { return semanticNanos; }
+
+   /**
+      Returns the time spent dividing the utterance into tokens,
+      in nanoseconds.
+    */
+   public long segmentNanos() { return segmentNanos; }
+
+   /**
+      Sets all of the counts to zero.
+    */
+   public void clear()
+   {  initialAdvances = finalAdvances = dummyAdvances = nonDummyAdvances
+         = failedAdvances = backups = 0;
+      maxBackstackDepth = 0;
+      phraseNodesMade = phraseNodesCopied = 0;
+      choiceLists = choices = 0;
+      maxChoices = 0;
+      semanticActions = semanticValues = semanticNanos = 0;
+      segmentNanos = 0;
+   } // end clear
+
+   /**
+      Returns the counts, one per line.
+    */
+   public String toString()
+   {  return "advances: " + initialAdvances + " initial, "
+         + finalAdvances + " final, " + dummyAdvances + " dummy, "
+         + nonDummyAdvances + " non-dummy, " + failedAdvances
+         + " failed\n"
+         + "backups: " + backups + ", maximum depth "
+         + maxBackstackDepth + "\n"
+         + "phrase nodes: " + phraseNodesMade + " made, "
+         + phraseNodesCopied + " copied\n"
+         + "choices: " + choices + " in " + choiceLists
+         + " lists, at most " + maxChoices + " in one\n"
+         + "semantics: " + semanticActions + " actions, "
+         + semanticValues + " values, " + semanticNanos / 1000
+         + " microseconds\n"
+         + "segment: " + segmentNanos / 1000 + " microseconds";
+   } // end toString
+
+   /* The counts, which ASDParser adds to directly: */
+   long initialAdvances, finalAdvances, dummyAdvances, nonDummyAdvances,
+      failedAdvances, backups;
+   int maxBackstackDepth;
+   long phraseNodesMade, phraseNodesCopied;
+   long choiceLists, choices;
+   int maxChoices;
+   long semanticActions, semanticValues, semanticNanos;
+   long segmentNanos;
+} // end class ASDParseStats
@@ -19,7 +19,12 @@ under the License.
 package asd;
 import java.io.*;
 import java.lang.reflect.*;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
    Instances are parsers that can load an ASDGrammar
@@ -79,11 +84,70 @@ public class ASDParser implements ASDSemantics
     */
    public ArrayList expectedTypes() { return expectedTypes; }
 
+   /* accessors and mutator used by ASDChartParser, which uses the
+      ASDParser as the context in which semantic actions and values
+      are evaluated; they all have package scope */
+
+   ASDCompiledGrammar compiled() { return compiled; }
+   ASDParserPool pool() { return pool; }
+   int anythingIndex() { return anythingIndex; }
+   int dummyIndex() { return dummyIndex; }
+   boolean evaluatesSemantics()
+   {  return semantics != null || binding != null;
+   }
+   void setContext(ASDPhraseNode node, ASDFeatures features)
+   {  state.currentNode = node;
+      state.features = features;
+   }
+
    /**
       Returns the feature-value pairs for the current top level
-      of the phrase structure.
+      of the phrase structure, as a Map from feature names to their
+      values.  The Map is a view of the features, in which features
+      whose values are null are omitted; changes made to it are made
+      to the features as by the set method.  (Before the features
+      were kept in slot-indexed tables this method returned the
+      HashMap in which they were kept; it now returns a Map.)
     */
-   public HashMap features() { return state.features; }
+   public Map<String, Object> features()
+   {  return new ASDFeatureView(this, state.features);
+   }
+
+   /**
+      Returns the slot index of the feature with a given name, by which
+      its value can be obtained and set without looking the name up.
+      Slot indices are assigned by each ASDParser, the first time each
+      name is used, and remain valid for all of the parser's parses.
+      @param featureName the name of the feature
+    */
+   public int featureSlot(String featureName)
+   {  Integer slot = featureSlots.get(featureName);
+      if (slot == null)
+      {  slot = Integer.valueOf(featureNames.size());
+         featureSlots.put(featureName, slot);
+         featureNames.add(featureName);
+      }
+      return slot.intValue();
+   } // end featureSlot
+
+   /**
+      Returns the slot index of the feature with a given name; -1 if
+      the parser has not assigned it one.
+    */
+   int existingFeatureSlot(Object featureName)
+   {  Integer slot = featureSlots.get(featureName);
+      return slot == null ? -1 : slot.intValue();
+   }
+
+   /**
+      Returns the number of feature slots the parser has assigned.
+    */
+   int featureSlotCount() { return featureNames.size(); }
+
+   /**
+      Returns the name of the feature with a given slot index.
+    */
+   String featureName(int slot) { return featureNames.get(slot); }
 
    /**
       Returns the value of 'feature' with specified name.
@@ -92,7 +156,16 @@ public class ASDParser implements ASDSemantics
       @return the value of the feature; null if none
     */
    public Object get(String featureName)
-   {  return state.features.get(featureName); }
+   {  Integer slot = featureSlots.get(featureName);
+      return slot == null ? null : state.features.get(slot.intValue());
+   }
+
+   /**
+      Returns the value of the feature with a given slot index.
+      @param slot a value returned by featureSlot
+      @return the value of the feature; null if none
+    */
+   public Object get(int slot) { return state.features.get(slot); }
 
    /**
       Returns the ASDGrammar which is currently being used by the parser.
@@ -109,6 +182,18 @@ public class ASDParser implements ASDSemantics
     */
    public int parseStepNumber() { return currentParseStepNumber; }
 
+   /**
+      Returns the number of words and other tokens in the utterance for
+      which the parser was most recently initialized.
+    */
+   int utteranceLength() { return utteranceLength; }
+
+   /**
+      Returns the number of backups since the parser was most recently
+      initialized.
+    */
+   long backups() { return backups; }
+
    /*
       Returns the string that causes the current advance of the parser to
       fail, forcing the parser to back up.
@@ -129,7 +214,31 @@ public class ASDParser implements ASDSemantics
       @param value the value to be assigned to featureName
     */
    public void set(String featureName, Object value)
-   {  state.features.put(featureName, value); }
+   {  set(featureSlot(featureName), value);
+   }
+
+   /**
+      Sets the value of the feature with a given slot index.
+      @param slot a value returned by featureSlot
+      @param value the value to be assigned to the feature; null
+      to remove it
+    */
+   public void set(int slot, Object value)
+   {  set(state.features, slot, value);
+   }
+
+   /**
+      Sets the value of the feature with a given slot index in a given
+      table of features, recording the change on the undo trail if
+      there are any states on the backup stack to which the parse
+      might return.
+    */
+   void set(ASDFeatures table, int slot, Object value)
+   {  if (backstack.isEmpty())
+         table.set(slot, value);
+      else // allow for possible backup later
+         trail.set(table, slot, value);
+   } // end set(table, slot, value)
 
    /**
       Returns the value of 'feature' with specified name.
@@ -138,7 +247,7 @@ public class ASDParser implements ASDSemantics
       @return the value of the feature; null if none
     */
    public Object valueOf(String featureName)
-   {  return state.features.get(featureName); }
+   {  return get(featureName); }
 
    /**
       Initialize the ASDParser instance for parsing a given
@@ -149,20 +258,90 @@ public class ASDParser implements ASDSemantics
     */
    public void initialize(String aString, ArrayList expected)
    {  stringToBeParsed = aString;
-      backstack = new Stack();
       expectedTypes = expected;
+      compileSpecialWords();
+      long start = stats == null ? 0 : System.nanoTime();
+      begin(segment(aString), start);
+   } // end initialize
+
+   /**
+      Initialize the ASDParser instance for parsing a string which
+      has already been divided into tokens, as one of a list of
+      expected phrase types.  The result is the same as that of
+      initialize(String, ArrayList) for the tokens joined with spaces
+      between them, but the string is not made and divided again.
+      @param tokens the tokens of the string to be parsed, in order;
+      they should not contain any of the SPACECHARS
+      @param expected an ArrayList of strings, each the name
+      of one of the expected phrase types.
+    */
+   public void initialize(String[] tokens, ArrayList expected)
+   {  stringToBeParsed = null;
+      expectedTypes = expected;
+      compileSpecialWords();
+      long start = stats == null ? 0 : System.nanoTime();
+      begin(segment(tokens), start);
+   } // end initialize
+
+   /**
+      Ends the current parse, returning the phrase nodes, feature
+      tables and other objects made for it to the parser's pool, to be
+      reused by later parses.  An application that parses many
+      utterances with the same ASDParser should call it when it is done
+      with each one, so that after the first few parses the parser
+      makes almost no new objects.  The phrase structure, its nodes and
+      the feature tables of the parse must not be used after this, and
+      the parser must be initialized again before it is used.
+    */
+   public void reset()
+   {  if (state == null) return;  // never initialized
+      releaseChoices();
+      pool.releaseAll();
+      state.phraseStructure = null;
+      state.currentNode = null;
+      state.features = null;
+      state.subphraseStack = null;
+      state.nextNodeSubphrase = null;
+   } // end reset
+
+   /**
+      Sets up the parse state to begin parsing a given phrase structure.
+      @param phraseStructure the phrase structure made by segment
+      @param segmentStart System.nanoTime() when segment was begun,
+      if there are statistics to be kept
+    */
+   private void begin(ASDPhraseNode phraseStructure, long segmentStart)
+   {  if (stats != null)
+      {  stats.clear();
+         stats.segmentNanos = System.nanoTime() - segmentStart;
+      }
+      if (state == null)
+      {  backstack = new ArrayDeque<ASDChoicePoint>();
+         trail = new ASDUndoTrail();
+         state = new ASDParseState();
+      }
+      else // reuse them
+         releaseChoices();
       currentParseStepNumber = 0;
-      state = new ASDParseState();
+      searchSteps = 0;
       state.beginning = 0;
-      state.features = new HashMap(10);
+      state.features = pool.featureTable();
       state.currentChoices = null;  // choices not yet computed
-      state.phraseStructure = segment(aString);
+      state.phraseStructure = phraseStructure;
       state.currentNode = state.phraseStructure;
       state.unique = false;
-      state.subphraseStack = new ASDSubphraseStack();
+      state.subphraseStack = null;
       state.nextNodeSubphrase = null;
       state.advanceCase = ' ';
-   } // end initialize
+      backups = 0;
+      utteranceLength = 0;
+      for (ASDPhraseNode n = phraseStructure.nextNode(); n != null;
+           n = n.nextNode())
+         ++utteranceLength;
+      metricsEntry = metrics == null ? null
+         : metrics.entry(metricsName, expectedTypes);
+      ASDEvents.parseStarted(this);
+   } // end begin
 
    /**
       Attempts to advance the parse state one step.
@@ -173,15 +352,19 @@ public class ASDParser implements ASDSemantics
    {  if (state.currentChoices == null) // choices not yet computed
          state.currentChoices = choices(true, null);
       if (state.currentChoices.size() == 0)
+      {  if (stats != null) ++stats.failedAdvances;
          return NOADVANCE;  // no choices for advancing from this state
+      }
       // Remove the next advance choice from the queue of
       // current choices:
       ASDParseChoice tryChoice
          = (ASDParseChoice) state.currentChoices.remove(0);
       state.advanceCase = tryChoice.advanceType;
          // the type of advance choice: INITIAL, FINAL, DUMMY, or NONDUMMY
+      if (stats != null)
+         countAdvance();
       if (state.currentChoices.size() > 0) // other choices remain
-      {  state.unique = false; // subphrase cannot be parsed uniquely
+      {  setUnique(false); // subphrase cannot be parsed uniquely
          if (state.currentNode.nextNode() != null)
             // current node in the phrase structure is not the last
             // one; prepare for a possible permanent final advance
@@ -190,12 +373,21 @@ public class ASDParser implements ASDSemantics
                = state.currentNode.nextNode().subphrase();
          else
             state.nextNodeSubphrase = null;
-         backstack.push((ASDParseState)state.clone());
+         backstack.push(pool.choicePoint(state, trail.mark()));
+         if (stats != null && backstack.size() > stats.maxBackstackDepth)
+            stats.maxBackstackDepth = backstack.size();
       }
-      if (state.advanceCase == FINAL) // a subphrase has ended
-      {  String val = advanceFinal(tryChoice.completedType);
+      if (state.advanceCase == FINAL || state.advanceCase == CACHED)
+         // a subphrase has ended
+      {  String val = state.advanceCase == FINAL
+            ? advanceFinal(tryChoice.completedType,
+                 tryChoice.completedTypeIndex)
+            : advanceCached((ASDCachedChoice) tryChoice);
             // returns SUCCEED, NOADVANCE, or QUIT
-         if (val == NOADVANCE || val == QUIT) return val;
+         if (val == NOADVANCE || val == QUIT)
+         {  if (stats != null && val == NOADVANCE) ++stats.failedAdvances;
+            return val;
+         }
       }
       else
       {  if (state.advanceCase == NONDUMMY)
@@ -203,13 +395,32 @@ public class ASDParser implements ASDSemantics
          else if (state.advanceCase == DUMMY)
             advanceDummy(tryChoice.nextNode);
          else if (state.advanceCase == INITIAL)
+         {  if (subphraseCache != null && !collecting)
+            {  ArrayList<ASDParseChoice> completions
+                  = completions(tryChoice.nextNode);
+               if (completions != null)
+               {  // Try the ways of completing the subphrase, from
+                  // the cache, instead of beginning it.  The CACHED
+                  // advance is counted instead of this one, and the
+                  // initial advance of a search for the completions
+                  // was counted by collect:
+                  if (stats != null) --stats.initialAdvances;
+                  setUnique(false);
+                  setChoices(completions);
+                  return advance();
+               }
+            }
             advanceInitial(tryChoice.nextNode);
+         }
          String action
             = tryChoice.nextNode.semanticAction();
-         if (semantics != null && action != null && action.length() > 0)
-         {  String resultOfAction = semantics.semanticAction(action);
+         if (evaluatesSemantics() && action != null && action.length() > 0)
+         {  String resultOfAction = evaluateAction(tryChoice.nextNode);
             if (resultOfAction == NOADVANCE || resultOfAction == QUIT)
+            {  if (stats != null && resultOfAction == NOADVANCE)
+                  ++stats.failedAdvances;
                return resultOfAction;
+            }
          }
       }
       ++currentParseStepNumber;
@@ -217,6 +428,86 @@ public class ASDParser implements ASDSemantics
    } // end advance
 
    /**
+      Attempts to advance the parse state one step by a given one of
+      the current choices for advancing, discarding the others instead
+      of saving them for backup; ASDParallelParser explores them in
+      other parsers.
+      @param j the index of the choice, less than choiceCount()
+      @return SUCCEED if successful, NOADVANCE if unsuccessful,
+      QUIT if parse should quit.
+    */
+   String advanceChoice(int j)
+   {  int n = choiceCount();
+      ASDParseChoice chosen = (ASDParseChoice) state.currentChoices.get(j);
+      ArrayList single = pool.choiceList();
+      single.add(chosen);
+      setChoices(single);
+      if (n > 1)
+         setUnique(false); // subphrase cannot be parsed uniquely
+      return advance();
+   } // end advanceChoice
+
+   /**
+      Returns the number of choices for advancing from the current
+      parse state, computing them if they have not been computed.
+    */
+   int choiceCount()
+   {  if (state.currentChoices == null) // choices not yet computed
+         state.currentChoices = choices(true, null);
+      return state.currentChoices.size();
+   } // end choiceCount
+
+   /**
+      Counts the advance about to be made, of the kind in
+      state.advanceCase.
+    */
+   private void countAdvance()
+   {  switch (state.advanceCase)
+      {  case INITIAL: ++stats.initialAdvances; break;
+         case FINAL: ++stats.finalAdvances; break;
+         case DUMMY: ++stats.dummyAdvances; break;
+         case NONDUMMY: ++stats.nonDummyAdvances; break;
+         case CACHED: ++stats.finalAdvances; break;
+      }
+   } // end countAdvance
+
+   /**
+      Evaluates the non-empty semantic action of a given grammar node,
+      by the semantic binding if there is one, or else by the semantics.
+    */
+   String evaluateAction(ASDGrammarNode node)
+   {  long start = stats == null ? 0 : System.nanoTime();
+      SemanticInvocationEvent event = ASDEvents.semanticBegun();
+      String result = binding != null
+         ? binding.action(node, semanticTarget)
+         : semantics.semanticAction(node.semanticAction());
+      ASDEvents.semanticEnded(event, "action", node.semanticAction());
+      if (stats != null)
+      {  ++stats.semanticActions;
+         stats.semanticNanos += System.nanoTime() - start;
+      }
+      return result;
+   } // end evaluateAction
+
+   /**
+      Evaluates the non-empty semantic value of a given grammar node,
+      by the semantic binding if there is one, or else by the semantics.
+    */
+   Object evaluateValue(ASDGrammarNode node)
+   {  long start = stats == null ? 0 : System.nanoTime();
+      SemanticInvocationEvent event = ASDEvents.semanticBegun();
+      Object result = binding != null
+         ? binding.value(node, semanticTarget)
+         : semantics.semanticValue(node.semanticValue());
+      ASDEvents.semanticEnded(event, "value", node.semanticValue());
+      if (stats != null)
+      {  ++stats.semanticValues;
+         stats.semanticNanos += System.nanoTime() - start;
+      }
+      return result;
+   } // end evaluateValue
+
+   /**
       Carries out an advance of the Dummy kind, inserting a dummy node
       after the current node in the phrase structure, with a pointer
       to the given grammar node.
@@ -225,41 +516,20 @@ public class ASDParser implements ASDSemantics
    void advanceDummy(ASDGrammarNode tryNode)
       // Create a new dummy ASDPhrase node and link it to the
       // next node in the phrse structure:
-   {  ASDPhraseNode dummy = new ASDPhraseNode();
-      dummy.setWord(DUMMYWORD);
+   {  ASDPhraseNode dummy = pool.phraseNode();
+      if (stats != null) ++stats.phraseNodesMade;
+      dummy.setWord(DUMMYWORD, dummyIndex);
       dummy.setInstance(tryNode);
       dummy.setNextNode(state.currentNode.nextNode());
       // Other fields of the dummy node are null by default.
 
-      // Complete the insertion of the dummy node, allowing for
-      // possible backup later:
-      if (backstack.empty())
-         // No backups can occur to states before this state
-         // in the parse; so just insert the dummy node
-         // after the current node
-         state.currentNode.setNextNode(dummy);
-      else
-         // Later backup may be required; so copy the top level
-         // of the phrase structure up to the place where the
-         // dummy node is to be inserted, and insert the
-         // dummy node after the copy:
-      {  ASDPhraseNode temp
-            = (ASDPhraseNode)state.phraseStructure.clone();
-         ASDPhraseNode prev;
-         ASDPhraseNode oldNode = state.phraseStructure;
-         state.phraseStructure = temp;
-         while(oldNode != state.currentNode)
-         {  oldNode = oldNode.nextNode();
-            prev = temp;
-            temp = (ASDPhraseNode)oldNode.clone();
-            prev.setNextNode(temp);
-         }
-         temp.setNextNode(dummy);
-      }
+      // Insert the dummy node after the current node, allowing
+      // for possible backup later:
+      link(state.currentNode, dummy);
       // Advance to the dummy node and set currentChoices to
       // indicate that the choices have not yet been computed:
       state.currentNode = dummy;
-      state.currentChoices = null;
+      setChoices(null);
    } // end advanceDummy
 
    /**
@@ -267,18 +537,21 @@ public class ASDParser implements ASDSemantics
       replacing a completed subphrase at the top level
       of the phrase structure by a single node whose
       "word" is the type of phrase that was completed.
+      @param phraseType the type of phrase that was completed
+      @param phraseTypeIndex the word index of phraseType in the
+      compiled grammar
       @return SUCCEED if successful, NOADVANCE if unsuccessful
       but the parse should continue after backup,
       QUIT if the parse should quit.
     */
-   String advanceFinal(String phraseType)
-   {  String val
-         = state.currentNode.instance().semanticValue();
+   String advanceFinal(String phraseType, int phraseTypeIndex)
+   {  ASDGrammarNode finalNode = state.currentNode.instance();
+      String val = finalNode.semanticValue();
       // Evaluate the semantic value
       Object computedValue = null;
       String computedString = null;
-      if (semantics != null && val != null && val.length() > 0)
-         computedValue = semantics.semanticValue(val);
+      if (evaluatesSemantics() && val != null && val.length() > 0)
+         computedValue = evaluateValue(finalNode);
       else // no class for computing semantics
          computedValue = val;
       if (computedValue instanceof String)
@@ -290,47 +563,29 @@ public class ASDParser implements ASDSemantics
       for (int j = 1; j < state.beginning; ++j)
          prev = prev.nextNode();
       ASDPhraseNode first = prev.nextNode();
-      if (!saveUniquelyParsedSubphrases
-          || (!state.unique && !backstack.empty()))
+      if (!saveUniquelyParsedSubphrases || subphraseCache != null
+          || (!state.unique && !backstack.isEmpty()))
          // Create a new node to represent the entire completed
          // subphrase at the top level in the phrase structure:
-      {  ASDPhraseNode newNode = new ASDPhraseNode();
-         newNode.setWord(phraseType);
+      {  ASDPhraseNode newNode = pool.phraseNode();
+         if (stats != null) ++stats.phraseNodesMade;
+         newNode.setWord(phraseType, phraseTypeIndex);
          newNode.setValue(computedValue);
          // instance field is null by default
          newNode.setNextNode(state.currentNode.nextNode());
 
-         // Copy the top level of the subphrase, set
-         // the next link of the last node in the copy to null,
-         // and hang the copied subphrase below the new node:
-         ASDPhraseNode temp = (ASDPhraseNode)first.clone();
-         newNode.setSubphrase(temp);
-         ASDPhraseNode oldNode = first;
-         while(oldNode != state.currentNode)
-         {  oldNode = oldNode.nextNode();
-            prev = temp;
-            temp = (ASDPhraseNode)oldNode.clone();
-            prev.setNextNode(temp);
-         }
-         temp.setNextNode(null);
-
-         // Copy the nodes of the phrase structure that precede
-         // the completed subphrase, and set the next link of
-         // the last of those nodes to point to the new node:
-         temp = (ASDPhraseNode)state.phraseStructure.clone();
-         oldNode = state.phraseStructure;
-         state.phraseStructure = temp;
-         while(oldNode.nextNode() != first)
-         {  oldNode = oldNode.nextNode();
-            prev = temp;
-            temp = (ASDPhraseNode)oldNode.clone();
-            prev.setNextNode(temp);
-         }
-         temp.setNextNode(newNode);
+         // Hang the subphrase itself below the new node, ending
+         // it at the current node, and link the new node in
+         // after the nodes that precede the subphrase.  Both
+         // links are recorded on the undo trail, so that backup
+         // restores the subphrase to the top level:
+         newNode.setSubphrase(first);
+         link(state.currentNode, null);
+         link(prev, newNode);
 
          // Set the current node to the one just before the
          // new node:
-         state.currentNode = temp;
+         state.currentNode = prev;
       }
       else // uniquely parsed subphrases are to be saved,
            // and the subphrase is uniquely parsed
@@ -340,46 +595,42 @@ public class ASDParser implements ASDSemantics
            // structure.  To allow for proper backtracking,
            // if required, let that single node be the old
            // first node of the subphrase, with the latter
-           // replaced by a new node that is a copy of it:
-      {  ASDPhraseNode newNode = (ASDPhraseNode)first.clone();
-         first.setWord(phraseType);
+           // replaced by a new node that is a copy of it.
+           // These changes are not recorded on the undo trail,
+           // and the nodes at the top level of the subphrase are
+           // pinned, so that backup does not undo any earlier
+           // changes to their links either:
+      {  ASDPhraseNode newNode = pool.phraseNode();
+         newNode.copy(first);
+         if (stats != null)
+         {  ++stats.phraseNodesMade;
+            ++stats.phraseNodesCopied;
+         }
+         ASDPhraseNode last = state.currentNode == first
+            ? newNode : state.currentNode;
+         first.setWord(phraseType, phraseTypeIndex);
          first.setInstance(null);
          first.setSubphrase(newNode);
          first.setValue(computedValue);
          first.setNextNode(state.currentNode.nextNode());
-         if (state.currentNode == first)
-            // the completed subphrase has only one node
-            newNode.setNextNode(null);
-         else if (backstack.empty())
-            state.currentNode.setNextNode(null);
-         else // subphrase has more than one node; backstack is not empty.
-         {  // Copy any nodes after the first node at the top level
-            // of the subphrase, and set the next link of the last node
-            // in the copy to null.  This must be done in case any
-            // suspended parses on the backstack have links into
-            // the middle of the completed subphrase.
-            if (first != state.currentNode)
-            {  ASDPhraseNode oldNode = newNode.nextNode();
-               ASDPhraseNode temp = (ASDPhraseNode)oldNode.clone();
-               newNode.setNextNode(temp);
-               ASDPhraseNode prevTemp = null;
-               while(oldNode != state.currentNode)
-               {  oldNode = oldNode.nextNode();
-                  prevTemp = temp;
-                  temp = (ASDPhraseNode)oldNode.clone();
-                  prevTemp.setNextNode(temp);
-               }
-               temp.setNextNode(null);
+         trail.pin(first);
+         if (last != newNode) // subphrase has more than one node
+            for (ASDPhraseNode node = newNode.nextNode(); ;
+                 node = node.nextNode())
+            {  trail.pin(node);
+               if (node == last) break;
             }
-         }
+         last.setNextNode(null);
          // Set the current node to the one just before
          // the new node:
          state.currentNode = prev;
       }
 
-      // Restore characteristics of the resumed subphrase:
-      ASDSubphraseStackFrame popped
-         = (ASDSubphraseStackFrame)state.subphraseStack.pop();
+      // Restore characteristics of the resumed subphrase,
+      // allowing for possible backup later:
+      saveSubphrase();
+      ASDSubphraseStackFrame popped = state.subphraseStack;
+      state.subphraseStack = popped.link;
       state.unique = popped.unique && state.unique;
          // It is uniquely-parseable if it was unique when
          // suspended and the subphrase just completed was
@@ -394,16 +645,351 @@ public class ASDParser implements ASDSemantics
          // choices at this point; this prevents futile initial
          // advances if a subsequent advance is attempted to
          // find another parse.
-         state.currentChoices = null;
+         setChoices(null);
       else
          // If the parse has not been completed, compute a list
          // of choices, but without including dummy advances:
-         state.currentChoices = choices(false, null);
+         setChoices(choices(false, null));
 
       return SUCCEED;  // successful Final advance
    } // end advanceFinal
 
+   /**
+      Carries out an advance which splices in a subphrase completed
+      before, from the subphrase cache, replacing the words that it
+      spans after the current node, as advanceFinal replaces a
+      subphrase that has just been completed.
+      @param choice the completed subphrase
+      @return SUCCEED
+    */
+   private String advanceCached(ASDCachedChoice choice)
+   {  ASDPhraseNode after = state.currentNode.nextNode();
+      for (int j = 0; j < choice.span; ++j)
+         after = after.nextNode();
+      ASDPhraseNode newNode = choice.splice(pool, after);
+      if (stats != null) ++stats.phraseNodesMade;
+      link(state.currentNode, newNode);
+      if (done())
+         setChoices(null);
+      else // as after a Final advance, without dummy advances
+         setChoices(choices(false, null));
+      return SUCCEED;
+   } // end advanceCached
+
+   /**
+      Returns a list of choices for advancing by splicing in each of
+      the subphrases that can be completed by beginning a subphrase at
+      a given grammar node with the next node in the phrase structure,
+      taken from the subphrase cache, or found by searching for them
+      and then added to the cache.
+      @param initialNode the grammar node at which the subphrase
+      would begin
+      @return the list of ASDCachedChoice instances, in the order in
+      which backtracking would find the subphrases; null if the rest of
+      the phrase structure is not all words or the search was abandoned
+    */
+   private ArrayList<ASDParseChoice> completions(
+      ASDGrammarNode initialNode)
+   {  int n = 0;
+      for (ASDPhraseNode node = state.currentNode.nextNode(); node != null;
+           node = node.nextNode())
+      {  if (node.subphrase() != null || node.wordIndex == dummyIndex
+             || node.value() != null)
+            return null;  // a phrase, not a word
+         ++n;
+      }
+      ASDPhraseNode[] words = new ASDPhraseNode[n];
+      String[] keyWords = new String[n];
+      ASDPhraseNode node = state.currentNode.nextNode();
+      for (int j = 0; j < n; ++j, node = node.nextNode())
+      {  words[j] = node;
+         keyWords[j] = node.word();
+      }
+      // An entry stored for the first k words applies if none of the
+      // grammar nodes at which its search stopped could consume the
+      // word after them here:
+      ASDSubphraseCacheEntry found = null;
+      for (int k = 1; k <= n && found == null; ++k)
+      {  ASDSubphraseCacheEntry entry = subphraseCache.get(
+            new ASDSubphraseCacheKey(compiled, initialNode.index, keyWords,
+               k, foldCase, subphraseContext));
+         if (entry != null && !consumesAny(entry.peeks,
+                                 k < n ? words[k] : null))
+            found = entry;
+      }
+      subphraseCache.counted(found != null);
+      if (found == null)
+      {  found = collect(initialNode, words);
+         if (found == null)
+         {  subphraseCache.abandoned();
+            return null;
+         }
+         subphraseCache.put(new ASDSubphraseCacheKey(compiled,
+            initialNode.index, keyWords, collectReach, foldCase,
+            subphraseContext), found);
+      }
+      ArrayList<ASDParseChoice> result = pool.choiceList();
+      for (int j = 0; j < found.choices.length; ++j)
+         result.add(found.choices[j]);
+      counted(result);
+      return result;
+   } // end completions
+
+   /**
+      Indicates whether or not any of the grammar nodes with given
+      indices could consume a given next node in the phrase structure.
+      @param peeks the indices of the grammar nodes
+      @param next the next node; null at the end of the phrase
+      structure
+    */
+   private boolean consumesAny(int[] peeks, ASDPhraseNode next)
+   {  if (next == null) return false;
+      for (int j = 0; j < peeks.length; ++j)
+         if (consumes(compiled.nodes[peeks[j]], next))
+            return true;
+      return false;
+   } // end consumesAny
+
+   /**
+      Indicates whether or not choices would include, for advancing
+      from a given non-final grammar node, any INITIAL or NONDUMMY
+      advance, which would consume a given next node in the phrase
+      structure.
+      @param grammarNode the grammar node
+      @param next the next node in the phrase structure
+    */
+   private boolean consumes(ASDGrammarNode grammarNode, ASDPhraseNode next)
+   {  if (grammarNode.isFinal()) return false;
+      int g = grammarNode.index;
+      if (next.wordIndex != dummyIndex
+          && compiled.successorPositions(g, next.wordIndex) != null)
+         return true;
+      if (anythingIndex != next.wordIndex && anythingIndex != dummyIndex
+          && compiled.successorPositions(g, anythingIndex) != null)
+         return true;
+      if (initialsAfter(g) < 0)
+         return false;
+      int types = compiled.successorTypeSet[g];
+      return initialsForTypes(next, types).length > 0
+         || compiled.initialChoices(anythingIndex, types).length > 0;
+   } // end consumes
+
+   /**
+      Records, while searching for the completions of a subphrase for
+      the subphrase cache, how far into the words a list of choices for
+      advancing from a given grammar node reaches.  If the choices
+      consume the next word, the search depends on the words up to
+      that one; if not, it depends on the grammar node's not being
+      able to consume the next word, which is recorded as a peek.
+      Choices for advancing in the enclosing phrase, after the
+      subphrase has been completed, and before phrase nodes made by
+      the search, which depend only on the words they span, are not
+      recorded.
+    */
+   private void observe(ASDGrammarNode grammarNode, ASDPhraseNode next,
+      ArrayList choices)
+   {  if (state.subphraseStack == collectBase)
+         return;  // in the enclosing phrase
+      int position = collectWords.length;
+      if (next != null)
+      {  position = -1;
+         for (int j = 0; j < collectWords.length && position < 0; ++j)
+            if (collectWords[j] == next)
+               position = j;
+         if (position < 0)
+            return;  // a phrase node made by the search
+      }
+      for (int j = 0; j < choices.size(); ++j)
+      {  char type = ((ASDParseChoice) choices.get(j)).advanceType;
+         if (type == INITIAL || type == NONDUMMY)
+         {  if (position + 1 > collectReach)
+               collectReach = position + 1;
+            return;
+         }
+      }
+      if (peekCount == peekPositions.length)
+      {  peekPositions = Arrays.copyOf(peekPositions, 2 * peekCount);
+         peekNodes = Arrays.copyOf(peekNodes, 2 * peekCount);
+      }
+      peekPositions[peekCount] = position;
+      peekNodes[peekCount] = grammarNode.index;
+      ++peekCount;
+   } // end observe
+
+   /**
+      Searches, by backtracking, for all of the ways of completing a
+      subphrase begun at a given grammar node with the next node in
+      the phrase structure, and then restores the parse state to what
+      it was before the search.  Sets collectReach to the number of
+      words on which the search depended.
+      @param initialNode the grammar node at which the subphrase begins
+      @param words the nodes from the next node to the end of the
+      phrase structure
+      The steps of the search, including its initial advance, are
+      added to those returned by takeSearchSteps, and the deadline and
+      cancellation flag given to parseBegun are checked before each
+      one.
+      @return the completed subphrases, in the order found, with the
+      grammar nodes at which the search looked at the word after the
+      last one it consumed; null if the search took more than the
+      maximum number of steps permitted by the subphrase cache, the
+      deadline passed, the parse was cancelled or the semantics quit
+      the parse
+    */
+   private ASDSubphraseCacheEntry collect(ASDGrammarNode initialNode,
+      ASDPhraseNode[] words)
+   {  ASDSubphraseStackFrame base = state.subphraseStack;
+      ASDPhraseNode prev = state.currentNode;
+      int depth = backstack.size();
+      // Put a choice point on the backup stack to which to return
+      // after the search:
+      state.nextNodeSubphrase = prev.nextNode().subphrase();
+      backstack.push(pool.choicePoint(state, trail.mark()));
+      ArrayList<ASDCachedChoice> found = new ArrayList<ASDCachedChoice>();
+      boolean abandoned = false;
+      collecting = true;
+      collectBase = base;
+      collectWords = words;
+      collectReach = 1;  // the initial advance consumes the first word
+      peekCount = 0;
+      try
+      {  ++searchSteps;
+         if (stats != null) ++stats.initialAdvances;
+         advanceInitial(initialNode);
+         String result = SUCCEED;
+         String action = initialNode.semanticAction();
+         if (evaluatesSemantics() && action != null && action.length() > 0)
+            result = evaluateAction(initialNode);
+         for (int steps = 0; ; ++steps)
+         {  if (result == QUIT || steps > subphraseCache.maxSteps()
+                || (attemptCancelled != null && attemptCancelled.get())
+                || (attemptDeadline != 0
+                    && System.nanoTime() - attemptDeadline >= 0))
+            {  abandoned = true;
+               break;
+            }
+            if (result == SUCCEED && state.advanceCase == FINAL
+                && state.subphraseStack == base)
+            {  // The subphrase has been completed; record it and
+               // look for the next way of completing it:
+               ASDPhraseNode completed = prev.nextNode();
+               int span = words.length;
+               for (int j = 0; j < words.length; ++j)
+                  if (words[j] == completed.nextNode())
+                     span = j;
+               found.add(new ASDCachedChoice(initialNode, completed, span,
+                  subphraseCache.copier()));
+               result = NOADVANCE;
+            }
+            if (result == NOADVANCE)
+            {  if (backstack.size() == depth + 1)
+                  break;  // no more ways to complete the subphrase
+               backup();
+            }
+            ++searchSteps;
+            result = advance();
+         }
+      }
+      finally
+      {  collecting = false;
+         collectBase = null;
+         collectWords = null;
+         // Discard the choice points of the search, and return to
+         // the one put on the backup stack before it:
+         setChoices(null);
+         while (backstack.size() > depth + 1)
+         {  ASDChoicePoint point = backstack.pop();
+            pool.release(point.currentChoices);
+            pool.release(point);
+         }
+         backup();
+      }
+      if (abandoned)
+         return null;
+      int[] peeks = new int[peekCount];
+      int m = 0;
+      for (int j = 0; j < peekCount; ++j)
+         if (peekPositions[j] == collectReach)
+         {  int k = 0;
+            while (k < m && peeks[k] != peekNodes[j])
+               ++k;
+            if (k == m)
+               peeks[m++] = peekNodes[j];
+         }
+      return new ASDSubphraseCacheEntry(found.toArray(
+         new ASDCachedChoice[found.size()]), Arrays.copyOf(peeks, m));
+   } // end collect
+
    /**
+      Sets the next link of a node at the top level of the phrase
+      structure, recording the change on the undo trail if there are
+      any states on the backup stack to which the parse might return.
+      @param node the node whose next link is to be set
+      @param next the new next node
+    */
+   private void link(ASDPhraseNode node, ASDPhraseNode next)
+   {  if (backstack.isEmpty())
+         // No backups can occur to states before this state
+         // in the parse; so just change the link:
+         node.setNextNode(next);
+      else
+         trail.setNextNode(node, next);
+   } // end link
+
+   /**
+      Replaces the current list of choices for advancing, returning
+      the old list to the pool unless the choice point at the top of
+      the backup stack refers to it.  No other choice point can,
+      since the list is current.
+      @param choices the new list; null if not yet computed
+    */
+   private void setChoices(ArrayList choices)
+   {  ArrayList old = state.currentChoices;
+      if (old != null && old != choices && (backstack.isEmpty()
+          || backstack.peek().currentChoices != old))
+         pool.release(old);
+      state.currentChoices = choices;
+   } // end setChoices
+
+   /**
+      Empties the backup stack and the undo trail, returning the
+      choice points and lists of choices of the current parse to
+      the pool.
+    */
+   private void releaseChoices()
+   {  setChoices(null);
+      while (!backstack.isEmpty())
+      {  ASDChoicePoint point = backstack.pop();
+         pool.release(point.currentChoices);
+         pool.release(point);
+      }
+      trail.clear();
+   } // end releaseChoices
+
+   /**
+      Sets the uniqueness flag of the current subphrase, recording the
+      change on the undo trail if there are any states on the backup
+      stack to which the parse might return.
+    */
+   private void setUnique(boolean unique)
+   {  if (unique != state.unique && !backstack.isEmpty())
+         trail.saveUnique(state);
+      state.unique = unique;
+   } // end setUnique
+
+   /**
+      Records on the undo trail the beginning, features, uniqueness
+      flag and suspended subphrases of the current subphrase, before
+      a new subphrase is begun or the current one is completed, if
+      there are any states on the backup stack to which the parse
+      might return.
+    */
+   private void saveSubphrase()
+   {  if (!backstack.isEmpty())
+         trail.saveSubphrase(state);
+   } // end saveSubphrase
+
+   /**
       Carries out an advance of the Initial kind,
       beginning a new subphrase at the top level of
       the phrase structure at the given node in the grammar.
@@ -418,10 +1004,11 @@ public class ASDParser implements ASDSemantics
       state.currentNode.setInstance(tryNode);
       // Save the beginning position, the semantic features
       // table, and the flag which indicates uniqueness of
-      // parsing for the suspended subphrase:
-      state.subphraseStack.push(
-         new ASDSubphraseStackFrame(state.beginning,
-            state.features, state.unique) );
+      // parsing for the suspended subphrase, allowing for
+      // possible backup later:
+      saveSubphrase();
+      state.subphraseStack = new ASDSubphraseStackFrame(state.beginning,
+         state.features, state.unique, state.subphraseStack);
       // Compute the beginning position for the new subphrase:
       state.beginning = 0;
       for (ASDPhraseNode node = state.phraseStructure;
@@ -429,17 +1016,17 @@ public class ASDParser implements ASDSemantics
          ++state.beginning;
       // Create a new semantic features table for the new
       // subphrase:
-      state.features = new HashMap(10);
+      state.features = pool.featureTable();
       // Initialize the uniqueness flag for the new subphrase
       // according to whether or not the first word has only
       // one instance (node) in the grammar and that node has
       // no incoming edges:
       state.unique
          = !tryNode.hasIncomingEdges()
-           && ASDLexicon.uniqueInstance(state.currentNode.word());
+           && uniqueInstance(state.currentNode);
       // Set currentChoices to indicate that the choices have
       // not been computed:
-      state.currentChoices = null;
+      setChoices(null);
    } // end advanceInitial
 
    /**
@@ -453,9 +1040,8 @@ public class ASDParser implements ASDSemantics
    void advanceNonDummy(ASDGrammarNode tryNode)
    {  state.currentNode = state.currentNode.nextNode();
       state.currentNode.setInstance(tryNode);
-      state.currentChoices = null;
-      state.unique = state.unique &&
-         ASDLexicon.uniqueInstance(state.currentNode.word());
+      setChoices(null);
+      setUnique(state.unique && uniqueInstance(state.currentNode));
    } // end advanceNonDummy
 
    /**
@@ -466,8 +1052,16 @@ public class ASDParser implements ASDSemantics
       was no step in the parse to which to backtrack
     */
    public boolean backup()
-   {  if (backstack.empty()) return false;
-      state = (ASDParseState)backstack.pop();
+   {  if (backstack.isEmpty()) return false;
+      ASDChoicePoint point = backstack.pop();
+      if (stats != null) ++stats.backups;
+      ++totalBackups;
+      if (++backups == ASDEvents.getBacktrackStormThreshold() + 1L)
+         ASDEvents.backtrackStorm(this);
+      trail.undo(point.trailMark, state);
+      setChoices(point.currentChoices);
+      point.restore(state);
+      pool.release(point);
       if (state.currentNode.nextNode() != null)
          // There is a next node in the phrase structure.
          if (state.currentNode.nextNode().subphrase()
@@ -480,7 +1074,7 @@ public class ASDParser implements ASDSemantics
                // list of choices, including any REMAINING
                // dummy choices, for advancing from the
                // current node:
-            {  ArrayList dummyNodes = new ArrayList(10);
+            {  ArrayList dummyNodes = pool.choiceList();
                ASDParseChoice choice;
                for (int j = 0; j < state.currentChoices.size();
                         ++j)
@@ -490,7 +1084,8 @@ public class ASDParser implements ASDSemantics
                }
                // dummyNodes is a list of the dummy nodes
                // among the remaining choices.
-               state.currentChoices = choices(true, dummyNodes);
+               setChoices(choices(true, dummyNodes));
+               pool.release(dummyNodes);
             }
             else
                // The permanent advance occurred immediately after
@@ -510,6 +1105,38 @@ public class ASDParser implements ASDSemantics
       return true;
    } // end backup
 
+   /**
+      Tells the ASDParser to evaluate the semantic action and semantic
+      value strings in its grammar by invoking the public methods of a
+      given object which they name, as semanticAction and semanticValue
+      do for the application, instead of passing the strings to its
+      semantics.  The strings are resolved to methods once for each
+      node of the grammar, when a parse is initialized with a grammar
+      for the first time, and any names which are not those of suitable
+      methods are reported then rather than during the parse.
+      @param target the object whose methods are to be invoked; null
+      to pass the strings to the semantics again
+    */
+   public void bindSemantics(Object target)
+   {  bindSemantics(target, null);
+   }
+
+   /**
+      Tells the ASDParser to evaluate the semantic action and semantic
+      value strings in its grammar by a given dispatcher for the class
+      of a given object, as bindSemantics(Object) does by reflection.
+      @param target the object whose methods are to be invoked; null
+      to pass the strings to the semantics again
+      @param dispatcher the dispatcher for the class of target, such
+      as one generated by ASDDispatcherGenerator; null to find the
+      methods by reflection
+    */
+   public void bindSemantics(Object target, ASDSemanticDispatcher dispatcher)
+   {  semanticTarget = target;
+      semanticDispatcher = dispatcher;
+      binding = null;  // made by initialize
+   }
+
    /**
       Returns a string showing the current utterance string with
       parentheses around each subphrase of more than one non-dummy word.
@@ -580,38 +1207,39 @@ public class ASDParser implements ASDSemantics
       Includes advances to dummy nodes if includeDummies is true.
       If dummies is a non-null ArrayList, it includes only advances to
       dummy nodes in that ArrayList.
+      Words and phrase types are compared by their indices in the
+      compiled grammar, and only the successors of the current grammar
+      node that match the next word, ANYTHING or the dummy word are
+      visited, using the node's dispatch index.
     */
    ArrayList choices(boolean includeDummies, ArrayList dummies)
-   {  boolean initialsIn = false;
-      ArrayList result;
+   {  ArrayList result;
       if (state.currentNode == state.phraseStructure)
          // at dummy header node
-      {  result = initialsForTypes(state.currentNode.nextNode().word(),
-                     expectedTypes);
-         ArrayList more = initialsForTypes(ANYTHING, expectedTypes);
-         for (int j = 0; j < more.size(); ++j)
-            result.add(more.get(j));
-         return result;
+      {  result = pool.choiceList();
+         addAll(result, initialsForTypes(state.currentNode.nextNode(),
+                           expectedSet));
+         addAll(result, compiled.initialChoices(anythingIndex,
+                           expectedSet));
+         return counted(result);
       }
 
-      result = new ArrayList(10);
+      result = pool.choiceList();
       ASDGrammarNode grammarNode = state.currentNode.instance();
       if (grammarNode == null) // shouldn't happen
       {  System.out.println(
             "*** grammarNode unexpectedly null in ASDParser choices");
          System.exit(0);
       }
+      int g = grammarNode.index;
       if (grammarNode.isFinal())
-      {  ASDParseChoice choice = new ASDParseChoice();
-         choice.advanceType = FINAL;
-         choice.completedType = grammarNode.phraseType();
-         result.add(choice);
-         return result;
+      {  result.add(compiled.finalChoices[g]);
+         return counted(result);
       }
 
       ASDPhraseNode next = state.currentNode.nextNode();
-      ArrayList types = grammarNode.successorTypes();
-      ArrayList successors = grammarNode.successors();
+      int types = compiled.successorTypeSet[g];
+      int[] successors = compiled.successorNodes[g];
       if (successors == null) // shouldn't happen
       {  System.out.println(
          "*** successors unexpectedly null for ASD grammar entry "
@@ -619,91 +1247,115 @@ public class ASDParser implements ASDSemantics
          + grammarNode.instance() );
          System.exit(0);
       }
-      ASDGrammarSuccessor successor;
-      ASDGrammarNode successorState;
-      for (int j = 0; j < successors.size(); ++j)
-      {  successor
-            = (ASDGrammarSuccessor) successors.get(j);
-         if (successor.getWord().equals(DUMMYWORD))
-            // dummy successor
-         {  if (includeDummies)
-            {  successorState = ASDLexicon.lookupInstance(successor);
-               boolean includeState = false;
-               if (dummies == null) // include all dummy successors
-                  includeState = true;
-               else  // include dummy successors in the dummy vector
-                  for (int k = 0;
-                       !includeState && k < dummies.size(); ++k)
-                     if (successorState ==
-                           (ASDGrammarNode)(dummies.get(k)) )
-                        includeState = true;
-               if (includeState)
-               {  ASDParseChoice choice = new ASDParseChoice();
-                  choice.advanceType = DUMMY;
-                  choice.nextNode = successorState;
-                  result.add(choice);
-               }
-            }
+
+      // Find, from the node's dispatch index, the positions among its
+      // successors of the non-dummy successors that match the next
+      // word in the phrase structure or ANYTHING, and of the dummy
+      // successors:
+      int[] matching = null;
+      int[] anything = null;
+      int[] dummyPositions = null;
+      int initialsAfter = -1;
+         // position of the successor after which initial instances
+         // of the next word are to be included; -1 if none
+      if (next != null)
+      {  if (next.wordIndex != dummyIndex)
+            matching = compiled.successorPositions(g, next.wordIndex);
+         if (anythingIndex != next.wordIndex && anythingIndex != dummyIndex)
+            anything = compiled.successorPositions(g, anythingIndex);
+         initialsAfter = initialsAfter(g);
+      }
+      if (includeDummies)
+         dummyPositions = compiled.successorPositions(g, dummyIndex);
+
+      // Merge the choices in the order of the successors:
+      int m = 0, a = 0, d = 0;
+      while (true)
+      {  int pm = matching != null && m < matching.length
+            ? matching[m] : Integer.MAX_VALUE;
+         int pa = anything != null && a < anything.length
+            ? anything[a] : Integer.MAX_VALUE;
+         int pd = dummyPositions != null && d < dummyPositions.length
+            ? dummyPositions[d] : Integer.MAX_VALUE;
+         int p = Math.min(pm, Math.min(pa, pd));
+         if (initialsAfter >= 0 && initialsAfter < p)
+            // Also include initial instances of the next word
+            // in the phrase structure which can begin subphrases
+            // of the successor types:
+         {  addAll(result, initialsForTypes(next, types));
+            addAll(result, compiled.initialChoices(anythingIndex, types));
+            initialsAfter = -1;
+            continue;
          }
-         else  // next node in grammar is not a dummy
-         {  if (next != null)
-              // there is a next node in the phrase structure.
-              // Include non-dummy successor notes in the grammar
-              // that match the next word in the phrase structure
-              // or ANYTHING:
-            { if (next.word().equals(successor.getWord()) ||
-                      successor.getWord().equals(ANYTHING) )
-              {  successorState
-                     = ASDLexicon.lookupInstance(successor);
-                 ASDParseChoice choice = new ASDParseChoice();
-                 choice.advanceType = NONDUMMY;
-                 choice.nextNode = successorState;
-                 result.add(choice);
-              }
-              // Also include initial instances of the next word
-              // in the phrase structure when appropriate:
-              if (!initialsIn)
-              {  ArrayList initialsToAdd = null;
-                 ArrayList moreInitialsToAdd = null;
-                 if (types == null) // current node in grammar has
-                        // successors of unspecified phrase types
-                        // (this handles an unoptimized grammar)
-                 {  initialsIn = true;
-                    initialsToAdd = initialsForTypes(next.word(), null);
-                    moreInitialsToAdd
-                        = initialsForTypes(ANYTHING, null);
-                 }
-                 else // current node in grammar has successors of
-                     // specified phrase types; include initial instances
-                     // of next word in phrase structure which can begin
-                     // subphrases of those types:
-                 {  boolean typeMatch = false;
-                    for (int k = 0; !typeMatch && k < types.size(); ++k)
-                       if (successor.getWord()
-                                       .equals((String)(types.get(k))) )
-                          typeMatch = true;
-                    if (typeMatch)
-                    {  initialsToAdd
-                           = initialsForTypes(next.word(), types);
-                       moreInitialsToAdd
-                           = initialsForTypes(ANYTHING, types);
-                       initialsIn = true;
-                    }
-                 }
-                 if (initialsToAdd != null)
-                    for (int k = 0; k < initialsToAdd.size(); ++k)
-                       result.add(initialsToAdd.get(k));
-                 if (moreInitialsToAdd != null)
-                    for (int k = 0; k < moreInitialsToAdd.size(); ++k)
-                       result.add(moreInitialsToAdd.get(k));
-               }
-            }
+         if (p == Integer.MAX_VALUE)
+            break;
+         ASDGrammarNode successorState = compiled.nodes[successors[p]];
+         if (p == pd) // dummy successor
+         {  ++d;
+            boolean includeState = false;
+            if (dummies == null) // include all dummy successors
+               includeState = true;
+            else  // include dummy successors in the dummy vector
+               for (int k = 0;
+                    !includeState && k < dummies.size(); ++k)
+                  if (successorState ==
+                        (ASDGrammarNode)(dummies.get(k)) )
+                     includeState = true;
+            if (includeState)
+               result.add(compiled.dummyChoices[successors[p]]);
          }
-      } // end loop through successors
+         else // non-dummy successor matching the next word or ANYTHING
+         {  if (p == pm)
+               ++m;
+            else
+               ++a;
+            result.add(compiled.nonDummyChoices[successors[p]]);
+         }
+      } // end merge of successor positions
 
-      return result;
+      if (collecting) observe(grammarNode, next, result);
+      return counted(result);
    } // end choices
 
+   /**
+      Returns the position among the successors of a given non-final
+      grammar node after which choices includes initial instances of
+      the next word; -1 if none.
+      @param g the index of the grammar node
+    */
+   private int initialsAfter(int g)
+   {  if (compiled.successorTypeSet[g] == ASDCompiledGrammar.UNSPECIFIED_TYPES)
+         // current node in grammar has
+         // successors of unspecified phrase types
+         // (this handles an unoptimized grammar);
+         // include initials after the first non-dummy successor
+      {  int[] successorWords = compiled.successorWords[g];
+         int j = 0;
+         while (j < successorWords.length
+                && successorWords[j] == dummyIndex)
+            ++j;
+         return j < successorWords.length ? j : -1;
+      }
+      // current node in grammar has successors of specified
+      // phrase types; include initials after the first of them
+      return compiled.firstTypeSuccessor[g];
+   } // end initialsAfter
+
+   /**
+      Counts a list of choices for advancing, if there are statistics
+      to be kept.
+      @return the list
+    */
+   private ArrayList counted(ArrayList choices)
+   {  if (stats != null)
+      {  ++stats.choiceLists;
+         stats.choices += choices.size();
+         if (choices.size() > stats.maxChoices)
+            stats.maxChoices = choices.size();
+      }
+      return choices;
+   } // end counted
+
    /**
       Tests whether or not a parse has been completed successfully.
       @return true if successful, false if not.
@@ -717,123 +1369,211 @@ public class ASDParser implements ASDSemantics
          // and the parse is at the header node.
          // See if the word in the node after the header node
          // is one of the expected phrase types:
-      {  int n = expectedTypes.size();
-         String word = state.phraseStructure.nextNode().word();
-         for (int j = 0; !result && j < n; ++j)
-            if (((String)expectedTypes.get(j)).equals(word))
-               result = true;
-      }
+         result = isExpected(state.phraseStructure.nextNode());
       return result;
    } // end done
 
-   /**
-      Finds all initial instances of a word that could begin
-      a phrase of one of a specified list of expected phrase
-      types (or all initial instances of the word if the second
-      parameter is null)
-      @param aWord the word whose initial instances are sought
-      @param expected a ArrayList of strings that name the
-      expected phrase types
-      @return an ArrayList (possibly empty) of ASDParseChoice
+   /**
+      Indicates whether or not the word in a given phrase node is
+      one of the expected phrase types of the current parse.
+    */
+   boolean isExpected(ASDPhraseNode node)
+   {  int word = node.wordIndex;
+      if (word >= 0)
+      {  for (int j = 0; j < expectedWords.length; ++j)
+            if (expectedWords[j] == word)
+               return true;
+      }
+      else // a word that is not in the grammar
+      {  int n = expectedTypes.size();
+         for (int j = 0; j < n; ++j)
+            if (((String)expectedTypes.get(j)).equals(node.word()))
+               return true;
+      }
+      return false;
+   } // end isExpected
+
+   /**
+      Finds all initial instances of the word in a given phrase node
+      that could begin a phrase of one of a specified set of expected
+      phrase types (or all initial instances of the word if the set is
+      unspecified).  The result is shared with other parses through
+      the compiled grammar's cache and must not be modified.
+      @param node the phrase node whose word's initial instances are
+      sought
+      @param expected the type set index, in the compiled grammar, of
+      the expected phrase types
+      @return an array (possibly empty) of ASDParseChoice
       instances, each containing advanceType = INITIAL and
       an initial ASDGrammarNode.
     */
-    ArrayList initialsForTypes(String aWord, ArrayList expected)
-    {  ArrayList result = new ArrayList(5);
-       ArrayList wordEntry = ASDLexicon.lookupWord(aWord);
-       if (wordEntry == null && !aWord.equals(ANYTHING))
-          // If the word is not found in the grammar/lexicon and
-          // is not the special string ANYTHING.
-          // See whether it is a string that can be converted
-          // to an integer:
-       {  boolean isNumeric = true;
-          try
-          { Integer.parseInt(aWord);
-          }
-          catch(NumberFormatException e)
-          { isNumeric = false;
-          }
-          // If so, look up NUMBER instead of it:
-          if (isNumeric)
-             wordEntry = ASDLexicon.lookupWord(NUMBER);
-          // Or if the word is in quotes, look up STRING instead:
-          else if (aWord.indexOf(OPENQUOTE) == 0)
-             wordEntry = ASDLexicon.lookupWord(STRING);
-          // Otherwise look up UNKNOWN instead:
-          else
-             wordEntry = ASDLexicon.lookupWord(UNKNOWN);
-       }
-       if (wordEntry == null) return result; // empty collection
-
-       // An entry for the word has been found in the lexicon
-       // and returned as an ArrayList of ASDGrammarNode instances
-
-       ASDGrammarNode wordInstance;
-       ASDParseChoice choice;
-       for (int index = 0; index < wordEntry.size(); ++index)
-       {  wordInstance = (ASDGrammarNode)wordEntry.get(index);
-          if (wordInstance.isInitial())
-          {  ArrayList beginsTypes = wordInstance.beginsTypes();
-             if (beginsTypes == null)
-                // instance can begin subphrases of unknown types
-             {  choice = new ASDParseChoice();
-                choice.advanceType = INITIAL;
-                choice.nextNode = wordInstance;
-                result.add(choice);
-             }
-             else
-                // instance can begin subphrases of specified types;
-                // see whether any of them match the given expected
-                // types:
-             {  boolean noMatch = true;
-                if (expected == null) // successors of unspecified types
-                   noMatch = false;
-                else
-                   for (int expectedIndex = 0;
-                          noMatch && expectedIndex < expected.size();
-                          ++expectedIndex)
-                   {  String expectedType
-                         = (String)(expected.get(expectedIndex));
-                      for (int beginsIndex = 0;
-                           noMatch && beginsIndex < beginsTypes.size();
-                           ++beginsIndex)
-                         if ( expectedType.equals(
-                              (String)
-                                (beginsTypes.get(beginsIndex))) )
-                            noMatch = false;  // match found
-                   }
-                if (!noMatch)
-                   // instance can begin a subphrase of one of the
-                   // expected types.
-                {  choice = new ASDParseChoice();
-                   choice.advanceType = INITIAL;
-                   choice.nextNode = wordInstance;
-                   result.add(choice);
-                }
-             }
-          }
-       }
-
-       // return the ArrayList, possibly empty,
-       // of initial ASDParseChoices found
-       return result;
+   ASDParseChoice[] initialsForTypes(ASDPhraseNode node, int expected)
+   {  int word = node.lexiconIndex;
+      if (word == ASDPhraseNode.UNCLASSIFIED)
+      {  // a phrase node not made by segment, classified once
+         word = lexiconIndex(node.word(), node.wordIndex);
+         node.lexiconIndex = word;
+      }
+      return compiled.initialChoices(word, expected);
    } // end initialsForTypes
 
-   /**
+   /**
+      Classifies a word for lookup in the lexicon.  A word which has
+      instances in the grammar, or is the special string ANYTHING, is
+      looked up as itself.  Otherwise an integer that fits in a long
+      is looked up as NUMBER, a number with a decimal point as DECIMAL
+      if DECIMAL is in the grammar, a word that begins with OPENQUOTE
+      as STRING, and anything else as UNKNOWN.
+      @param word the word
+      @param index the word index of word; -1 if not in the grammar
+      @return the word index to look up
+    */
+   int lexiconIndex(String word, int index)
+   {  if (compiled.instancesOf(index) != null || word.equals(ANYTHING))
+         return index;
+      int length = word.length();
+      int start = length > 0 && (word.charAt(0) == '-'
+                                 || word.charAt(0) == '+') ? 1 : 0;
+      int point = digitsEnd(word, start, length);
+      if (point == length && point > start
+          && fitsInLong(word, start, length))
+         return numberIndex;
+      if (decimalIndex >= 0 && point < length - 1
+          && word.charAt(point) == '.'
+          && digitsEnd(word, point + 1, length) == length)
+         return decimalIndex;
+      if (word.startsWith(OPENQUOTE))
+         return stringIndex;
+      return unknownIndex;
+   } // end lexiconIndex
+
+   /**
+      Returns the index after the run of decimal digits that begins at
+      a given index in a string, and ends no later than a given index.
+    */
+   static int digitsEnd(String s, int start, int end)
+   {  while (start < end && Character.digit(s.charAt(start), 10) >= 0)
+         ++start;
+      return start;
+   }
+
+   /**
+      Indicates whether or not the (possibly signed) decimal digits in a
+      given span of a string stand for a number in the range of long.
+    */
+   private static boolean fitsInLong(String s, int start, int end)
+   {  while (start < end - 1 && Character.digit(s.charAt(start), 10) == 0)
+         ++start;  // skip leading zeros
+      int length = end - start;
+      if (length != 19) return length < 19;
+      String limit = s.charAt(0) == '-' ? "9223372036854775808"
+                                        : "9223372036854775807";
+         // the sign, if any, is at index 0
+      for (int j = 0; j < 19; ++j)
+      {  int d = Character.digit(s.charAt(start + j), 10);
+         int l = limit.charAt(j) - '0';
+         if (d != l) return d < l;
+      }
+      return true;
+   } // end fitsInLong
+
+   /**
+      Returns the word index of a given span of a string if it is one
+      of the ORDINALSUFFIXES and is in the grammar, ignoring case if
+      the parser folds case; -1 otherwise.
+    */
+   int ordinalSuffixIndex(String s, int start, int end)
+   {  int length = end - start;
+      String suffixes = ORDINALSUFFIXES;
+      for (int j = 0; j < suffixes.length(); )
+      {  int k = suffixes.indexOf(' ', j);
+         if (k < 0) k = suffixes.length();
+         if (k - j == length
+             && suffixes.regionMatches(foldCase, j, s, start, length))
+            return compiled.wordIndex(suffixes, j, k);
+         j = k + 1;
+      }
+      return -1;
+   } // end ordinalSuffixIndex
+
+   /**
+      Indicates whether or not words which are not found in the grammar
+      are looked up again in lower case.
+    */
+   boolean foldsCase() { return foldCase; }
+
+   /**
+      Returns the word index of DECIMAL in the grammar; -1 if none.
+    */
+   int decimalIndex() { return decimalIndex; }
+
+   /**
+      Appends the elements of an array of choices to a list.
+    */
+   private static void addAll(ArrayList list, ASDParseChoice[] choices)
+   {  for (int j = 0; j < choices.length; ++j)
+         list.add(choices[j]);
+   }
+
+   /**
+      Looks up, in the compiled form of the grammar being used, the
+      indices of the special words and of the expected phrase types
+      for the parse about to begin.
+    */
+   private void compileSpecialWords()
+   {  compiled = ASDLexicon.compiledGrammar();
+      binding = semanticTarget == null ? null
+         : compiled.semanticBinding(semanticTarget.getClass(),
+                                    semanticDispatcher);
+      anythingIndex = compiled.wordIndex(ANYTHING);
+      dummyIndex = compiled.wordIndex(DUMMYWORD);
+      numberIndex = compiled.wordIndex(NUMBER);
+      decimalIndex = compiled.wordIndex(DECIMAL);
+      stringIndex = compiled.wordIndex(STRING);
+      unknownIndex = compiled.wordIndex(UNKNOWN);
+      expectedSet = compiled.typeSet(compiled.typeMask(expectedTypes));
+      expectedWords = new int[expectedTypes.size()];
+      for (int j = 0; j < expectedWords.length; ++j)
+         expectedWords[j] = compiled.wordIndex((String)expectedTypes.get(j));
+   } // end compileSpecialWords
+
+   /**
+      Indicates whether or not the word in a given phrase node has
+      exactly one instance in the grammar.
+    */
+   private boolean uniqueInstance(ASDPhraseNode node)
+   {  int[] wordEntry = compiled.instancesOf(node.wordIndex);
+      return wordEntry != null && wordEntry.length == 1;
+   }
+
+   /**
       Attempts to find next parse of current phrase structure.
       @return true if successful, false if unsuccessful
     */
    public boolean parse()
    {  String advanceResult; // SUCCEED, NOADVANCE, or QUIT
+      long start = parseBegun();
+      int steps = 0;
       while(true)
-      {  advanceResult = advance();
-         if (advanceResult == QUIT) return false;
+      {  ++steps;
+         advanceResult = advance();
+         if (advanceResult == QUIT)
+         {  parseEnded(start, ASDParseOutcome.QUIT, steps);
+            return false;
+         }
          else if (advanceResult == SUCCEED)
-         {  if (done()) return true;
+         {  if (done())
+            {  parseEnded(start, ASDParseOutcome.SUCCEEDED,
+                  steps);
+               return true;
+            }
          }
          else if (advanceResult == NOADVANCE)
          {  if (!backup())
+            {  parseEnded(start, ASDParseOutcome.EXHAUSTED,
+                  steps);
                return false;
+            }
          }
          else  // this shouldn't occur
          {  System.out.println(
@@ -854,16 +1594,28 @@ public class ASDParser implements ASDSemantics
    public int parse(int maxSteps)
    {  int steps = 0;
       String advanceResult; // SUCCEED, NOADVANCE, or QUIT
+      long start = parseBegun();
       while(steps < maxSteps)
       {  ++steps;
          advanceResult = advance();
-         if (advanceResult == QUIT) return -steps;
+         steps += takeSearchSteps();
+         if (advanceResult == QUIT)
+         {  parseEnded(start, ASDParseOutcome.QUIT, steps);
+            return -steps;
+         }
          else if (advanceResult == SUCCEED)
-         {  if (done()) return steps;
+         {  if (done())
+            {  parseEnded(start, ASDParseOutcome.SUCCEEDED,
+                  steps);
+               return steps;
+            }
          }
          else if (advanceResult == NOADVANCE)
          {  if (!backup())
+            {  parseEnded(start, ASDParseOutcome.EXHAUSTED,
+                  steps);
                return -steps;
+            }
          }
          else  // this shouldn't occur
          {  System.out.println(
@@ -872,9 +1624,137 @@ public class ASDParser implements ASDSemantics
             System.exit(0);
          }
       }
+      parseEnded(start, ASDParseOutcome.STEP_LIMIT, steps);
       return -steps;
    } // end parse(maxSteps)
 
+   /**
+      Attempts to find next parse of current phrase structure in a
+      specified maximum number of advance steps and within a given
+      time.
+      @param maxSteps the maximum number of steps permitted
+      @param timeout the maximum time permitted
+      @return the outcome, with the number of steps performed
+    */
+   public ASDParseOutcome parse(int maxSteps, Duration timeout)
+   {  return parse(maxSteps, deadline(System.nanoTime(), timeout.toNanos()),
+         null);
+   }
+
+   /**
+      Computes the deadline of a search which starts at a given time
+      and is permitted a given time, as a value of System.nanoTime().
+      A deadline which would come out as 0, the value that means no
+      deadline, is moved on by a nanosecond.
+      @param start the value of System.nanoTime() at which the search
+      starts
+      @param timeoutNanos the time permitted, in nanoseconds
+      @return the deadline, which is never 0
+    */
+   public static long deadline(long start, long timeoutNanos)
+   {  long result = start + timeoutNanos;
+      return result == 0 ? 1 : result;
+   }
+
+   /**
+      Attempts to find next parse of current phrase structure in a
+      specified maximum number of advance steps, before a given
+      deadline, and unless it is cancelled.  The deadline and the
+      cancellation flag are checked before each advance step, so the
+      search stops no later than the end of the step that is under
+      way when either occurs, however long that step takes.
+      @param maxSteps the maximum number of steps permitted
+      @param deadlineNanos the value of System.nanoTime() at which to
+      stop; 0 for no deadline
+      @param cancelled a flag which another thread may set to stop the
+      search; null if the search is not to be cancelled
+      @return the outcome, with the number of steps performed
+    */
+   public ASDParseOutcome parse(int maxSteps, long deadlineNanos,
+      AtomicBoolean cancelled)
+   {  int steps = 0;
+      String advanceResult; // SUCCEED, NOADVANCE, or QUIT
+      long start = parseBegun(deadlineNanos, cancelled);
+      int status;
+      while(true)
+      {  if (steps >= maxSteps)
+         {  status = ASDParseOutcome.STEP_LIMIT;
+            break;
+         }
+         if (cancelled != null && cancelled.get())
+         {  status = ASDParseOutcome.CANCELLED;
+            break;
+         }
+         if (deadlineNanos != 0 && System.nanoTime() - deadlineNanos >= 0)
+         {  status = ASDParseOutcome.TIMED_OUT;
+            break;
+         }
+         ++steps;
+         advanceResult = advance();
+         steps += takeSearchSteps();
+         if (advanceResult == QUIT)
+         {  status = ASDParseOutcome.QUIT;
+            break;
+         }
+         else if (advanceResult == SUCCEED)
+         {  if (done())
+            {  status = ASDParseOutcome.SUCCEEDED;
+               break;
+            }
+         }
+         else if (!backup()) // NOADVANCE
+         {  status = ASDParseOutcome.EXHAUSTED;
+            break;
+         }
+      }
+      parseEnded(start, status, steps);
+      return new ASDParseOutcome(status, steps);
+   } // end parse(maxSteps, deadlineNanos, cancelled)
+
+   /**
+      Initializes the parser for a given string and returns a
+      sequential Stream of its parses as one of a list of expected
+      phrase types.  The parses are found lazily, by advancing and
+      backing up the parser only as far as is needed for each element
+      requested, so a caller can use limit(k) or findFirst() to stop
+      the search early.  The parser must not be used in any other way
+      while the stream is being consumed.
+      @param aString the string to be parsed
+      @param expected an ArrayList of strings, each the name
+      of one of the expected phrase types
+      @return a stream of ASDParseResult instances, in the order in
+      which the parses are found
+    */
+   public Stream<ASDParseResult> parses(String aString, ArrayList expected)
+   {  return parses(aString, expected, Integer.MAX_VALUE, 0);
+   }
+
+   /**
+      Initializes the parser for a given string and returns a
+      sequential Stream of its parses as one of a list of expected
+      phrase types, found lazily as by parses(aString, expected),
+      within a given budget.  The stream ends early, without an
+      error, when the budget is used up.
+      @param aString the string to be parsed
+      @param expected an ArrayList of strings, each the name
+      of one of the expected phrase types
+      @param maxSteps the maximum total number of advance steps
+      permitted for all of the parses
+      @param maxMillis the maximum number of milliseconds, from the
+      time the stream is created, that may be spent finding parses;
+      0 for no limit
+      @return a stream of ASDParseResult instances, in the order in
+      which the parses are found
+    */
+   public Stream<ASDParseResult> parses(String aString, ArrayList expected,
+      int maxSteps, long maxMillis)
+   {  initialize(aString, expected);
+      long deadline = maxMillis > 0
+         ? System.nanoTime() + maxMillis * 1000000L : 0;
+      return StreamSupport.stream(
+         new ASDParseSpliterator(this, maxSteps, deadline), false);
+   } // end parses
+
 
    /**
       Copies the feature-value pairs from the current node value
@@ -926,57 +1806,50 @@ public class ASDParser implements ASDSemantics
       each containing one word, number, punctuation mark, or
       quoted string from the given String, with
       a dummy header node at the beginning of the chain.
+      Each character in SPACECHARS, SPECIALCHARS, OPENQUOTE or
+      CLOSEQUOTE is a token by itself, whitespace excepted, and each
+      maximal run of other characters is a token; see ASDSegmenter.
       @param aString a string to be parsed
       @return the first (dummy) ASDPhraseNode
     */
    ASDPhraseNode segment(String aString)
-   {  ASDPhraseNode phraseStructure = new ASDPhraseNode();
-      phraseStructure.setWord("nil");
-         // the dummy header node
-      ASDPhraseNode lastNode = phraseStructure;
-      boolean inString = false;
-      String lastToken = "";
-      String quotedString = null;
-      StringTokenizer tokenizer = new StringTokenizer(aString,
-         SPACECHARS + SPECIALCHARS + OPENQUOTE + CLOSEQUOTE, true);
-      while(tokenizer.hasMoreTokens())
-      {  String token = tokenizer.nextToken().trim();
-         if (inString) // inside a quoted string
-         {  if (token.length()==0)
-            {  token = " ";
-               if (!lastToken.equals(" "))
-                  quotedString += token;
-            }
-            else
-               quotedString += token;
-            if (token.equals(CLOSEQUOTE)) // end of the quoted string
-            {  inString = false;
-               ASDPhraseNode newNode = new ASDPhraseNode();
-               newNode.setWord(quotedString);
-               lastNode.setNextNode(newNode);
-               lastNode = newNode;
-            }
-         }
-         else // not in a quoted string
-         {  if (token.length() > 0)
-            {  // not whitespace
-               if (token.equals(OPENQUOTE)) // starting a quoted string
-               {  inString = true;
-                  quotedString = token;
-               }
-               else
-               {  ASDPhraseNode newNode = new ASDPhraseNode();
-                  newNode.setWord(token);
-                  lastNode.setNextNode(newNode);
-                  lastNode = newNode;
-               }
-            }  // whitespace characters are ignored
-         }
-         lastToken = token;
-      }
-      return phraseStructure;
+   {  ASDSegmenter segmenter = new ASDSegmenter(this, delimiterTable());
+      segmenter.scan(aString);
+      return segmenter.phraseStructure();
    } // end segment
 
+   /**
+      Creates a phrase structure as segment(String) does for given
+      tokens joined with spaces between them, without joining them.
+      @param tokens the tokens of a string to be parsed
+      @return the first (dummy) ASDPhraseNode
+    */
+   ASDPhraseNode segment(String[] tokens)
+   {  ASDSegmenter segmenter = new ASDSegmenter(this, delimiterTable());
+      for (int j = 0; j < tokens.length; ++j)
+      {  segmenter.space();
+         segmenter.scan(tokens[j]);
+      }
+      return segmenter.phraseStructure();
+   } // end segment(tokens)
+
+   /**
+      Returns the table of delimiter characters for segment, making
+      it again if any of the strings of delimiters has been changed.
+    */
+   private ASDDelimiterTable delimiterTable()
+   {  if (delimiters == null || delimiterStrings[0] != SPACECHARS
+          || delimiterStrings[1] != SPECIALCHARS
+          || delimiterStrings[2] != OPENQUOTE
+          || delimiterStrings[3] != CLOSEQUOTE)
+      {  delimiterStrings = new String[]
+            { SPACECHARS, SPECIALCHARS, OPENQUOTE, CLOSEQUOTE };
+         delimiters = new ASDDelimiterTable(
+            SPACECHARS + SPECIALCHARS + OPENQUOTE + CLOSEQUOTE);
+      }
+      return delimiters;
+   } // end delimiterTable
+
    /**
       Evaluates a string from a "semantic action" field in an
       ASDGrammar, by invoking the corresponding method of the
@@ -1092,6 +1965,14 @@ public class ASDParser implements ASDSemantics
       NO = NOADVANCE;
    }
 
+   /**
+      Resets the string used to stand in for numbers with decimal
+      points in a grammar lexicon.
+    */
+   public void setDECIMAL(String newValue)
+   {  DECIMAL = newValue;
+   }
+
    /**
       Resets the string which is recognized by the ASDParser as representing
       a "dummy" word in the grammar -- used in the labels on dummy nodes.
@@ -1108,6 +1989,15 @@ public class ASDParser implements ASDSemantics
    {  NUMBER = newValue;
    }
 
+   /**
+      Tells the ASDParser instance whether or not to look up words which
+      are not found in the grammar again in lower case.  A word found
+      that way is replaced by the grammar's lower-case form of it.
+    */
+   public void setFoldCase(boolean fold)
+   {  foldCase = fold;
+   }
+
    /**
       Resets the lexical token which is to be recognized as beginning
       a quoted string.
@@ -1116,6 +2006,15 @@ public class ASDParser implements ASDSemantics
    {  OPENQUOTE = newValue;
    }
 
+   /**
+      Resets the suffixes, separated by spaces, which are separated
+      from the digits that they follow in a lexical token, if the
+      token is not in the grammar but the suffix is.
+    */
+   public void setORDINALSUFFIXES(String newValue)
+   {  ORDINALSUFFIXES = newValue;
+   }
+
    /**
       Sets the QUIT value which may be returned by the advance method
       to a new value preferred by the client.
@@ -1132,6 +2031,122 @@ public class ASDParser implements ASDSemantics
    {  saveUniquelyParsedSubphrases = save;
    }
 
+   /**
+      Tells the ASDParser to splice in subphrases completed before, from
+      a given cache which may be shared with other parsers, instead of
+      deriving them again.  While it has a cache the parser does not
+      save uniquely parsed subphrases permanently.
+      @param cache the cache; null for none
+      @param context an object, with equals and hashCode, which stands
+      for the state of the semantics on which the semantic actions and
+      values of a subphrase depend, such as whether parsing is strict;
+      null if there is none
+    */
+   public void setSubphraseCache(ASDSubphraseCache cache, Object context)
+   {  subphraseCache = cache;
+      subphraseContext = context;
+   }
+
+   /**
+      Tells the ASDParser to keep statistics of its work in a given
+      ASDParseStats, which it clears each time it is initialized.
+      @param givenStats the statistics to be kept; null to keep none
+    */
+   public void setStats(ASDParseStats givenStats)
+   {  stats = givenStats;
+   }
+
+   /**
+      Tells the ASDParser to record each attempt to find a parse in a
+      given ASDParserMetrics, which may be shared with other parsers,
+      under a given name for its grammar.  The change takes effect
+      when the parser is next initialized.
+      @param givenMetrics the metrics; null to record none
+      @param grammarName the name of the grammar, such as the name of
+      the file from which it was loaded
+    */
+   public void setMetrics(ASDParserMetrics givenMetrics, String grammarName)
+   {  metrics = givenMetrics;
+      metricsName = grammarName;
+   }
+
+   /**
+      Returns the metrics given by setMetrics; null if none.
+    */
+   public ASDParserMetrics getMetrics() { return metrics; }
+
+   /**
+      Marks the beginning of an attempt to find the next parse, with
+      no deadline, which cannot be cancelled.
+      @return the value of System.nanoTime(), to be given to
+      parseEnded, if the attempt is to be timed; 0 otherwise
+    */
+   public long parseBegun()
+   {  return parseBegun(0, null);
+   }
+
+   /**
+      Marks the beginning of an attempt to find the next parse.  The
+      parse methods call it and parseEnded themselves; an application
+      which advances and backs up the parser itself should call them
+      instead, so that the attempt is recorded in the metrics given
+      by setMetrics and emitted as an asd.ParseEnd event.  The deadline
+      and the cancellation flag of the attempt are checked within the
+      searches made for the subphrase cache, which can take many steps
+      within one invocation of advance; the caller should count those
+      steps, which takeSearchSteps returns, as its own.
+      @param deadlineNanos the value of System.nanoTime() at which the
+      attempt is to stop; 0 for no deadline
+      @param cancelled a flag which another thread may set to stop the
+      attempt; null if it is not to be cancelled
+      @return the value of System.nanoTime(), to be given to
+      parseEnded, if the attempt is to be timed; 0 otherwise
+    */
+   public long parseBegun(long deadlineNanos, AtomicBoolean cancelled)
+   {  attemptBackups = totalBackups;
+      attemptDeadline = deadlineNanos;
+      attemptCancelled = cancelled;
+      searchSteps = 0;
+      return metricsEntry != null ? System.nanoTime()
+                                  : ASDEvents.parseBegun();
+   }
+
+   /**
+      Returns the number of advance steps taken, since parseBegun or
+      the previous invocation of this method, by the searches for the
+      completions of subphrases that were not in the subphrase cache.
+      Each search is made within one invocation of advance, whose
+      caller should add these steps to its own count, so that its
+      step limit bounds them too.
+    */
+   public int takeSearchSteps()
+   {  int result = searchSteps;
+      searchSteps = 0;
+      return result;
+   }
+
+   /**
+      Marks the end of an attempt to find the next parse.
+      @param startNanos the value returned by parseBegun
+      @param status how the attempt ended: ASDParseOutcome.SUCCEEDED,
+      EXHAUSTED, QUIT, STEP_LIMIT, TIMED_OUT or CANCELLED
+      @param steps the number of advance steps performed
+    */
+   public void parseEnded(long startNanos, int status, int steps)
+   {  attemptDeadline = 0;
+      attemptCancelled = null;
+      ASDEvents.parseEnded(this, startNanos, status, steps);
+      if (metricsEntry != null)
+         metricsEntry.record(status, steps, totalBackups - attemptBackups,
+            startNanos == 0 ? -1 : System.nanoTime() - startNanos);
+   } // end parseEnded
+
+   /**
+      Returns the ASDParseStats in which the ASDParser keeps statistics
+      of its work; null if none.
+    */
+   public ASDParseStats stats() { return stats; }
+
    /**
       Resets the string of characters which are to be recognized as
       delimiters for lexical tokens but not as lexical tokens themselves.
@@ -1275,12 +2290,15 @@ public class ASDParser implements ASDSemantics
        ASDLexicon = grammar;
        if (!ASDLexicon.nodesWithIncomingEdgesMarked())
           ASDLexicon.markNodesWithIncomingEdges();
+       ASDLexicon.compiledGrammar();
        return true;
     } // end useGrammar
 
    /**
       Sets the ASDParser instance to use an ASDGrammar loaded from
-      a specified file.
+      a specified file.  The grammar is loaded for this parser alone;
+      to share one grammar among several parsers, load it once, freeze
+      it, and pass it to useGrammar(ASDGrammar) instead.
       @param fileName the name of the file containing the grammar.
       @return true if successful, false if the grammar cannot be
       loaded successfully from the file.
@@ -1309,6 +2327,14 @@ public class ASDParser implements ASDSemantics
     */
    public String CLOSEQUOTE = "\"";
 
+   /**
+      The string used to stand in for numbers with decimal points in
+      a grammar lexicon.  By default it is equal to "DECIMAL".  A
+      number with a decimal point is one token only if DECIMAL is in
+      the grammar.
+    */
+   public String DECIMAL = "DECIMAL";
+
    /**
       The string recognized as representing a dummy node/instance
       in a grammar.  By default it is equal to ASDGrammar.DUMMYWORD.
@@ -1339,6 +2365,14 @@ public class ASDParser implements ASDSemantics
     */
    public String OPENQUOTE = "\"";
 
+   /**
+      Suffixes, separated by spaces, which are separated from the
+      digits that they follow in a lexical token such as "21st", if the
+      token is not in the grammar but the suffix is.  The default value
+      is "st nd rd th".
+    */
+   public String ORDINALSUFFIXES = "st nd rd th";
+
    /**
       A possible value returned by the advance() method.
       It indicates that the parse cannot succeed and should be
@@ -1383,22 +2417,86 @@ public class ASDParser implements ASDSemantics
    public static String UNKNOWN = "UNKNOWN";
 
    /* Constants to indicate types of advance steps: */
-   private static final char INITIAL = 'I';
-   private static final char FINAL = 'F';
-   private static final char DUMMY = 'D';
-   private static final char NONDUMMY = 'N';
+   static final char INITIAL = 'I';
+   static final char FINAL = 'F';
+   static final char DUMMY = 'D';
+   static final char NONDUMMY = 'N';
+   static final char CACHED = 'C';
+      // splicing in a subphrase from the subphrase cache
 
    private String stringToBeParsed;
-   private Stack backstack;
-      // for saving ASDParseState instances for backtracking
+   private ArrayDeque<ASDChoicePoint> backstack;
+      // for saving ASDChoicePoint instances for backtracking
+   private final ASDParserPool pool = new ASDParserPool();
+      // objects made by earlier parses, for reuse
+   private ASDUndoTrail trail;
+      // changes to the phrase structure to be undone on backtracking
    private ArrayList expectedTypes;
       // a vector of strings that are phrase type names that
       // can be goals of a parse
    private ASDGrammar ASDLexicon;
       // the grammar/ASDLexicon to be used for parsing
+   private ASDCompiledGrammar compiled;
+      // the compiled form of ASDLexicon used by the current parse
+   private int anythingIndex, dummyIndex, numberIndex, decimalIndex,
+      stringIndex, unknownIndex;
+      // word indices, in the compiled grammar, of ANYTHING, DUMMYWORD,
+      // NUMBER, DECIMAL, STRING and UNKNOWN; -1 for any not in the grammar
+   private boolean foldCase = false;
+      // indicates whether or not words not found in the grammar are
+      // looked up again in lower case
+   private int expectedSet;
+      // type set index of the phrase types in expectedTypes
+   private int[] expectedWords;
+      // word indices of the strings in expectedTypes
    private int currentParseStepNumber;
       // the number of the current step in a parse
    private boolean saveUniquelyParsedSubphrases;
+   private ASDSubphraseCache subphraseCache = null;
+      // completed subphrases to be spliced in; null if none
+   private Object subphraseContext;
+      // the context object for subphraseCache
+   private boolean collecting = false;
+      // indicates whether or not the parser is searching for the
+      // ways of completing a subphrase, for subphraseCache
+   private ASDSubphraseStackFrame collectBase;
+      // while collecting, the subphrase stack of the enclosing phrase
+   private ASDPhraseNode[] collectWords;
+      // while collecting, the words after the subphrase's beginning
+   private int collectReach;
+      // the number of collectWords on which the search has depended
+   private int[] peekPositions = new int[16], peekNodes = new int[16];
+   private int peekCount;
+      // the positions in collectWords at which, and the indices of the
+      // grammar nodes from which, the search looked at a word without
+      // consuming it
+   private int searchSteps;
+      // the advance steps taken by collect, not yet taken by
+      // takeSearchSteps
+   private long attemptDeadline;
+      // the deadline given to parseBegun; 0 if none
+   private AtomicBoolean attemptCancelled;
+      // the cancellation flag given to parseBegun; null if none
+   private ASDParseStats stats = null;
+      // statistics of the parser's work; null if none are kept
+   private int utteranceLength;
+      // the number of words and other tokens in the current utterance
+   private long backups;
+      // the number of backups since the parser was initialized
+   private long totalBackups, attemptBackups;
+      // the number of backups since the parser was made, and that
+      // number when the current attempt to find a parse began
+   private ASDParserMetrics metrics = null;
+      // the metrics in which attempts are recorded; null if none
+   private String metricsName;
+      // the name of the grammar in metrics
+   private ASDMetricsEntry metricsEntry = null;
+      // the entry of metrics for the current utterance; null if none
+   private ASDDelimiterTable delimiters;
+      // the delimiter characters for segment
+   private String[] delimiterStrings;
+      // SPACECHARS, SPECIALCHARS, OPENQUOTE and CLOSEQUOTE, as they
+      // were when delimiters was made
    private ASDParseState state;
       // the rest of the state of the current parse
    private ASDSemantics semantics;
@@ -1408,176 +2506,506 @@ public class ASDParser implements ASDSemantics
    private Object application;
       // the target for application-specific messages,
       // if semantics is the ASDParser itself
+   private Object semanticTarget;
+      // the object whose methods are named by the semantic action
+      // and value strings, if they are evaluated by a binding;
+      // null if they are passed to semantics
+   private ASDSemanticDispatcher semanticDispatcher;
+      // the dispatcher for semanticTarget's class; null if none
+   private ASDSemanticBinding binding;
+      // the binding of the current grammar to semanticTarget's class
+   private final HashMap<String, Integer> featureSlots
+      = new HashMap<String, Integer>();
+      // feature name -> Integer slot index
+   private final ArrayList<String> featureNames = new ArrayList<String>();
+      // slot index -> feature name
 } // end class ASDParser
 
 /**
-   Instances record the state of a parse, including all
-   of the information required to be put on the backup
-   stack at points of local ambiguity during a parse,
-   for recovery later if the parser backtracks.  Since this
-   is intended to be like a C struct, the instance variables
-   are made public for efficiency.  Since this is class is
-   intended to be used only by the the ASDParser class, it is
-   not declared public.
-
-   @author James A. Mason
-   @version 1.03 2000 May 26; Jun 13; 2001 Feb 5; Aug 29
+   Instances record, for an ASDParser, the changes made to its parse
+   state after the choice points on its backup stack were saved: to
+   the next links of nodes in the phrase structure, to the feature
+   tables of subphrases, and to the beginning, features, uniqueness
+   flag and suspended subphrases of the current subphrase.  Those
+   states can then be restored by undoing the changes instead of by
+   copying the parse state at every point of local ambiguity.  The
+   nodes at the top level of a subphrase that has been permanently
+   replaced by a single node are pinned, so that changes to their
+   links recorded before then are not undone.
  */
-class ASDParseState implements Cloneable
-{  public Object clone()
-   {  ASDParseState result;
-      try
-      {  result = (ASDParseState) super.clone();
-         result.features = (HashMap)features.clone();
-         result.subphraseStack
-            = (ASDSubphraseStack)subphraseStack.clone();
-      } catch (CloneNotSupportedException e)
-      { // This shouldn't happen.
-         result = null;
+class ASDUndoTrail
+{  ASDUndoTrail()
+   {  kinds = new byte[INITIAL_CAPACITY];
+      targets = new Object[INITIAL_CAPACITY];
+      keys = new Object[INITIAL_CAPACITY];
+      olds = new Object[INITIAL_CAPACITY];
+      ints = new int[INITIAL_CAPACITY];
+   }
+
+   /**
+      Returns the number of changes recorded so far, to be passed
+      later to undo.
+    */
+   int mark() { return size; }
+
+   /**
+      Prevents changes recorded so far for a given node from being
+      undone.
+    */
+   void pin(ASDPhraseNode node) { node.pinnedThrough = serial; }
+
+   /**
+      Sets the next link of a node, recording its old value.
+    */
+   void setNextNode(ASDPhraseNode node, ASDPhraseNode next)
+   {  int j = add(LINK);
+      targets[j] = node;
+      olds[j] = node.nextNode();
+      ints[j] = ++serial;
+      node.setNextNode(next);
+   }
+
+   /**
+      Sets the value of a feature in a feature table, recording its
+      old value.
+    */
+   void set(ASDFeatures features, int slot, Object value)
+   {  int j = add(FEATURE);
+      targets[j] = features;
+      olds[j] = features.set(slot, value);
+      ints[j] = slot;
+   }
+
+   /**
+      Records the uniqueness flag of a given parse state, before
+      it is changed.
+    */
+   void saveUnique(ASDParseState state)
+   {  olds[add(UNIQUE)] = state.unique ? Boolean.TRUE : Boolean.FALSE;
+   }
+
+   /**
+      Records the beginning, features, uniqueness flag and suspended
+      subphrases of the current subphrase of a given parse state,
+      before they are changed.
+    */
+   void saveSubphrase(ASDParseState state)
+   {  int j = add(SUBPHRASE);
+      targets[j] = state.features;
+      keys[j] = state.subphraseStack;
+      olds[j] = state.unique ? Boolean.TRUE : Boolean.FALSE;
+      ints[j] = state.beginning;
+   }
+
+   /**
+      Undoes, most recent first, the changes recorded after a given
+      mark, except those to the links of pinned nodes.
+      @param mark a value returned earlier by mark()
+      @param state the parse state whose fields were changed
+    */
+   void undo(int mark, ASDParseState state)
+   {  while (size > mark)
+      {  --size;
+         switch (kinds[size])
+         {  case LINK:
+               ASDPhraseNode node = (ASDPhraseNode) targets[size];
+               if (ints[size] > node.pinnedThrough)
+                  node.setNextNode((ASDPhraseNode) olds[size]);
+               break;
+            case FEATURE:
+               ((ASDFeatures) targets[size]).set(ints[size], olds[size]);
+               break;
+            case UNIQUE:
+               state.unique = olds[size] == Boolean.TRUE;
+               break;
+            case SUBPHRASE:
+               state.features = (ASDFeatures) targets[size];
+               state.subphraseStack = (ASDSubphraseStackFrame) keys[size];
+               state.unique = olds[size] == Boolean.TRUE;
+               state.beginning = ints[size];
+               break;
+         }
+         targets[size] = null;
+         keys[size] = null;
+         olds[size] = null;
       }
-      return result;
-   } // end clone
-
-   public ASDPhraseNode phraseStructure;
-      // the first (dummy) node in the current phrase structure
-   public ASDPhraseNode currentNode;
-      // the current node at top level in the phrase structure
-   public ArrayList currentChoices;
-      // the choices for next advance of the parse
-   public int beginning;
-      // the index of the first node in the current subphrase
-      // (origin 1)
-   public HashMap features;
-      // the feature-value pairs for the current top-level
-      // subphrase
-   public boolean unique;
-      // indicates whether or not the current top-level
-      // subphrase is, so far, uniquely parsed
-   public ASDSubphraseStack subphraseStack;
-      // stacks the beginning indices for all currently
-      // incomplete subphrases
-   public ASDPhraseNode nextNodeSubphrase;
-      // link to subphrase of next node after current one
-      // (if any), to detect possible cases of permanent
-      // final advance after the current node
-   public char advanceCase;
-      // the kind of advance about to be applied after the
-      // current parse state is put on the backup stack:
-      // ASDParser.INITIAL, .FINAL, .DUMMY, or .NONDUMMY
-} // end class ASDParseState
+   } // end undo
+
+   /**
+      Discards all of the changes recorded, keeping the arrays for
+      reuse.
+    */
+   void clear()
+   {  Arrays.fill(targets, 0, size, null);
+      Arrays.fill(keys, 0, size, null);
+      Arrays.fill(olds, 0, size, null);
+      size = 0;
+   }
+
+   /**
+      Makes room for one more change of a given kind, and returns
+      its index.
+    */
+   private int add(byte kind)
+   {  if (size == kinds.length)
+      {  kinds = Arrays.copyOf(kinds, 2 * size);
+         targets = Arrays.copyOf(targets, 2 * size);
+         keys = Arrays.copyOf(keys, 2 * size);
+         olds = Arrays.copyOf(olds, 2 * size);
+         ints = Arrays.copyOf(ints, 2 * size);
+      }
+      kinds[size] = kind;
+      return size++;
+   } // end add
+
+   /* Kinds of changes: */
+   private static final byte LINK = 0;       // next link of a node
+   private static final byte FEATURE = 1;    // value of a feature
+   private static final byte UNIQUE = 2;     // uniqueness flag
+   private static final byte SUBPHRASE = 3;  // current subphrase
+
+   private static final int INITIAL_CAPACITY = 64;
+
+   private byte[] kinds;     // the kinds of the changes
+   private Object[] targets; // the nodes or feature tables changed,
+                             // or previous feature tables
+   private Object[] keys;    // previous suspended subphrases
+   private Object[] olds;    // the previous links, values or flags
+   private int[] ints;       // serial numbers of link changes, slot
+                             // indices of features, or previous
+                             // beginnings
+   private int size = 0;     // the number of changes recorded
+   private int serial = 0;   // the serial number of the last link change
+} // end class ASDUndoTrail
 
 /**
-   Instances record choices for advancing the parse state, as triples
-      advanceType: INITIAL, DUMMY, NONDUMMY, FINAL
-      nextNode: the next ASDGrammarNode for the parser to advance to,
-         if advanceType is INITIAL, DUMMY, or NONDUMMY
-      completedType: a String representing the phrase type of the
-         completed subphrse, if advanceType is FINAL
+   Instances are views, returned by ASDParser.features, of the table
+   of feature-value pairs of a subphrase as a Map from feature names
+   to values.  Features whose values are null are not in the view.
+   Changes made through the view are made to the table as by
+   ASDParser.set, so that they are undone if the parser backs up.
  */
-class ASDParseChoice
-{  public char advanceType;
-   public ASDGrammarNode nextNode;
-   public String completedType;
-} // end class ASDParseChoice
+class ASDFeatureView extends AbstractMap<String, Object>
+{  ASDFeatureView(ASDParser givenParser, ASDFeatures givenTable)
+   {  parser = givenParser;
+      table = givenTable;
+   }
+
+   public Object get(Object key)
+   {  int slot = parser.existingFeatureSlot(key);
+      return slot < 0 ? null : table.get(slot);
+   }
+
+   public boolean containsKey(Object key) { return get(key) != null; }
+
+   public Object put(String key, Object value)
+   {  int slot = parser.featureSlot(key);
+      Object old = table.get(slot);
+      parser.set(table, slot, value);
+      return old;
+   }
+
+   public Object remove(Object key)
+   {  int slot = parser.existingFeatureSlot(key);
+      if (slot < 0) return null;
+      Object old = table.get(slot);
+      if (old != null)
+         parser.set(table, slot, null);
+      return old;
+   }
+
+   public Set<Map.Entry<String, Object>> entrySet()
+   {  return new AbstractSet<Map.Entry<String, Object>>()
+      {  public int size()
+         {  int result = 0;
+            for (int slot = 0; slot < parser.featureSlotCount(); ++slot)
+               if (table.get(slot) != null)
+                  ++result;
+            return result;
+         }
+
+         public Iterator<Map.Entry<String, Object>> iterator()
+         {  return new Iterator<Map.Entry<String, Object>>()
+            {  public boolean hasNext()
+               {  while (next < parser.featureSlotCount()
+                         && table.get(next) == null)
+                     ++next;
+                  return next < parser.featureSlotCount();
+               }
+
+               public Map.Entry<String, Object> next()
+               {  if (!hasNext()) throw new NoSuchElementException();
+                  last = next++;
+                  return new SimpleEntry<String, Object>(
+                     parser.featureName(last), table.get(last))
+                  {  public Object setValue(Object value)
+                     {  parser.set(table, parser.featureSlot(getKey()),
+                           value);
+                        return super.setValue(value);
+                     }
+                  };
+               }
+
+               public void remove()
+               {  if (last < 0) throw new IllegalStateException();
+                  parser.set(table, last, null);
+                  last = -1;
+               }
+
+               private int next = 0;   // the slot to look at next
+               private int last = -1;  // the slot last returned
+            };
+         }
+      };
+   } // end entrySet
+
+   private final ASDParser parser;
+   private final ASDFeatures table;
+} // end class ASDFeatureView
 
 /**
-   Instances are put on an ASDParser's subphraseStack, to preserve
-   information for a subphrase while its parsing is suspended to
-   parse other subphrases within it.
+   Instances are tables of the characters which delimit lexical tokens
+   for ASDParser.segment, so that it can classify each character of an
+   utterance without searching the strings of delimiters.
  */
-class ASDSubphraseStackFrame implements Cloneable
-{  public ASDSubphraseStackFrame(int begin, HashMap feat, boolean uniq)
-   {  beginning = begin;
-      features = feat;
-      unique = uniq;
-   }
-   public Object clone()
-   {  ASDSubphraseStackFrame result;
-      try
-      {  result = (ASDSubphraseStackFrame) super.clone();
-         result.beginning = beginning;
-         result.features = (HashMap)features.clone();
-         result.unique = unique;
-      } catch (CloneNotSupportedException e)
-      { // This shouldn't happen.
-         result = null;
+class ASDDelimiterTable
+{  ASDDelimiterTable(String delimiters)
+   {  StringBuilder others = new StringBuilder();
+      for (int j = 0; j < delimiters.length(); ++j)
+      {  char c = delimiters.charAt(j);
+         if (c < 256)
+            low[c >> 6] |= 1L << c;
+         else
+            others.append(c);
       }
-      return result;
-   } // end clone
+      high = others.toString();
+   }
+
+   boolean isDelimiter(char c)
+   {  if (c < 256)
+         return (low[c >> 6] & (1L << c)) != 0;
+      return high.length() > 0 && high.indexOf(c) >= 0;
+   }
 
-   public int beginning;
-   public HashMap features;
-   public boolean unique;
-} // end class ASDSubphraseStackFrame
+   private final long[] low = new long[4];
+      // bits for the delimiters among the first 256 characters
+   private final String high;  // the other delimiters
+} // end class ASDDelimiterTable
 
 /**
-   This class is used by the ASDSubphraseStack class below.
+   Instances build phrase structures for ASDParser.segment, from one
+   or more strings scanned in turn.  Each character which is a
+   delimiter is a token by itself, whitespace excepted, and each
+   maximal run of other characters is a token.  The tokens are found
+   as spans of the strings; a word which is in the grammar is
+   represented by the grammar's own String for it, so a new String is
+   made only for one which is not.
  */
-class ASDSubphraseStackNode implements Cloneable
-{  ASDSubphraseStackNode(ASDSubphraseStackFrame givenContent,
-         ASDSubphraseStackNode givenLink)
-   {  content = givenContent;
-      link = givenLink;
-   }
-   public Object clone()
-   {  ASDSubphraseStackNode result;
-      try
-      {  result = (ASDSubphraseStackNode) super.clone();
-         result.content = (ASDSubphraseStackFrame) content.clone();
-         if (link != null)
-            result.link = (ASDSubphraseStackNode) link.clone();
-               //all the way down, recursively
+class ASDSegmenter
+{  ASDSegmenter(ASDParser givenParser, ASDDelimiterTable givenTable)
+   {  parser = givenParser;
+      table = givenTable;
+      compiled = givenParser.compiled();
+      openQuote = givenParser.OPENQUOTE;
+      closeQuote = givenParser.CLOSEQUOTE;
+      header = givenParser.pool().phraseNode();
+      header.setWord("nil");
+      lastNode = header;
+   }
+
+   /**
+      Returns the first (dummy) node of the phrase structure built
+      so far.
+    */
+   ASDPhraseNode phraseStructure() { return header; }
+
+   /**
+      Scans a string for tokens, appending them to the phrase structure.
+    */
+   void scan(String s)
+   {  int length = s.length();
+      int position = 0;
+      while (position < length)
+      {  // Find the span of the next token:
+         int start = position;
+         if (table.isDelimiter(s.charAt(position)))
+            ++position;
+         else
+            do ++position;
+            while (position < length && !table.isDelimiter(s.charAt(position)));
+         int end = position;
+         // Trim it as String.trim() would:
+         while (start < end && s.charAt(start) <= ' ') ++start;
+         while (end > start && s.charAt(end - 1) <= ' ') --end;
+
+         if (start == end)  // whitespace
+            space();
+         else if (quotedString != null) // inside a quoted string
+         {  lastWasSpace = false;
+            quotedString.append(s, start, end);
+            if (spanEquals(s, start, end, closeQuote))
+            {  // end of the quoted string
+               String quoted = quotedString.toString();
+               quotedString = null;
+               append(quoted, compiled.wordIndex(quoted));
+            }
+         }
+         else if (spanEquals(s, start, end, openQuote))
+         {  // starting a quoted string
+            quotedString = new StringBuilder(openQuote);
+            lastWasSpace = false;
+         }
          else
-            result.link = null;
-      } catch (CloneNotSupportedException e)
-      { // This shouldn't happen.
-         result = null;
+         {  if (end == position && position < length - 1
+                && s.charAt(position) == '.' && parser.decimalIndex() >= 0
+                && ASDParser.digitsEnd(s, start, end) == end)
+            {  // digits and a decimal point: include the digits after it
+               int after = ASDParser.digitsEnd(s, position + 1, length);
+               if (after > position + 1 && (after == length
+                   || table.isDelimiter(s.charAt(after))))
+                  end = position = after;
+            }
+            word(s, start, end);
+         }
       }
-      return result;
-   } // end clone
+   } // end scan
+
+   /**
+      Appends the node for a token which is not in a quoted string,
+      classifying it for lookup in the lexicon.  If the token is not in
+      the grammar, it is looked up again in lower case if the parser
+      folds case, and digits followed by one of the parser's ordinal
+      suffixes become two tokens.
+    */
+   private void word(String s, int start, int end)
+   {  int index = compiled.wordIndex(s, start, end);
+      if (index < 0 && parser.foldsCase())
+         index = compiled.wordIndex(s.substring(start, end).toLowerCase());
+      if (index < 0)
+      {  int digits = ASDParser.digitsEnd(s, start, end);
+         if (digits > start && digits < end)
+         {  int suffix = parser.ordinalSuffixIndex(s, digits, end);
+            if (suffix >= 0)
+            {  word(s, start, digits);
+               append(compiled.word(suffix), suffix);
+               return;
+            }
+         }
+      }
+      append(index >= 0 ? compiled.word(index) : s.substring(start, end),
+         index);
+   } // end word
+
+   /**
+      Accounts for whitespace between tokens: inside a quoted string
+      a run of whitespace becomes one space; elsewhere it is ignored.
+    */
+   void space()
+   {  if (quotedString != null && !lastWasSpace)
+         quotedString.append(' ');
+      lastWasSpace = true;
+   }
+
+   private void append(String word, int wordIndex)
+   {  ASDPhraseNode newNode = parser.pool().phraseNode();
+      newNode.setWord(word, wordIndex);
+      newNode.lexiconIndex = parser.lexiconIndex(word, wordIndex);
+      lastNode.setNextNode(newNode);
+      lastNode = newNode;
+   }
+
+   /**
+      Indicates whether or not a given span of a string is equal
+      to a given string.
+    */
+   private static boolean spanEquals(String s, int start, int end,
+      String other)
+   {  return other.length() == end - start
+         && other.regionMatches(0, s, start, end - start);
+   }
 
-   ASDSubphraseStackFrame content = null;
-   ASDSubphraseStackNode link = null;
-}  // end class ASDSubphraseStackNode
+   private final ASDParser parser;
+   private final ASDDelimiterTable table;
+   private final ASDCompiledGrammar compiled;
+   private final String openQuote, closeQuote;
+   private final ASDPhraseNode header;  // the dummy header node
+   private ASDPhraseNode lastNode;      // the last node so far
+   private StringBuilder quotedString = null;
+      // the quoted string so far, if inside one
+   private boolean lastWasSpace = false;
+      // indicates whether or not whitespace was the last token
+} // end class ASDSegmenter
 
 /**
-   Instances are stacks which are deeply cloneable, in that
-   all of the items in the stack are cloned when the stack is cloned.
+   Instances are the sources of the Streams returned by
+   ASDParser.parses.  Each element is found by running the parser's
+   advance() and backup() loop, as parse(int maxSteps) does, when
+   it is requested, and each attempt to find one is reported to
+   parseBegun and parseEnded, so that it is recorded in the parser's
+   metrics and emitted as an asd.ParseEnd event.
  */
-class ASDSubphraseStack implements Cloneable
-{  public Object clone()
-   {  ASDSubphraseStack result;
-      try
-      {  result = (ASDSubphraseStack) super.clone();
-         if (top != null)
-            // Cloning the top node clones the others recursively.
-            // See class StackNode.
-            result.top = (ASDSubphraseStackNode) top.clone();
-      } catch (CloneNotSupportedException e)
-      { // This shouldn't happen.
-         result = null;
-      }
-      return result;
-   } // end clone
-
-   boolean isEmpty()
-   {  return top == null;
+class ASDParseSpliterator implements Spliterator<ASDParseResult>
+{  ASDParseSpliterator(ASDParser givenParser, int maxSteps, long deadline)
+   {  parser = givenParser;
+      stepsLeft = maxSteps;
+      deadlineNanos = deadline;
    }
 
-   Object pop()
-   {  Object result = null;
-      if (top != null)
-      {  result = top.content;
-         top = (ASDSubphraseStackNode)top.link;
+   public boolean tryAdvance(Consumer<? super ASDParseResult> action)
+   {  if (finished) return false;
+      int steps = 0;
+      String advanceResult; // SUCCEED, NOADVANCE, or QUIT
+      int status = ASDParseOutcome.STEP_LIMIT;
+      long start = parser.parseBegun(deadlineNanos, null);
+      while (stepsLeft > 0)
+      {  if (deadlineNanos != 0 && System.nanoTime() - deadlineNanos >= 0)
+         {  status = ASDParseOutcome.TIMED_OUT;
+            break;
+         }
+         --stepsLeft;
+         ++steps;
+         advanceResult = parser.advance();
+         int searched = parser.takeSearchSteps();
+         steps += searched;
+         stepsLeft -= searched;
+         if (advanceResult == parser.QUIT)
+         {  status = ASDParseOutcome.QUIT;
+            break;
+         }
+         else if (advanceResult == parser.SUCCEED)
+         {  if (parser.done())
+            {  parser.parseEnded(start, ASDParseOutcome.SUCCEEDED, steps);
+               ASDPhraseNode top = parser.phraseStructure().nextNode();
+               action.accept(new ASDParseResult(parser.bracketPhrase(),
+                  top.word(), top.value(), steps, count++));
+               return true;
+            }
+         }
+         else if (!parser.backup()) // NOADVANCE
+         {  status = ASDParseOutcome.EXHAUSTED;
+            break;
+         }
       }
-      return result;
+      parser.parseEnded(start, status, steps);
+      finished = true;
+      return false;
+   } // end tryAdvance
+
+   public Spliterator<ASDParseResult> trySplit()
+   {  return null;  // the search is inherently sequential
    }
 
-   void push(ASDSubphraseStackFrame item)
-   {  ASDSubphraseStackNode newTop
-         = new ASDSubphraseStackNode(item, top);
-      top = newTop;
+   public long estimateSize() { return Long.MAX_VALUE; }
+
+   public int characteristics()
+   {  return ORDERED | NONNULL | IMMUTABLE;
    }
 
-   ASDSubphraseStackNode top = null;
-} // end class ASDSubphraseStack
+   private final ASDParser parser;
+   private int stepsLeft;        // advance steps left in the budget
+   private final long deadlineNanos;
+      // System.nanoTime() at which to stop; 0 if none
+   private int count = 0;        // the number of parses found so far
+   private boolean finished = false;
+      // indicates whether the search has ended
+} // end class ASDParseSpliterator
@@ -0,0 +1,171 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import javax.management.*;
+
+/**
+   Instances aggregate metrics of the work of any number of ASDParsers,
+   in any number of threads, for the operation of the applications
+   which use them, and make them available through JMX.
+   <BR><BR>
+   A parser given an instance by ASDParser.setMetrics records each
+   attempt to find the next parse of an utterance, whether by one of
+   the parse methods or by an application which advances and backs
+   up the parser itself and calls parseBegun and parseEnded.  The
+   metrics are kept separately for each grammar name, given with the
+   instance to the parser, and list of expected phrase types.  For
+   each they include histograms of the time taken by the attempts,
+   in microseconds, and of their numbers of advance steps and backups,
+   the number of attempts with each ASDParseOutcome status, including
+   those that timed out, and the numbers of lookups of the parses of
+   whole utterances in a cache which found them or did not.
+   <BR><BR>
+   An instance also holds a step budget, which can be changed through
+   JMX, for applications that use it to limit the steps of each
+   attempt.  The instance can be registered with the platform
+   MBeanServer by register.
+   @version 1.00 2026 Oct
+ */
+public class ASDParserMetrics implements ASDParserMetricsMBean
+{
+   /**
+      Registers the instance with the platform MBeanServer, with the
+      object name asd:type=ASDParserMetrics,name=(a given name).
+      @param name the name, which distinguishes the instance from
+      others registered
+      @return the object name
+    */
+   public ObjectName register(String name) throws JMException
+   {  ObjectName objectName = new ObjectName(
+         "asd:type=ASDParserMetrics,name=" + ObjectName.quote(name));
+      ManagementFactory.getPlatformMBeanServer().registerMBean(
+         this, objectName);
+      return objectName;
+   } // end register
+
+   /**
+      Returns the entry in which the metrics for a given grammar name
+      and list of expected phrase types are kept, making one if there
+      is none.
+    */
+   synchronized ASDMetricsEntry entry(String grammarName, List<?> expected)
+   {  StringBuilder key = new StringBuilder(grammarName).append(" [");
+      for (int j = 0; j < expected.size(); ++j)
+      {  if (j > 0) key.append(' ');
+         key.append(expected.get(j));
+      }
+      String k = key.append(']').toString();
+      ASDMetricsEntry result = entries.get(k);
+      if (result == null)
+      {  result = new ASDMetricsEntry();
+         entries.put(k, result);
+      }
+      return result;
+   } // end entry
+
+   /**
+      Records a lookup of the parses of an utterance in a cache.
+      @param grammarName the name of the grammar
+      @param expected the list of the names of the expected phrase types
+      @param hit whether or not the parses were found
+    */
+   public void recordCacheLookup(String grammarName, List<?> expected,
+      boolean hit)
+   {  entry(grammarName, expected).recordCacheLookup(hit);
+   }
+
+   public synchronized String[] getKeys()
+   {  return entries.keySet().toArray(new String[0]);
+   }
+
+   public synchronized String[] getReport()
+   {  String[] result = new String[entries.size()];
+      int j = 0;
+      for (Map.Entry<String, ASDMetricsEntry> e : entries.entrySet())
+         result[j++] = e.getKey() + ": " + e.getValue();
+      return result;
+   } // end getReport
+
+   public synchronized long getAttempts()
+   {  long result = 0;
+      for (ASDMetricsEntry e : entries.values())
+         result += e.attempts();
+      return result;
+   }
+
+   public synchronized long getTimeouts()
+   {  long result = 0;
+      for (ASDMetricsEntry e : entries.values())
+         result += e.outcomes(ASDParseOutcome.TIMED_OUT);
+      return result;
+   }
+
+   public synchronized double getCacheHitRate()
+   {  long hits = 0, lookups = 0;
+      for (ASDMetricsEntry e : entries.values())
+      {  hits += e.cacheHits();
+         lookups += e.cacheLookups();
+      }
+      return lookups == 0 ? 0 : (double) hits / lookups;
+   } // end getCacheHitRate
+
+   public int getStepBudget() { return stepBudget; }
+
+   public void setStepBudget(int steps)
+   {  if (steps < 0)
+         throw new IllegalArgumentException(
+            "Step budget must not be negative");
+      stepBudget = steps;
+   }
+
+   public long percentile(String key, String distribution,
+      double percentile)
+   {  ASDMetricsEntry e;
+      synchronized (this)
+      {  e = entries.get(key);
+      }
+      return e == null ? -1 : e.percentile(distribution, percentile);
+   }
+
+   /**
+      Discards all of the metrics recorded, keeping the entries, which
+      parsers may still be using.
+    */
+   public synchronized void reset()
+   {  for (ASDMetricsEntry e : entries.values())
+         e.reset();
+   }
+
+   /**
+      Returns the report, one line for each key.
+    */
+   public String toString()
+   {  String[] report = getReport();
+      StringBuilder result = new StringBuilder("ASDParserMetrics:");
+      for (int j = 0; j < report.length; ++j)
+         result.append("\n  ").append(report[j]);
+      return result.toString();
+   } // end toString
+
+   private final TreeMap<String, ASDMetricsEntry> entries
+      = new TreeMap<String, ASDMetricsEntry>();
+   private volatile int stepBudget = 0;
+} // end class ASDParserMetrics
@@ -0,0 +1,88 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+
+/**
+   The management interface of ASDParserMetrics, by which the metrics
+   can be read and the parsers which record them controlled through
+   JMX, as with jconsole.
+   @version 1.00 2026 Oct
+ */
+public interface ASDParserMetricsMBean
+{
+   /**
+      Returns the keys of the metrics: the name of a grammar followed
+      by the expected phrase types in brackets, one for each
+      combination for which attempts to parse have been recorded.
+    */
+   String[] getKeys();
+
+   /**
+      Returns one line for each key, describing the attempts to parse
+      recorded for it.
+    */
+   String[] getReport();
+
+   /**
+      Returns the total number of attempts to find a parse recorded.
+    */
+   long getAttempts();
+
+   /**
+      Returns the total number of attempts which timed out.
+    */
+   long getTimeouts();
+
+   /**
+      Returns the fraction of the lookups of a parse cache which found
+      the parses of an utterance; 0 if there have been none.
+    */
+   double getCacheHitRate();
+
+   /**
+      Returns the maximum number of advance steps which the parsers
+      recording the metrics are to permit for each attempt to find a
+      parse; 0 if each uses its own default.
+    */
+   int getStepBudget();
+
+   /**
+      Sets the maximum number of advance steps which the parsers
+      recording the metrics are to permit for each attempt to find a
+      parse; 0 for each to use its own default.
+    */
+   void setStepBudget(int steps);
+
+   /**
+      Returns a given percentile of one of the distributions recorded
+      for a given key.
+      @param key one of the keys returned by getKeys
+      @param distribution "latency", in microseconds, "steps" or
+      "backups"
+      @param percentile the percentile, from 0 to 100
+      @return the percentile; -1 if there is no such key or
+      distribution
+    */
+   long percentile(String key, String distribution, double percentile);
+
+   /**
+      Discards all of the metrics recorded.
+    */
+   void reset();
+} // end interface ASDParserMetricsMBean
@@ -0,0 +1,146 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+   Instances hold, for an ASDParser, objects made during its parses
+   that can be reused instead of being left for the garbage collector.
+   Lists of choices and choice points are returned as soon as the
+   parse is done with them.  Phrase nodes and feature tables are
+   handed out from an arena, and all of them are returned at once by
+   releaseAll, when ASDParser.reset says that the application is done
+   with the parse.  At most a fixed number of each kind of object is
+   kept, so that an unusually long parse does not leave the parser
+   holding a great deal of memory; any more are made as needed and
+   left for the garbage collector.
+   @version 1.00 2026 Oct
+ */
+class ASDParserPool
+{  /**
+      Returns an empty list for choices for advancing.
+    */
+   ArrayList<ASDParseChoice> choiceList()
+   {  int n = freeLists.size();
+      if (n == 0)
+         return new ArrayList<ASDParseChoice>(10);
+      return freeLists.remove(n - 1);
+   }
+
+   /**
+      Returns a list of choices, which must no longer be used
+      by the parse.
+    */
+   void release(ArrayList<ASDParseChoice> list)
+   {  if (freeLists.size() == MAX_FREE) return;
+      list.clear();
+      freeLists.add(list);
+   } // end release(ArrayList)
+
+   /**
+      Returns a choice point holding the fields of a given parse state.
+    */
+   ASDChoicePoint choicePoint(ASDParseState state, int mark)
+   {  ASDChoicePoint result;
+      if (freePointCount == 0)
+         result = new ASDChoicePoint();
+      else
+      {  result = freePoints[--freePointCount];
+         freePoints[freePointCount] = null;
+      }
+      result.save(state, mark);
+      return result;
+   } // end choicePoint
+
+   /**
+      Returns a choice point which has been popped from the backup stack.
+    */
+   void release(ASDChoicePoint point)
+   {  if (freePointCount == freePoints.length)
+      {  if (freePointCount == MAX_FREE) return;
+         freePoints = Arrays.copyOf(freePoints, 2 * freePointCount);
+      }
+      point.currentNode = null;
+      point.currentChoices = null;
+      point.nextNodeSubphrase = null;
+      freePoints[freePointCount++] = point;
+   } // end release(ASDChoicePoint)
+
+   /**
+      Returns a new or cleared phrase node.
+    */
+   ASDPhraseNode phraseNode()
+   {  if (nodesInUse < nodeCount)
+         return nodes[nodesInUse++];
+      ASDPhraseNode result = new ASDPhraseNode();
+      if (nodeCount < MAX_ARENA)
+      {  if (nodeCount == nodes.length)
+            nodes = Arrays.copyOf(nodes, 2 * nodeCount);
+         nodes[nodeCount++] = result;
+         nodesInUse = nodeCount;
+      }
+      return result;
+   } // end phraseNode
+
+   /**
+      Returns a new or cleared feature table.
+    */
+   ASDFeatures featureTable()
+   {  if (tablesInUse < tableCount)
+         return tables[tablesInUse++];
+      ASDFeatures result = new ASDFeatures();
+      if (tableCount < MAX_ARENA)
+      {  if (tableCount == tables.length)
+            tables = Arrays.copyOf(tables, 2 * tableCount);
+         tables[tableCount++] = result;
+         tablesInUse = tableCount;
+      }
+      return result;
+   } // end featureTable
+
+   /**
+      Clears all of the phrase nodes and feature tables handed out,
+      for reuse.
+    */
+   void releaseAll()
+   {  for (int j = 0; j < nodesInUse; ++j)
+         nodes[j].clear();
+      nodesInUse = 0;
+      for (int j = 0; j < tablesInUse; ++j)
+         tables[j].clear();
+      tablesInUse = 0;
+   } // end releaseAll
+
+   private static final int MAX_FREE = 1024;
+      // the most lists or choice points kept for reuse
+   private static final int MAX_ARENA = 8192;
+      // the most phrase nodes or feature tables kept for reuse
+
+   private final ArrayList<ArrayList<ASDParseChoice>> freeLists
+      = new ArrayList<ArrayList<ASDParseChoice>>(16);
+   private ASDChoicePoint[] freePoints = new ASDChoicePoint[16];
+   private int freePointCount = 0;
+   private ASDPhraseNode[] nodes = new ASDPhraseNode[64];
+   private int nodeCount = 0;   // the number of nodes in the arena
+   private int nodesInUse = 0;  // the number handed out since releaseAll
+   private ASDFeatures[] tables = new ASDFeatures[16];
+   private int tableCount = 0;  // the number of tables in the arena
+   private int tablesInUse = 0; // the number handed out since releaseAll
+} // end class ASDParserPool
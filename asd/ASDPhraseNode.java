@@ -97,7 +97,53 @@ public class ASDPhraseNode implements Cloneable
       Sets the vocabulary element in the ASDPhraseNode.
       @param newWord the new vocabulary element
     */
-   void setWord(String newWord) { nodeWord = newWord; }
+   void setWord(String newWord)
+   {  nodeWord = newWord;
+      wordIndex = -1;
+      lexiconIndex = UNCLASSIFIED;
+   }
+
+   /**
+      Sets the vocabulary element in the ASDPhraseNode, together with
+      its word index in the ASDCompiledGrammar being used.
+      @param newWord the new vocabulary element
+      @param newIndex the word index of newWord; -1 if none
+    */
+   void setWord(String newWord, int newIndex)
+   {  nodeWord = newWord;
+      wordIndex = newIndex;
+      lexiconIndex = UNCLASSIFIED;
+   }
+
+   /**
+      Makes the ASDPhraseNode a copy of another one, as clone() would.
+      @param other the node to be copied
+    */
+   void copy(ASDPhraseNode other)
+   {  nodeWord = other.nodeWord;
+      nodeInstance = other.nodeInstance;
+      nodeNext = other.nodeNext;
+      nodeSubphrase = other.nodeSubphrase;
+      nodeValue = other.nodeValue;
+      wordIndex = other.wordIndex;
+      lexiconIndex = other.lexiconIndex;
+      pinnedThrough = other.pinnedThrough;
+   }
+
+   /**
+      Restores the ASDPhraseNode to the state of a new one, so that
+      it can be reused.
+    */
+   void clear()
+   {  nodeWord = "";
+      nodeInstance = null;
+      nodeNext = null;
+      nodeSubphrase = null;
+      nodeValue = null;
+      wordIndex = -1;
+      lexiconIndex = UNCLASSIFIED;
+      pinnedThrough = 0;
+   }
 
    // Clone method:
 
@@ -163,4 +209,16 @@ public class ASDPhraseNode implements Cloneable
       // null if there is no subphrase
    private Object nodeValue;
       // the semantic value computed for the node;
+   int wordIndex = -1;
+      // the word index of nodeWord in the ASDCompiledGrammar used by
+      // the ASDParser; -1 if the word is not in the grammar
+   int lexiconIndex = UNCLASSIFIED;
+      // the word index of the lexicon entry for the node: that of
+      // nodeWord if it has instances in the grammar, or else that of
+      // NUMBER, STRING, UNKNOWN or another stand-in, as classified by
+      // the ASDParser; UNCLASSIFIED if not yet classified
+   static final int UNCLASSIFIED = -2;
+   int pinnedThrough = 0;
+      // the serial number of the last change to the node's next link,
+      // on an ASDParser's undo trail, that must not be undone
 }  // end class ASDPhraseNode
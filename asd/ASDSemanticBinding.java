@@ -0,0 +1,333 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import java.lang.invoke.*;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+   Instances hold the semantic action and semantic value strings of
+   the nodes of a compiled grammar, resolved once against the public
+   methods of a class of semantics objects, so that a parser can
+   evaluate them without looking the methods up by name at every step.
+   <BR><BR>
+   The strings are interpreted as ASDParser.semanticAction and
+   ASDParser.semanticValue interpret them: an action names a public
+   method with no parameters that returns a String; a value is an
+   integer number, which becomes a Long constant, a string surrounded
+   by double quotes, which becomes the String between them, or the
+   name of a public method with no parameters.  Each method is invoked
+   through an instance of a functional interface generated for it by
+   the LambdaMetafactory, or through a MethodHandle if that cannot be
+   done, unless an ASDSemanticDispatcher is given, in which case the
+   methods are invoked through it and no reflection is used.  The names
+   which are not those of suitable methods are reported when the binding
+   is made, and they evaluate to null.
+   <BR><BR>
+   Instances are immutable once made, so one can be shared by all of
+   the parsers that use the same compiled grammar; they are obtained
+   from ASDCompiledGrammar.semanticBinding.
+   @version 1.00 2026 Oct
+ */
+public class ASDSemanticBinding
+{
+   /**
+      Resolves the semantic action and value strings of all of the
+      nodes of a compiled grammar against the methods of a given class,
+      reporting to System.out those that cannot be resolved.
+      @param grammar the compiled grammar
+      @param givenTargetClass the class of the semantics objects
+      @param givenDispatcher the dispatcher for the class; null to
+      resolve the names by reflection
+    */
+   ASDSemanticBinding(ASDCompiledGrammar grammar, Class<?> givenTargetClass,
+      ASDSemanticDispatcher givenDispatcher)
+   {  targetClass = givenTargetClass;
+      dispatcher = givenDispatcher;
+      int n = grammar.nodeCount();
+      actions = new ASDSemanticMethod[n];
+      valueMethods = new ASDSemanticMethod[n];
+      valueConstants = new Object[n];
+      HashMap<Method, ASDSemanticMethod> invokers
+         = new HashMap<Method, ASDSemanticMethod>();
+      for (int g = 0; g < n; ++g)
+      {  ASDGrammarNode node = grammar.node(g);
+         String action = node.semanticAction();
+         if (action != null && action.length() > 0)
+            actions[g] = resolve(action, true, invokers);
+         String value = node.semanticValue();
+         if (value == null || value.length() == 0)
+            valueConstants[g] = value;
+         else if (isInteger(value))
+            valueConstants[g] = Long.valueOf(value);
+         else if (isQuoted(value))
+            valueConstants[g] = value.substring(1, value.length()-1);
+         else
+            valueMethods[g] = resolve(value, false, invokers);
+      }
+      for (String message : unresolved)
+         System.out.println(message);
+   } // end ASDSemanticBinding
+
+   /**
+      Evaluates the semantic action of a given grammar node for a
+      given semantics object.
+      @param node a node of the compiled grammar, with a non-empty
+      semantic action
+      @param target an instance of the target class
+      @return the String returned by the method; null if the method
+      could not be resolved or threw an exception
+    */
+   String action(ASDGrammarNode node, Object target)
+   {  return (String) invoke(actions[node.index], node.semanticAction(),
+         target);
+   }
+
+   /**
+      Evaluates the semantic value of a given grammar node for a
+      given semantics object.
+      @param node a node of the compiled grammar
+      @param target an instance of the target class
+      @return the constant value of the node, or the Object returned
+      by the method it names; null if the method could not be resolved
+      or threw an exception
+    */
+   Object value(ASDGrammarNode node, Object target)
+   {  ASDSemanticMethod m = valueMethods[node.index];
+      if (m == null)
+         return valueConstants[node.index];
+      return invoke(m, node.semanticValue(), target);
+   }
+
+   /**
+      Returns the class against whose methods the strings were resolved.
+    */
+   public Class<?> targetClass() { return targetClass; }
+
+   /**
+      Returns the messages, one for each semantic action or value name
+      that could not be resolved to a suitable method; empty if there
+      are none.
+    */
+   public List<String> unresolvedNames()
+   {  return Collections.unmodifiableList(unresolved);
+   }
+
+   private static Object invoke(ASDSemanticMethod m, String name,
+      Object target)
+   {  if (m == null) return null;  // reported when the binding was made
+      try
+      {  return m.invoke(target);
+      }
+      catch(Exception e)
+      {  System.out.println(
+            "Exception invoking method \"" + name + "\": " + e);
+         return null;
+      }
+   } // end invoke
+
+   /**
+      Indicates whether or not a non-empty semantic value string
+      stands for a constant rather than naming a method.
+    */
+   static boolean isConstant(String value)
+   {  return isInteger(value) || isQuoted(value);
+   }
+
+   /**
+      Indicates whether or not a given string is an integer number
+      that Long.parseLong accepts.
+    */
+   private static boolean isInteger(String s)
+   {  int start = (s.charAt(0) == '-' || s.charAt(0) == '+') ? 1 : 0;
+      if (start == s.length()) return false;
+      for (int j = start; j < s.length(); ++j)
+         if (Character.digit(s.charAt(j), 10) < 0) return false;
+      try  // it may still be too long
+      {  Long.parseLong(s);
+      }
+      catch(NumberFormatException e)
+      {  return false;
+      }
+      return true;
+   } // end isInteger
+
+   /**
+      Indicates whether or not a given string has double quotes around it.
+    */
+   private static boolean isQuoted(String s)
+   {  return s.length() >= 2 && s.charAt(0) == '"'
+         && s.charAt(s.length()-1) == '"';
+   }
+
+   /**
+      Returns the invoker for the method of the target class named by
+      a given semantic action or value string, reusing the one already
+      made for the same method if there is one.
+      @param name the method name
+      @param isAction true for a semantic action, which must return
+      a String
+      @param invokers maps each Method already resolved to its invoker
+      @return the invoker; null if the name cannot be resolved
+    */
+   private ASDSemanticMethod resolve(String name, boolean isAction,
+      HashMap<Method, ASDSemanticMethod> invokers)
+   {  if (dispatcher != null)
+      {  int index = isAction ? dispatcher.actionIndex(name)
+                              : dispatcher.valueIndex(name);
+         if (index < 0)
+            return unresolved("No dispatcher case found for " + name);
+         return new ASDDispatchedMethod(dispatcher, index, isAction);
+      }
+      Method m = null;
+      try
+      {  m = targetClass.getMethod(name);
+      }
+      catch(NoSuchMethodException e)
+      {  return unresolved("No such method found: " + name);
+      }
+      Class<?> returnType = m.getReturnType();
+      if (isAction && returnType != String.class && returnType != void.class)
+         return unresolved("Semantic action method " + name
+            + " does not return a String");
+      ASDSemanticMethod result = invokers.get(m);
+      if (result == null)
+      {  try
+         {  result = invoker(m);
+         }
+         catch(IllegalAccessException e)
+         {  return unresolved("IllegalAccessException binding method "
+               + name);
+         }
+         invokers.put(m, result);
+      }
+      return result;
+   } // end resolve
+
+   /**
+      Records a message for a name that cannot be resolved, unless it
+      has been recorded already.
+      @return null
+    */
+   private ASDSemanticMethod unresolved(String message)
+   {  if (!unresolved.contains(message))
+         unresolved.add(message);
+      return null;
+   }
+
+   /**
+      Makes an invoker for a given public method with no parameters:
+      an instance of ASDSemanticMethod generated by the
+      LambdaMetafactory if the method is an instance method that
+      returns an object, or one that calls a MethodHandle otherwise.
+    */
+   private static ASDSemanticMethod invoker(Method m)
+      throws IllegalAccessException
+   {  MethodHandle handle = LOOKUP.unreflect(m);
+      boolean isStatic = Modifier.isStatic(m.getModifiers());
+      if (!isStatic && !m.getReturnType().isPrimitive())
+         try
+         {  CallSite site = LambdaMetafactory.metafactory(LOOKUP,
+               "invoke", MethodType.methodType(ASDSemanticMethod.class),
+               MethodType.methodType(Object.class, Object.class), handle,
+               handle.type());
+            return (ASDSemanticMethod) site.getTarget().invoke();
+         }
+         catch(Throwable e)
+         {  // fall through to use the MethodHandle
+         }
+      if (isStatic)
+         handle = MethodHandles.dropArguments(handle, 0, Object.class);
+      return new ASDSemanticHandle(
+         handle.asType(MethodType.methodType(Object.class, Object.class)));
+   } // end invoker
+
+   private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+   private final Class<?> targetClass;
+      // the class of the semantics objects
+   private final ASDSemanticDispatcher dispatcher;
+      // the dispatcher for targetClass; null if reflection is used
+   private final ASDSemanticMethod[] actions;
+      // node index -> invoker for its semantic action; null if none
+   private final ASDSemanticMethod[] valueMethods;
+      // node index -> invoker for its semantic value; null if none
+   private final Object[] valueConstants;
+      // node index -> its semantic value, if it is not a method name
+   private final ArrayList<String> unresolved = new ArrayList<String>();
+      // messages for the names that could not be resolved
+} // end class ASDSemanticBinding
+
+/**
+   Instances invoke a public method with no parameters of a given
+   semantics object.
+ */
+interface ASDSemanticMethod
+{  Object invoke(Object target) throws Exception;
+} // end interface ASDSemanticMethod
+
+/**
+   Instances invoke a semantic action or value method through an
+   ASDSemanticDispatcher, by its case index.
+ */
+class ASDDispatchedMethod implements ASDSemanticMethod
+{  ASDDispatchedMethod(ASDSemanticDispatcher givenDispatcher,
+      int givenIndex, boolean givenIsAction)
+   {  dispatcher = givenDispatcher;
+      index = givenIndex;
+      isAction = givenIsAction;
+   }
+
+   public Object invoke(Object target)
+   {  return isAction ? dispatcher.action(index, target)
+                      : dispatcher.value(index, target);
+   }
+
+   private final ASDSemanticDispatcher dispatcher;
+   private final int index;
+   private final boolean isAction;
+} // end class ASDDispatchedMethod
+
+/**
+   Instances invoke a method through a MethodHandle, for methods for
+   which the LambdaMetafactory cannot be used.
+ */
+class ASDSemanticHandle implements ASDSemanticMethod
+{  ASDSemanticHandle(MethodHandle givenHandle)
+   {  handle = givenHandle;
+   }
+
+   public Object invoke(Object target) throws Exception
+   {  try
+      {  return handle.invokeExact(target);
+      }
+      catch(Exception e)
+      {  throw e;
+      }
+      catch(Error e)
+      {  throw e;
+      }
+      catch(Throwable e)  // shouldn't happen
+      {  throw new RuntimeException(e);
+      }
+   }
+
+   private final MethodHandle handle;  // of type (Object)Object
+} // end class ASDSemanticHandle
@@ -0,0 +1,63 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+
+/**
+   Interface to an object that evaluates the semantic action and
+   semantic value strings of a grammar for a class of semantics objects
+   by direct calls rather than by reflection.  Each string that names a
+   method is given a case index when the grammar is bound, and the
+   parser then dispatches on the index.  Implementations are normally
+   generated from the grammar files by ASDDispatcherGenerator.
+   @version 1.00 2026 Oct
+ */
+public interface ASDSemanticDispatcher
+{
+   /**
+      Returns the case index of the method named by a semantic action
+      string.
+      @param name the semantic action string
+      @return the index; -1 if there is no such case
+    */
+   public int actionIndex(String name);
+
+   /**
+      Returns the case index of the method named by a semantic value
+      string that is neither an integer nor a quoted string.
+      @param name the semantic value string
+      @return the index; -1 if there is no such case
+    */
+   public int valueIndex(String name);
+
+   /**
+      Invokes the semantic action with a given case index.
+      @param index a value returned by actionIndex
+      @param target the semantics object
+      @return the String returned by the action
+    */
+   public String action(int index, Object target);
+
+   /**
+      Computes the semantic value with a given case index.
+      @param index a value returned by valueIndex
+      @param target the semantics object
+      @return the value computed
+    */
+   public Object value(int index, Object target);
+}
@@ -0,0 +1,138 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+   Instances are ASDValueEquivalences by which two values are
+   interchangeable if they are of the same class and, unless the class
+   overrides equals, in which case they are compared with equals, all
+   of their non-static member variables are equivalent in turn (and,
+   for arrays, all of their elements), so that an ASDChartParser can
+   merge semantic values computed separately whose classes, such as
+   the subclasses of semanticvalues.SemanticValue, do not define
+   equality of their own.  The values must not refer to themselves,
+   directly or indirectly, through member variables of classes that
+   do not override equals.
+   <BR><BR>
+   The member variables of each class are looked up, and made
+   accessible, once.  A class whose member variables cannot be made
+   accessible, such as one in a module that does not open its
+   package, is compared with equals.  Instances may be shared by any
+   number of threads.
+   @version 1.00 2026 Oct
+ */
+public class ASDStructuralEquivalence implements ASDValueEquivalence
+{  public boolean equivalent(Object value, Object otherValue)
+   {  if (value == otherValue) return true;
+      if (value == null || otherValue == null
+          || value.getClass() != otherValue.getClass())
+         return false;
+      Class<?> c = value.getClass();
+      if (c.isArray())
+      {  if (!c.getComponentType().isPrimitive())
+         {  Object[] a = (Object[]) value, b = (Object[]) otherValue;
+            if (a.length != b.length) return false;
+            for (int j = 0; j < a.length; ++j)
+               if (!equivalent(a[j], b[j])) return false;
+            return true;
+         }
+         return Objects.deepEquals(value, otherValue);
+      }
+      Field[] fields = FIELDS.get(c);
+      if (fields == null)
+         return value.equals(otherValue);
+      try
+      {  for (int j = 0; j < fields.length; ++j)
+            if (!equivalent(fields[j].get(value), fields[j].get(otherValue)))
+               return false;
+      }
+      catch(IllegalAccessException e)  // shouldn't happen
+      {  return false;
+      }
+      return true;
+   } // end equivalent
+
+   public int hash(Object value)
+   {  if (value == null) return 0;
+      Class<?> c = value.getClass();
+      if (c.isArray())
+      {  if (!c.getComponentType().isPrimitive())
+         {  int result = 1;
+            Object[] a = (Object[]) value;
+            for (int j = 0; j < a.length; ++j)
+               result = 31 * result + hash(a[j]);
+            return result;
+         }
+         return Arrays.deepHashCode(new Object[] {value});
+      }
+      Field[] fields = FIELDS.get(c);
+      if (fields == null)
+         return value.hashCode();
+      int result = c.hashCode();
+      try
+      {  for (int j = 0; j < fields.length; ++j)
+            result = 31 * result + hash(fields[j].get(value));
+      }
+      catch(IllegalAccessException e)  // shouldn't happen
+      {  }
+      return result;
+   } // end hash
+
+   /**
+      Returns the non-static member variables of a given class and its
+      superclasses, made accessible; null if the class overrides
+      equals, or if any of them cannot be made accessible.
+    */
+   private static Field[] fields(Class<?> c)
+   {  try
+      {  if (c.getMethod("equals", Object.class).getDeclaringClass()
+             != Object.class)
+            return null;
+      }
+      catch(NoSuchMethodException e)  // shouldn't happen
+      {  return null;
+      }
+      ArrayList<Field> result = new ArrayList<Field>();
+      for (Class<?> current = c; current != Object.class;
+           current = current.getSuperclass())
+      {  Field[] declared = current.getDeclaredFields();
+         for (int j = 0; j < declared.length; ++j)
+         {  if (Modifier.isStatic(declared[j].getModifiers()))
+               continue;
+            if (!declared[j].trySetAccessible())
+               return null;
+            result.add(declared[j]);
+         }
+      }
+      return result.toArray(new Field[result.size()]);
+   } // end fields
+
+   private static final ClassValue<Field[]> FIELDS = new ClassValue<Field[]>()
+      {  protected Field[] computeValue(Class<?> c)
+         {  return fields(c);
+         }
+      };
+      // the member variables of each class compared member by member;
+      // null for the other classes
+} // end class ASDStructuralEquivalence
@@ -0,0 +1,230 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/**
+   Instances are bounded caches, which may be shared by any number of
+   ASDParsers in different threads, of the subphrases that can be
+   completed from a given point in a parse, so that a parser which
+   meets the same words again, in the same or another utterance,
+   can splice the completed subphrases in by single advances instead
+   of deriving them again.
+   <BR><BR>
+   When an ASDParser that has been given a cache is about to begin a
+   subphrase by an INITIAL advance to a node of the grammar, it looks
+   up the node and the words that follow, one word, two words and so
+   on.  If no entry applies, the parser first searches for all of the
+   ways in which the subphrase can be completed, backtracking to where
+   it began, and adds them to the cache.  It then tries the completed
+   subphrases, in the order in which the search found them, as it
+   would have tried them by backtracking, each by an advance which
+   replaces the words it spans with the completed subphrase.
+   Whether the parse is strict or not, or any other state outside the
+   parser on which semantic actions and values depend, can be made part
+   of the key as a context object given to ASDParser.setSubphraseCache;
+   no features of the enclosing phrase are visible to the subphrase,
+   since each subphrase begins with a new table of features.
+   <BR><BR>
+   An entry is keyed by the words the search consumed, not by the rest
+   of the utterance, so that "far too many" and "far too few" share
+   the entries for the subphrases they have in common.  With them it
+   records the grammar nodes at which the search looked at the next
+   word without consuming it; the entry applies to another utterance
+   only if none of those nodes could consume the word which follows
+   there.  Each entry is a list of completed subphrases: the phrase
+   type, the number of words spanned, the semantic value and the
+   structure of each.  The structures are copied when they are
+   spliced, so the cache holds the only references to its own copies.
+   The semantic values are copied too, when they are stored and each
+   time they are spliced, by the value copier given to the constructor,
+   such as one which returns the deepCopy of a SemanticValue; without
+   one they are shared by every parser that uses the entry, in any
+   thread, and must not be changed by the semantics.  A search that
+   takes more than a given number of advance steps is abandoned, and
+   the parser begins the subphrase as it would without a cache.
+   Subphrases are looked up only where all of the rest of the
+   utterance is still words, not phrases, and a parser given a cache
+   does not save them permanently as uniquely parsed subphrases.  The
+   entries for the previous version of the grammar are discarded when
+   an entry is added for a new version, as by ASDParseCache.
+   @version 1.00 2026 Oct
+ */
+public class ASDSubphraseCache
+{
+   /**
+      Initializes an empty cache whose semantic values are shared by
+      the parsers that use it.
+      @param givenMaxEntries the maximum number of entries, beyond
+      which the least recently used entries are evicted
+      @param givenMaxSteps the maximum number of advance steps
+      permitted for a search for the completions of a subphrase
+    */
+   public ASDSubphraseCache(int givenMaxEntries, int givenMaxSteps)
+   {  this(givenMaxEntries, givenMaxSteps, null);
+   }
+
+   /**
+      Initializes an empty cache whose semantic values are copied by
+      a given copier when they are stored and when they are spliced.
+      @param givenMaxEntries the maximum number of entries, beyond
+      which the least recently used entries are evicted
+      @param givenMaxSteps the maximum number of advance steps
+      permitted for a search for the completions of a subphrase
+      @param givenCopier returns a copy of a given semantic value
+      which shares nothing that the semantics may change; null if
+      the values are to be shared
+    */
+   public ASDSubphraseCache(int givenMaxEntries, int givenMaxSteps,
+      UnaryOperator<Object> givenCopier)
+   {  if (givenMaxEntries < 1 || givenMaxSteps < 1)
+         throw new IllegalArgumentException(
+            "ASDSubphraseCache bounds must be positive");
+      maxEntries = givenMaxEntries;
+      maxSteps = givenMaxSteps;
+      copier = givenCopier;
+   }
+
+   /**
+      Returns the entry stored for a given key, without counting a
+      hit or a miss, since a parser may try several keys for one
+      lookup.
+      @return the entry; null if none is stored
+    */
+   synchronized ASDSubphraseCacheEntry get(ASDSubphraseCacheKey key)
+   {  return entries.get(key);
+   }
+
+   /**
+      Counts a lookup for the completions of a subphrase as a hit or
+      a miss.
+    */
+   synchronized void counted(boolean hit)
+   {  if (hit)
+         ++hits;
+      else
+         ++misses;
+   }
+
+   /**
+      Stores an entry for a given key, evicting the least recently used
+      entry if the cache is then full.
+    */
+   synchronized void put(ASDSubphraseCacheKey key,
+      ASDSubphraseCacheEntry entry)
+   {  if (key.version != currentVersion)
+      {  if (currentVersion != null && !entries.isEmpty())
+         {  entries.clear();
+            ++invalidations;
+         }
+         currentVersion = key.version;
+      }
+      entries.put(key.stored(), entry);
+      for (Iterator<ASDSubphraseCacheEntry> it
+              = entries.values().iterator();
+           entries.size() > maxEntries && it.hasNext(); )
+      {  it.next();
+         it.remove();
+         ++evictions;
+      }
+   } // end put
+
+   /**
+      Returns the copier of semantic values; null if they are shared.
+    */
+   UnaryOperator<Object> copier() { return copier; }
+
+   /**
+      Counts a search for completions that was abandoned because it
+      took too many steps or the semantics quit the parse.
+    */
+   synchronized void abandoned() { ++abandoned; }
+
+   /**
+      Returns the maximum number of advance steps permitted for a
+      search for the completions of a subphrase.
+    */
+   public int maxSteps() { return maxSteps; }
+
+   /**
+      Discards all of the entries, as when the grammar has been
+      changed in a way the cache cannot detect.
+    */
+   public synchronized void invalidate()
+   {  entries.clear();
+      currentVersion = null;
+      ++invalidations;
+   }
+
+   /**
+      Returns the number of entries.
+    */
+   public synchronized int size() { return entries.size(); }
+
+   /**
+      Returns the number of lookups that found an entry.
+    */
+   public synchronized long hits() { return hits; }
+
+   /**
+      Returns the number of lookups that found no entry.
+    */
+   public synchronized long misses() { return misses; }
+
+   /**
+      Returns the number of entries evicted to keep the cache within
+      its bound.
+    */
+   public synchronized long evictions() { return evictions; }
+
+   /**
+      Returns the number of times all of the entries were discarded
+      because the grammar changed or invalidate was called.
+    */
+   public synchronized long invalidations() { return invalidations; }
+
+   /**
+      Returns the number of searches for completions abandoned, after
+      which the subphrases were derived without the cache.
+    */
+   public synchronized long abandonedSearches() { return abandoned; }
+
+   /**
+      Returns the counts, in one line.
+    */
+   public synchronized String toString()
+   {  return "ASDSubphraseCache: " + entries.size() + " entries, "
+         + hits + " hits, " + misses + " misses, " + evictions
+         + " evictions, " + invalidations + " invalidations, "
+         + abandoned + " abandoned searches";
+   }
+
+   private final int maxEntries;
+   private final int maxSteps;
+   private final UnaryOperator<Object> copier;
+      // copies semantic values; null if they are shared
+   private final LinkedHashMap<ASDSubphraseCacheKey, ASDSubphraseCacheEntry>
+      entries = new LinkedHashMap<ASDSubphraseCacheKey,
+         ASDSubphraseCacheEntry>(16, 0.75f, true);
+      // least recently used first
+   private ASDCompiledGrammar currentVersion;
+      // the grammar version of the entries; null if none have been added
+   private long hits, misses, evictions, invalidations, abandoned;
+} // end class ASDSubphraseCache
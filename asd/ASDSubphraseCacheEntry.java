@@ -0,0 +1,41 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+
+/**
+   Instances are the entries of an ASDSubphraseCache: the completed
+   subphrases found by a search, and the grammar nodes at which the
+   search looked at the word after the last word it consumed without
+   consuming it.  The entry applies to another utterance with the
+   same words up to there only if none of those nodes could consume
+   the word that follows them in that utterance; a node index of -1
+   stands for a search that stopped where it did only because the
+   utterance ended.  Instances are immutable, so that they can be
+   shared.
+   @version 1.00 2026 Oct
+ */
+final class ASDSubphraseCacheEntry
+{  ASDSubphraseCacheEntry(ASDCachedChoice[] givenChoices, int[] givenPeeks)
+   {  choices = givenChoices;
+      peeks = givenPeeks;
+   }
+
+   final ASDCachedChoice[] choices;  // the completed subphrases
+   final int[] peeks;  // grammar node indices, or -1 for the end
+} // end class ASDSubphraseCacheEntry
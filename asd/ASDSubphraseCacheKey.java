@@ -0,0 +1,84 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+
+/**
+   Instances are the keys of ASDSubphraseCache entries: the version of
+   the grammar, the index of the grammar node at which a subphrase
+   begins, the words from there on that the search for its completions
+   consumed, whether words are looked up in lower case, and the context
+   object given by the application.  A key for a lookup may be made
+   from a longer array of words, of which only the given number at
+   the beginning are part of the key.
+   @version 1.00 2026 Oct
+ */
+final class ASDSubphraseCacheKey
+{  ASDSubphraseCacheKey(ASDCompiledGrammar givenVersion, int givenNode,
+      String[] givenWords, int givenLength, boolean givenFoldCase,
+      Object givenContext)
+   {  version = givenVersion;
+      node = givenNode;
+      words = givenWords;
+      length = givenLength;
+      foldCase = givenFoldCase;
+      context = givenContext;
+      int h = System.identityHashCode(version) * 31 + node;
+      for (int j = 0; j < length; ++j)
+         h = h * 31 + words[j].hashCode();
+      hash = (h * 31 + length) * 31
+         + (context == null ? 0 : context.hashCode()) * 2
+         + (foldCase ? 1 : 0);
+   }
+
+   /**
+      Returns a key equal to this one which holds only the words that
+      are part of it, to be stored in the cache.
+    */
+   ASDSubphraseCacheKey stored()
+   {  if (words.length == length) return this;
+      String[] prefix = new String[length];
+      System.arraycopy(words, 0, prefix, 0, length);
+      return new ASDSubphraseCacheKey(version, node, prefix, length,
+         foldCase, context);
+   }
+
+   public boolean equals(Object other)
+   {  if (!(other instanceof ASDSubphraseCacheKey)) return false;
+      ASDSubphraseCacheKey k = (ASDSubphraseCacheKey) other;
+      if (version != k.version || node != k.node || length != k.length
+          || foldCase != k.foldCase
+          || (context == null ? k.context != null
+                              : !context.equals(k.context)))
+         return false;
+      for (int j = 0; j < length; ++j)
+         if (!words[j].equals(k.words[j]))
+            return false;
+      return true;
+   }
+
+   public int hashCode() { return hash; }
+
+   final ASDCompiledGrammar version;
+   private final int node;          // index of the initial grammar node
+   private final String[] words;    // not modified after construction
+   private final int length;        // the number of words in the key
+   private final boolean foldCase;
+   private final Object context;
+   private final int hash;
+} // end class ASDSubphraseCacheKey
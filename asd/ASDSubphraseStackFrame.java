@@ -0,0 +1,41 @@
+/*
+
+Copyright 2000-2005 James A. Mason
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+
+/**
+   Instances are put on an ASDParser's subphraseStack, to preserve
+   information for a subphrase while its parsing is suspended to
+   parse other subphrases within it.  Each links to the frame below
+   it, so the stack is a list that is never changed; a parse state
+   on the backup stack shares it with the current one.
+ */
+class ASDSubphraseStackFrame
+{  ASDSubphraseStackFrame(int begin, ASDFeatures feat, boolean uniq,
+      ASDSubphraseStackFrame givenLink)
+   {  beginning = begin;
+      features = feat;
+      unique = uniq;
+      link = givenLink;
+   }
+
+   final int beginning;
+   final ASDFeatures features;
+   final boolean unique;
+   final ASDSubphraseStackFrame link;  // the next frame down; null if none
+} // end class ASDSubphraseStackFrame
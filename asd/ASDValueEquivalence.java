@@ -0,0 +1,65 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+
+/**
+   Interface to an object that decides which semantic values and
+   feature values an ASDChartParser may treat as interchangeable, so
+   that it keeps only one of them and merges the paths and subphrases
+   that differ only in having one or the other.  The values compared
+   may be null.  EQUALS compares them with equals and hashCode;
+   ASDStructuralEquivalence compares values whose classes do not
+   override equals member by member.
+   @version 1.00 2026 Oct
+ */
+public interface ASDValueEquivalence
+{
+   /**
+      Indicates whether or not two values are interchangeable.
+      @param value a value; may be null
+      @param otherValue another value; may be null
+    */
+   public boolean equivalent(Object value, Object otherValue);
+
+   /**
+      Returns a hash code for a value, which is the same for any two
+      values that are equivalent.
+      @param value the value; may be null
+    */
+   public int hash(Object value);
+
+   /**
+      The equivalence by which values are interchangeable if they are
+      equal by equals, or both null.
+    */
+   public static final ASDValueEquivalence EQUALS = new ASDEqualsEquivalence();
+} // end interface ASDValueEquivalence
+
+/**
+   Instances compare values with equals and hashCode.
+ */
+final class ASDEqualsEquivalence implements ASDValueEquivalence
+{  public boolean equivalent(Object value, Object otherValue)
+   {  return value == null ? otherValue == null : value.equals(otherValue);
+   }
+
+   public int hash(Object value)
+   {  return value == null ? 0 : value.hashCode();
+   }
+} // end class ASDEqualsEquivalence
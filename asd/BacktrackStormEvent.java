@@ -0,0 +1,45 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import jdk.jfr.*;
+
+/**
+   Instances are JFR events emitted when the number of backups by an
+   ASDParser for one utterance exceeds a threshold.
+   @version 1.00 2026 Oct
+ */
+@Name("asd.BacktrackStorm")
+@Label("ASD Backtrack Storm")
+@Category({"ASD", "Parser"})
+@Description("The number of backups for an utterance exceeded the threshold")
+final class BacktrackStormEvent extends Event
+{  @Label("Utterance Length")
+   @Description("The number of words and other tokens in the utterance")
+   int utteranceLength;
+
+   @Label("Expected Types")
+   String expectedTypes;
+
+   @Label("Backups")
+   long backups;
+
+   @Label("Steps")
+   @Description("The number of the current step in the parse")
+   int steps;
+} // end class BacktrackStormEvent
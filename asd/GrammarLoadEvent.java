@@ -0,0 +1,38 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import jdk.jfr.*;
+
+/**
+   Instances are JFR events emitted when an ASDGrammar is loaded
+   from a file.
+   @version 1.00 2026 Oct
+ */
+@Name("asd.GrammarLoad")
+@Label("ASD Grammar Load")
+@Category({"ASD", "Grammar"})
+@Description("A grammar was loaded from a file")
+final class GrammarLoadEvent extends Event
+{  @Label("File Name")
+   String fileName;
+
+   @Label("Words")
+   @Description("The number of distinct words in the grammar")
+   int words;
+} // end class GrammarLoadEvent
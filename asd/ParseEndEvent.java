@@ -0,0 +1,54 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import jdk.jfr.*;
+
+/**
+   Instances are JFR events emitted when an attempt by an ASDParser to
+   find the next parse of its utterance ends.
+   @version 1.00 2026 Oct
+ */
+@Name("asd.ParseEnd")
+@Label("ASD Parse End")
+@Category({"ASD", "Parser"})
+@Description("An attempt to find the next parse of an utterance ended")
+@StackTrace(false)
+final class ParseEndEvent extends Event
+{  @Label("Utterance Length")
+   @Description("The number of words and other tokens in the utterance")
+   int utteranceLength;
+
+   @Label("Expected Types")
+   String expectedTypes;
+
+   @Label("Outcome")
+   String outcome;
+
+   @Label("Steps")
+   @Description("The number of advance steps performed by the attempt")
+   int steps;
+
+   @Label("Backups")
+   @Description("The number of backups since the parser was initialized")
+   long backups;
+
+   @Label("Parse Duration")
+   @Timespan(Timespan.NANOSECONDS)
+   long parseDuration;
+} // end class ParseEndEvent
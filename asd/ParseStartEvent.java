@@ -0,0 +1,39 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import jdk.jfr.*;
+
+/**
+   Instances are JFR events emitted when an ASDParser is initialized
+   for an utterance.
+   @version 1.00 2026 Oct
+ */
+@Name("asd.ParseStart")
+@Label("ASD Parse Start")
+@Category({"ASD", "Parser"})
+@Description("An ASDParser was initialized for an utterance")
+@StackTrace(false)
+final class ParseStartEvent extends Event
+{  @Label("Utterance Length")
+   @Description("The number of words and other tokens in the utterance")
+   int utteranceLength;
+
+   @Label("Expected Types")
+   String expectedTypes;
+} // end class ParseStartEvent
@@ -0,0 +1,40 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import jdk.jfr.*;
+
+/**
+   Instances are JFR events emitted when the evaluation of a semantic
+   action or value takes longer than the threshold of the event.
+   @version 1.00 2026 Oct
+ */
+@Name("asd.SemanticInvocation")
+@Label("ASD Semantic Invocation")
+@Category({"ASD", "Semantics"})
+@Description("A slow evaluation of a semantic action or value")
+@Threshold("1 ms")
+final class SemanticInvocationEvent extends Event
+{  @Label("Kind")
+   @Description("action or value")
+   String kind;
+
+   @Label("Method")
+   @Description("The semantic action or value string")
+   String method;
+} // end class SemanticInvocationEvent
@@ -73,146 +73,126 @@ of the given string.
      apostrophes.
     */
    public static ArrayList processApostrophe(String givenWord)
+   {  StringBuilder expandedForm = new StringBuilder();
+      String description = expandApostrophe(givenWord, expandedForm);
+      if (description == null) return null; // no apostrophe
+      ArrayList result = new ArrayList(2);
+      result.add(expandedForm.toString());
+      result.add(description);
+      return result;
+   }  // end of processApostrophe
+
+   /**
+      Appends to a given StringBuilder the expanded form of a given
+      String which may have apostrophes in it, as computed by
+      processApostrophe, and returns its description, without making
+      a list for the two.  The contractions recognized are those in
+      the tables CONTRACTION_WORDS and CONTRACTION_SUFFIXES, besides
+      the forms beginning with "'t" and those ending with "'s".
+      @param givenWord a presumed English word that may have apostrophes
+      in it.
+      @param expandedForm the StringBuilder to which the expanded form
+      is appended; nothing is appended if there is no apostrophe
+      @return the description of the expanded form; null if the given
+      word has no apostrophes.
+    */
+   public static String expandApostrophe(String givenWord,
+      StringBuilder expandedForm)
    {  givenWord = givenWord.trim();
-      int length = givenWord.length();
-      char firstLetter = givenWord.charAt(0);
-      if (firstLetter == '\'' && length >= 2)
-         firstLetter = givenWord.charAt(1);
       int apostrophePosition = givenWord.indexOf('\'');
       if (apostrophePosition < 0) return null; // no apostrophe
-      ArrayList result = new ArrayList(2);
-      String expandedForm = givenWord;
-      String description = "U";  // default is Unknown
+      int length = givenWord.length();
       if (length <= 2)
-      {  result.add(expandedForm);
-         result.add(description);
-         return result;
+      {  expandedForm.append(givenWord);
+         return "U";
       }
-
+      char firstLetter = givenWord.charAt(0);
+      if (firstLetter == '\'')
+         firstLetter = givenWord.charAt(1);
       String word = givenWord.toLowerCase();
 
       // Check for initial "'t":
-      if (word.substring(0,2).equals("'t"))
-      {  if (word.equals("'til"))
-         {  if (Character.isLowerCase(firstLetter))
-               expandedForm = "until";
-            else
-               expandedForm = "Until";
-            description = "C";
-            result.add(expandedForm);
-            result.add(description);
-            return result;
+      if (word.startsWith("'t"))
+      {  boolean lowerCase = Character.isLowerCase(firstLetter);
+         if (word.equals("'til"))
+         {  expandedForm.append(lowerCase ? "until" : "Until");
+            return "C";
          }
          // The initial "'t" is a contraction for "it".
          // Expand it first:
-         if (Character.isLowerCase(firstLetter))
-         {  word = "it " + word.substring(2);
-            firstLetter = 'i';
-         }
-         else
-         {  word = "It " + word.substring(2);
-            firstLetter = 'I';
-         }
-         // Check for special case of 't's or 'T's:
-         if (givenWord.equalsIgnoreCase("'t's"))
-         {  expandedForm = firstLetter + "t is";
-            description = "C";
-            result.add(expandedForm);
-            result.add(description);
-            return result;
+         firstLetter = lowerCase ? 'i' : 'I';
+         if (word.equals("'t's"))
+         {  expandedForm.append(firstLetter).append("t is");
+            return "C";
          }
+         word = firstLetter + "t " + word.substring(2);
          // Now see if there is another apostrophe:
          apostrophePosition = word.indexOf('\'');
          if (apostrophePosition < 0)  // no other apostrophe
-         {  expandedForm = word;
-            description = "C";
-            result.add(expandedForm);
-            result.add(description);
-            return result;
+         {  expandedForm.append(word);
+            return "C";
          }
          length = word.length();
       }
 
-      if (apostrophePosition == length-1) // final apostrophe
-      {  if (word.substring(length-2).equals("s'"))
-         {  expandedForm = firstLetter + word.substring(1, apostrophePosition)
-                           + " APOSTROPHE";
-            description = "P";
-         }
-         else if (word.substring(length-3).equals("in'"))
-         {  expandedForm = firstLetter + word.substring(1, length-1) + "g";
-            description = "C";
-         }
-         else  // Unknown form
-         {  expandedForm = givenWord;
-            description = "U";
+      // Words ending in "'s":
+      if (apostrophePosition == length-2 && word.charAt(length-1) == 's')
+      {  expandedForm.append(firstLetter)
+            .append(word, 1, apostrophePosition);
+         if (length > 3 && (word.equals("he's") || word.equals("she's")
+                            || word.equals("it's")))
+         {  expandedForm.append(" is");
+            return "C";
          }
+         expandedForm.append(" APOSTROPHEs");
+         return length <= 3 ? "CLP" : "CP";  // e.g. x's
       }
-      else if (apostrophePosition == length-2) // penultimate apostrophe
-      {  if (word.substring(length-1).equals("s"))
-         {  String beforeApostrophe
-               = firstLetter + word.substring(1, apostrophePosition);
-            if (length <= 3)
-            {  expandedForm = beforeApostrophe + " APOSTROPHEs";
-               description = "CLP";  // e.g. x's
-            }
-            else if (word.equals("he's") || word.equals("she's")
-                  || word.equals("it's"))
-            {  expandedForm = beforeApostrophe + " is";
-               description = "C";
-            }
-            else
-            {  expandedForm = beforeApostrophe + " APOSTROPHEs";
-               description = "CP";
-            }
-         }
-         else if (word.equals("i'm"))
-         {  expandedForm = firstLetter + " am";
-            description = "C";
-         }
-         else
-         {  description = "C";
-            if (word.substring(length-3).equals("n't"))
-            {  if (word.equals("can't"))
-                  expandedForm = firstLetter + "annot";
-               else
-                  expandedForm
-                     = firstLetter + word.substring(1, length-3) + " not";
-            }
-            else if (word.substring(length-2).equals("'d"))
-               expandedForm
-                  = firstLetter + word.substring(1, length-2) + " 'd";
-            else
-            {  expandedForm = givenWord;
-               description = "U";
-            }
+
+      for (int j = 0; j < CONTRACTION_WORDS.length; ++j)
+         if (word.equals(CONTRACTION_WORDS[j][0]))
+         {  expandedForm.append(firstLetter).append(CONTRACTION_WORDS[j][1]);
+            return "C";
          }
-      }
-      else if (apostrophePosition == length-3) // antepenultimate apostrophe
-      {  String lastThree = word.substring(length-3);
-         String allButLastThree
-            = firstLetter + word.substring(1, length-3);
-         description = "C";
-         if (lastThree.equals("'re"))
-            expandedForm = allButLastThree + " are";
-         else if (lastThree.equals("'ld"))
-            expandedForm = allButLastThree + " would";
-         else if (lastThree.equals("'ll"))
-            expandedForm = allButLastThree + " will";
-         else
-         {  expandedForm = givenWord;
-            description = "U";
+
+      for (int j = 0; j < CONTRACTION_SUFFIXES.length; ++j)
+      {  String suffix = CONTRACTION_SUFFIXES[j][0];
+         int stem = length - suffix.length();
+         if (stem >= 1 && word.endsWith(suffix)
+             && apostrophePosition == stem + suffix.indexOf('\''))
+         {  expandedForm.append(firstLetter).append(word, 1, stem)
+               .append(CONTRACTION_SUFFIXES[j][1]);
+            return CONTRACTION_SUFFIXES[j][2];
          }
       }
-      else                          // unknown apostrophe form
-      {  expandedForm = givenWord;
-         description = "U";
-      }
 
-      result.add(expandedForm);
-      result.add(description);
-      return result;
-   }  // end of processApostrophe
+      expandedForm.append(givenWord); // unknown apostrophe form
+      return "U";
+   }  // end of expandApostrophe
+
+   /**
+      Whole words with apostrophes, in lower case, and the expansions
+      of all but their first letters.
+    */
+   private static final String[][] CONTRACTION_WORDS =
+   {  {"i'm", " am"},
+      {"can't", "annot"},
+      {"in'", "ng"}
+   };
+
+   /**
+      Endings with apostrophes, in lower case, each with its expansion
+      and description.  An ending applies only if the apostrophe in it
+      is the first one in the word.
+    */
+   private static final String[][] CONTRACTION_SUFFIXES =
+   {  {"s'", "s APOSTROPHE", "P"},
+      {"in'", "ing", "C"},
+      {"n't", " not", "C"},
+      {"'d", " 'd", "C"},
+      {"'re", " are", "C"},
+      {"'ld", " would", "C"},
+      {"'ll", " will", "C"}
+   };
 
    private static HashSet PREPOSITIONS;
 
@@ -23,12 +23,17 @@ public class MagnitudeSemantics extends ModifiableSemantics
             = Class.forName("englishdemo.MagnitudeSemantics");
       }
       catch (ClassNotFoundException e) {return false;}
-      if (thisClass.isAssignableFrom(otherObject.getClass()))
+      if (otherObject != null
+          && thisClass.isAssignableFrom(otherObject.getClass()))
          return value == ((MagnitudeSemantics) otherObject).value;
       else
          return false;
    }
 
+   public int hashCode()
+   {  return value;
+   }
+
    public SemanticValue modifyBy(SemanticValue modifier, boolean simplify)
    {  if (modifier instanceof ThresholdSemantics)
          return (MagnitudeSemantics) modifyBy("degree", modifier);
@@ -0,0 +1,420 @@
+package englishdemo;
+import asd.ASDParser;
+import asd.ASDParserMetrics;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Callable;
+import javax.management.JMException;
+
+/**
+   NPXDemoBatchRunner parses a corpus of phrases with the grammar
+   npXdemo.grm without a graphical user interface, as NPXDemoTester
+   parses them one at a time, so that a large number of phrases can be
+   replayed offline and the time taken to parse them compared from one
+   version of the parser to another.
+   <BR><BR>
+   Each line of the corpus file is a phrase to be parsed, optionally
+   followed by a tab character and the expected phrase types for it,
+   separated by spaces; QUANTITY-P QUANTITY-NP ORDIR-P are expected if
+   none are given.  Blank lines and lines beginning with # are ignored.
+   The phrases are parsed by a fixed number of worker threads, each
+   with an NpXDemoSemantics of its own.  Each phrase is first parsed
+   strictly and then, if that fails, non-strictly, as NPXDemoTester
+   does, and all of its parses are found, up to a given maximum.
+   <BR><BR>
+   For each phrase one line of JSON is written, in the order of the
+   corpus, with the phrase, the expected types, the bracketed phrase
+   structure, the meaning and the number of advance steps of each
+   parse found, the result message of the last attempt, and the time
+   taken to parse the phrase in microseconds.  After the last phrase
+   a summary of the throughput and of the percentiles of the times is
+   written to System.out, or to System.err if the JSON lines are.
+   <BR><BR>
+   Command-line usage, from the directory containing npXdemo.grm:
+   <BR><tt><b> java -cp asddigraphs.jar:englishdemo.jar:. englishdemo.NPXDemoBatchRunner corpusFile [options]</b></tt>
+   <BR>or
+   <BR><tt><b> java -cp asddigraphs.jar:englishdemo.jar:. englishdemo.NPXDemoTester -batch corpusFile [options]</b></tt>
+   <BR>where the options are
+   <BR><tt>-threads n</tt> the number of worker threads (by default,
+   the number of processors),
+   <BR><tt>-out file</tt> the file to which the JSON lines are written
+   (by default, System.out),
+   <BR><tt>-maxparses n</tt> the maximum number of parses found for
+   each phrase (10 by default),
+   <BR><tt>-timeout ms</tt> the time allowed for each phrase, after
+   which its parse is abandoned (no limit by default), and
+   <BR><tt>-metrics name</tt> the name under which ASDParserMetrics
+   of the parses are registered as a JMX MBean while the corpus is
+   parsed; their report is added to the summary (no metrics are
+   kept by default).
+   @version 1.00 2026 Oct
+ */
+public class NPXDemoBatchRunner
+{  public static void main(String[] args)
+   {  if (args.length == 0)
+      {  System.out.println("Usage: NPXDemoBatchRunner corpusFile"
+            + " [-threads n] [-out file] [-maxparses n] [-timeout ms]"
+            + " [-metrics name]");
+         return;
+      }
+      int threads = Runtime.getRuntime().availableProcessors();
+      String outFileName = null;
+      int maxParses = 10;
+      long timeoutMillis = 0;
+      String metricsName = null;
+      try
+      {  for (int j = 1; j < args.length; j += 2)
+         {  if (j + 1 == args.length)
+            {  System.out.println("Missing value for option " + args[j]);
+               return;
+            }
+            if (args[j].equals("-threads"))
+               threads = Integer.parseInt(args[j+1]);
+            else if (args[j].equals("-out"))
+               outFileName = args[j+1];
+            else if (args[j].equals("-maxparses"))
+               maxParses = Integer.parseInt(args[j+1]);
+            else if (args[j].equals("-timeout"))
+               timeoutMillis = Long.parseLong(args[j+1]);
+            else if (args[j].equals("-metrics"))
+               metricsName = args[j+1];
+            else
+            {  System.out.println("Unknown option " + args[j]);
+               return;
+            }
+         }
+      }
+      catch(NumberFormatException e)
+      {  System.out.println("Invalid number: " + e.getMessage());
+         return;
+      }
+      if (threads < 1 || maxParses < 1 || timeoutMillis < 0)
+      {  System.out.println("Invalid option value");
+         return;
+      }
+
+      NPXDemoBatchRunner runner
+         = new NPXDemoBatchRunner(threads, maxParses, timeoutMillis);
+      if (metricsName != null)
+         try
+         {  runner.metrics = new ASDParserMetrics();
+            runner.metrics.register(metricsName);
+         }
+         catch(JMException e)
+         {  System.out.println("JMException: " + e.getMessage());
+            return;
+         }
+      PrintStream out = System.out;
+      try
+      {  ArrayList<CorpusEntry> corpus = readCorpus(args[0]);
+         if (outFileName != null)
+            out = new PrintStream(new BufferedOutputStream(
+               new FileOutputStream(outFileName)), false, "UTF-8");
+         String summary = runner.run(corpus, out);
+         if (out == System.out)
+            System.err.println(summary);
+         else
+         {  out.close();
+            System.out.println(summary);
+         }
+      }
+      catch(IOException e)
+      {  System.out.println("IOException: " + e.getMessage());
+      }
+   } // end main
+
+   /**
+      Creates an instance with given options.
+      @param givenThreads the number of worker threads
+      @param givenMaxParses the maximum number of parses to find for
+      each phrase
+      @param givenTimeoutMillis the time allowed for each phrase, in
+      milliseconds; 0 for no limit
+    */
+   NPXDemoBatchRunner(int givenThreads, int givenMaxParses,
+      long givenTimeoutMillis)
+   {  threads = givenThreads;
+      maxParses = givenMaxParses;
+      timeoutNanos = givenTimeoutMillis * 1000000L;
+   }
+
+   /**
+      Reads a corpus file.
+      @param fileName the name of the file
+      @return an ArrayList of CorpusEntry instances, in the order of
+      the lines of the file
+    */
+   static ArrayList<CorpusEntry> readCorpus(String fileName)
+      throws IOException
+   {  ArrayList<CorpusEntry> result = new ArrayList<CorpusEntry>();
+      BufferedReader in = new BufferedReader(new InputStreamReader(
+         new FileInputStream(fileName), "UTF-8"));
+      try
+      {  String line;
+         while ((line = in.readLine()) != null)
+         {  if (line.trim().length() == 0 || line.startsWith("#"))
+               continue;
+            ArrayList<?> types = NpXDemoSemantics.EXPECTEDTYPES;
+            int tab = line.indexOf('\t');
+            if (tab >= 0)
+            {  StringTokenizer st
+                  = new StringTokenizer(line.substring(tab + 1));
+               if (st.hasMoreTokens())
+               {  ArrayList<String> given = new ArrayList<String>();
+                  while (st.hasMoreTokens())
+                     given.add(st.nextToken());
+                  types = given;
+               }
+               line = line.substring(0, tab);
+            }
+            result.add(new CorpusEntry(line.trim(), types));
+         }
+      }
+      finally
+      {  in.close();
+      }
+      return result;
+   } // end readCorpus
+
+   /**
+      Parses the phrases of a corpus on the worker threads, and writes
+      the results to a given stream as JSON lines in the order of the
+      corpus.
+      @param corpus an ArrayList of CorpusEntry instances
+      @param out the stream for the JSON lines
+      @return the summary of the throughput and the latencies
+    */
+   String run(ArrayList<CorpusEntry> corpus, PrintStream out)
+   {  ExecutorService workers = Executors.newFixedThreadPool(threads);
+      long start = System.nanoTime();
+      long[] latencies = new long[corpus.size()];
+      int parsed = 0;
+      int parses = 0;
+      try
+      {  ArrayList<Future<PhraseResult>> futures
+            = new ArrayList<Future<PhraseResult>>(corpus.size());
+         for (int j = 0; j < corpus.size(); ++j)
+            futures.add(workers.submit(new PhraseTask(corpus.get(j))));
+         for (int j = 0; j < futures.size(); ++j)
+         {  PhraseResult r;
+            try
+            {  r = futures.get(j).get();
+            }
+            catch(ExecutionException e)
+            {  r = new PhraseResult(corpus.get(j));
+               r.message = "Exception: " + e.getCause();
+            }
+            catch(InterruptedException e)
+            {  Thread.currentThread().interrupt();
+               break;
+            }
+            latencies[j] = r.nanos;
+            if (r.bracketed.size() > 0) ++parsed;
+            parses += r.bracketed.size();
+            out.println(r.toJSON(j));
+         }
+      }
+      finally
+      {  workers.shutdownNow();
+      }
+      out.flush();
+      String result = summary(corpus.size(), parsed, parses,
+         System.nanoTime() - start, latencies);
+      return metrics == null ? result : result + "\n" + metrics;
+   } // end run
+
+   /**
+      Returns the summary of a run.
+      @param phrases the number of phrases in the corpus
+      @param parsed the number of phrases with at least one parse
+      @param parses the total number of parses found
+      @param elapsedNanos the time taken by the run
+      @param latencies the time taken to parse each phrase, in
+      nanoseconds
+    */
+   private String summary(int phrases, int parsed, int parses,
+      long elapsedNanos, long[] latencies)
+   {  long[] sorted = latencies.clone();
+      Arrays.sort(sorted);
+      double seconds = elapsedNanos / 1e9;
+      return phrases + " phrases (" + parsed + " parsed, "
+         + (phrases - parsed) + " not parsed), " + parses + " parses, in "
+         + millis(elapsedNanos) + " ms on " + threads + " threads: "
+         + Math.round(phrases / seconds) + " phrases/s\n"
+         + "latency ms: p50 " + millis(percentile(sorted, 50))
+         + ", p90 " + millis(percentile(sorted, 90))
+         + ", p99 " + millis(percentile(sorted, 99))
+         + ", p99.9 " + millis(percentile(sorted, 99.9))
+         + ", max " + millis(sorted.length == 0 ? 0
+                                : sorted[sorted.length-1]);
+   } // end summary
+
+   /**
+      Returns a given percentile of a sorted array of values, by the
+      nearest-rank method; 0 if the array is empty.
+    */
+   static long percentile(long[] sorted, double p)
+   {  if (sorted.length == 0) return 0;
+      int rank = (int) Math.ceil(p / 100 * sorted.length);
+      return sorted[Math.max(rank, 1) - 1];
+   }
+
+   /**
+      Returns a number of nanoseconds as milliseconds, with three
+      decimal places.
+    */
+   private static String millis(long nanos)
+   {  return Double.toString(Math.round(nanos / 1000.0) / 1000.0);
+   }
+
+   /**
+      Returns a string as a JSON string literal, with quotation marks
+      around it.
+    */
+   static String quote(String s)
+   {  if (s == null) return "null";
+      StringBuilder result = new StringBuilder(s.length() + 2);
+      result.append('"');
+      for (int j = 0; j < s.length(); ++j)
+      {  char c = s.charAt(j);
+         switch (c)
+         {  case '"':  result.append("\\\""); break;
+            case '\\': result.append("\\\\"); break;
+            case '\n': result.append("\\n"); break;
+            case '\r': result.append("\\r"); break;
+            case '\t': result.append("\\t"); break;
+            default:
+               if (c < ' ')
+               {  String hex = Integer.toHexString(c);
+                  result.append("\\u");
+                  for (int k = hex.length(); k < 4; ++k)
+                     result.append('0');
+                  result.append(hex);
+               }
+               else
+                  result.append(c);
+         }
+      }
+      result.append('"');
+      return result.toString();
+   } // end quote
+
+   /**
+      Instances parse one phrase, with the NpXDemoSemantics of the
+      worker thread on which they run.
+    */
+   private class PhraseTask implements Callable<PhraseResult>
+   {  PhraseTask(CorpusEntry givenEntry)
+      {  entry = givenEntry;
+      }
+
+      public PhraseResult call()
+      {  NpXDemoSemantics semantics = workerSemantics.get();
+         PhraseResult result = new PhraseResult(entry);
+         long start = System.nanoTime();
+         long deadline = timeoutNanos == 0
+            ? 0 : ASDParser.deadline(start, timeoutNanos);
+         semantics.setExpectedTypes(entry.expectedTypes);
+         semantics.initializePhrase(entry.phrase, true);
+         while (result.bracketed.size() < maxParses
+                && semantics.completeParse(deadline, null))
+         {  result.bracketed.add(semantics.bracketPhrase());
+            result.meanings.add(semantics.phraseMeaning());
+            result.steps.add(Integer.valueOf(semantics.getParseSteps()));
+         }
+         result.nanos = System.nanoTime() - start;
+         result.message = semantics.getResultMessage();
+         return result;
+      }
+
+      private final CorpusEntry entry;
+   } // end class PhraseTask
+
+   private final int threads;       // the number of worker threads
+   private final int maxParses;     // the maximum parses per phrase
+   private final long timeoutNanos; // the time allowed per phrase; 0 if
+                                    // there is no limit
+   ASDParserMetrics metrics = null;
+      // the metrics of the parses; null if none are kept
+   private final ThreadLocal<NpXDemoSemantics> workerSemantics
+      = new ThreadLocal<NpXDemoSemantics>()
+      {  protected NpXDemoSemantics initialValue()
+         {  NpXDemoSemantics result
+               = new NpXDemoSemantics(NPXDemoBatchRunner.this);
+            result.setMetrics(metrics);
+            return result;
+         }
+      };
+      // the NpXDemoSemantics of each worker thread
+} // end class NPXDemoBatchRunner
+
+/**
+   Instances are the lines of a corpus: a phrase and the phrase types
+   expected for it.
+ */
+class CorpusEntry
+{  CorpusEntry(String givenPhrase, ArrayList<?> givenExpectedTypes)
+   {  phrase = givenPhrase;
+      expectedTypes = givenExpectedTypes;
+   }
+
+   final String phrase;
+   final ArrayList<?> expectedTypes;  // of String
+} // end class CorpusEntry
+
+/**
+   Instances are the results of parsing one phrase of a corpus.
+ */
+class PhraseResult
+{  PhraseResult(CorpusEntry givenEntry)
+   {  entry = givenEntry;
+   }
+
+   /**
+      Returns the result as one line of JSON.
+      @param index the position of the phrase in the corpus
+    */
+   String toJSON(int index)
+   {  StringBuilder result = new StringBuilder();
+      result.append("{\"index\":").append(index);
+      result.append(",\"phrase\":")
+            .append(NPXDemoBatchRunner.quote(entry.phrase));
+      result.append(",\"expected\":[");
+      for (int j = 0; j < entry.expectedTypes.size(); ++j)
+      {  if (j > 0) result.append(',');
+         result.append(NPXDemoBatchRunner.quote(
+            (String) entry.expectedTypes.get(j)));
+      }
+      result.append("],\"parses\":[");
+      for (int j = 0; j < bracketed.size(); ++j)
+      {  if (j > 0) result.append(',');
+         result.append("{\"bracketed\":")
+               .append(NPXDemoBatchRunner.quote(
+                  bracketed.get(j)));
+         result.append(",\"meaning\":")
+               .append(NPXDemoBatchRunner.quote(meanings.get(j)));
+         result.append(",\"steps\":").append(steps.get(j));
+         result.append('}');
+      }
+      result.append("],\"message\":")
+            .append(NPXDemoBatchRunner.quote(message));
+      result.append(",\"micros\":").append(nanos / 1000);
+      result.append('}');
+      return result.toString();
+   } // end toJSON
+
+   final CorpusEntry entry;
+   final ArrayList<String> bracketed = new ArrayList<String>();
+      // bracketed phrases
+   final ArrayList<String> meanings = new ArrayList<String>();
+      // phraseMeaning strings
+   final ArrayList<Integer> steps = new ArrayList<Integer>();
+      // step counts
+   String message;  // the result message of the last completeParse
+   long nanos;      // the time taken to parse the phrase
+} // end class PhraseResult
@@ -25,13 +25,22 @@ import javax.swing.*;    // JFrame, JPanel
    <BR><tt><b> java -cp asddigraphs.jar:englishdemo.jar:. englishdemo/NPXDemoTester</b></tt>
    <BR>OR if asddigraphs.jar and englishdemo.jar have been put in the system classpath:
    <BR><tt><b> java englishdemo/NPXDemoTester</b></tt>
+   <BR>To parse a corpus of phrases without the graphical user
+   interface, see NPXDemoBatchRunner:
+   <BR><tt><b> java englishdemo/NPXDemoTester -batch corpusFile [options]</b></tt>
 
    @author James A. Mason
    @version 1.01 2005 February
  */
 public class NPXDemoTester
 {  public static void main(String[] args)
-   {  new NPXDemoTester();
+   {  if (args.length > 0 && args[0].equals("-batch"))
+      {  String[] batchArgs = new String[args.length - 1];
+         System.arraycopy(args, 1, batchArgs, 0, batchArgs.length);
+         NPXDemoBatchRunner.main(batchArgs);
+         return;
+      }
+      new NPXDemoTester();
    }
 
    NPXDemoTester()
@@ -0,0 +1,351 @@
+// Generated by asd.ASDDispatcherGenerator from [npXdemo.grm];
+// do not edit.  Run the generator again when the grammars change.
+
+package englishdemo;
+
+/**
+   Dispatches the semantic actions and semantic values of the grammars
+   to the methods of englishdemo.NpXDemoSemantics.
+ */
+public final class NpXDemoDispatcher implements asd.ASDSemanticDispatcher
+{  /**
+      The instance to be passed to ASDParser.bindSemantics.
+    */
+   public static final NpXDemoDispatcher INSTANCE = new NpXDemoDispatcher();
+
+   private NpXDemoDispatcher() { }
+
+   public int actionIndex(String name)
+   {  switch (name)
+      {  case "cardord_1_1": return 0;
+         case "cardord_2_1": return 1;
+         case "cardord_3_1": return 2;
+         case "cardord_CARDINALNUMBER_1": return 3;
+         case "cardord_CARDINAL_1": return 4;
+         case "cardord_CARDINAL_2": return 5;
+         case "cardord_DECADE_1": return 6;
+         case "cardord_ORDINAL_1": return 7;
+         case "cardord_TENPOWER_1": return 8;
+         case "cardord_a_1": return 9;
+         case "cardordirp_ARITH_OP_1": return 10;
+         case "cardordirp_CARD_P1_1": return 11;
+         case "cardordirp_CARD_P2_1": return 12;
+         case "cardordirp_ORDINAL_1": return 13;
+         case "cardordirp_QUALIFIER_P_1": return 14;
+         case "cardordirp_QUANTITY_1": return 15;
+         case "cardordirp_a_1": return 16;
+         case "cardordirp_bakers_1": return 17;
+         case "cardordirp_last_2": return 18;
+         case "cardordirp_next_1": return 19;
+         case "cardordirp_next_2": return 20;
+         case "cardordirp_preceding_2": return 21;
+         case "cardordirp_previous_2": return 22;
+         case "grader2_ATALL": return 23;
+         case "grader2_GRADER1_1": return 24;
+         case "grader2_GRADER_LY_1": return 25;
+         case "grader2_GRADER_P_1": return 26;
+         case "grader2_GRADER_P_2": return 27;
+         case "grader2_NEGATIVE_1": return 28;
+         case "grader2_QUALIFIER1_1": return 29;
+         case "grader2_QUALIFIER_LY_1": return 30;
+         case "grader2_QUALIFIER_P_1": return 31;
+         case "grader2_THRESH_POST_1": return 32;
+         case "grader2_THRESH_POST_2": return 33;
+         case "grader2_far_1": return 34;
+         case "grader2_not_1": return 35;
+         case "grader2_really_1": return 36;
+         case "grader2_so_1": return 37;
+         case "grader2_so_2": return 38;
+         case "grader2_too_1": return 39;
+         case "grader2_too_2": return 40;
+         case "grader2_very_1": return 41;
+         case "grader2_very_2": return 42;
+         case "grader2_way_1": return 43;
+         case "quant_vague_ADJ_OR_NOUN_QUANT_1": return 44;
+         case "quant_vague_GRADER_P_1": return 45;
+         case "quant_vague_QUANT_VAGUE_2": return 46;
+         case "quant_vague_QUANT_VAGUE_N_LARGE_1": return 47;
+         case "quant_vague_a_1": return 48;
+         case "quant_vague_quite_2": return 49;
+         case "quant_vague_rather_1": return 50;
+         case "quant_vague_such_1": return 51;
+         case "quant_vague_what_1": return 52;
+         case "quantity_p_QUALIFIER_P_1": return 53;
+         default: return -1;
+      }
+   }
+
+   public int valueIndex(String name)
+   {  switch (name)
+      {  case "cardord_$$_1_v": return 0;
+         case "cardord_$$_2_v": return 1;
+         case "cardord_$$_3_v": return 2;
+         case "cardord_CARDINAL_2_v": return 3;
+         case "cardord_CARDTEEN_1_v": return 4;
+         case "cardord_NUMBER_1_v": return 5;
+         case "cardord_ORDINAL_1_v": return 6;
+         case "cardord_ORDUNIT_1_v": return 7;
+         case "cardord_ORDUNIT_2_v": return 8;
+         case "cardord_ORD_1_v": return 9;
+         case "cardord_ORD_TENPOWER_1_v": return 10;
+         case "cardord_UNIT_1_v": return 11;
+         case "cardord_UNIT_2_v": return 12;
+         case "cardord_nd_1_v": return 13;
+         case "cardord_rd_1_v": return 14;
+         case "cardord_st_1_v": return 15;
+         case "cardord_th_1_v": return 16;
+         case "cardordirp_$$_1_v": return 17;
+         case "cardordirp_$$_2_v": return 18;
+         case "cardordirp_$$_3_v": return 19;
+         case "cardordirp_$$_4_v": return 20;
+         case "cardordirp_CARDINAL_1_v": return 21;
+         case "cardordirp_CARD_P_1_v": return 22;
+         case "cardordirp_ORDIR_1_v": return 23;
+         case "cardordirp_ORDIR_P_1_v": return 24;
+         case "cardordirp_dozen_1_v": return 25;
+         case "cardordirp_last_1_v": return 26;
+         case "cardordirp_preceding_1_v": return 27;
+         case "cardordirp_previous_1_v": return 28;
+         case "cardordirp_score_1_v": return 29;
+         case "cardordirp_zero_1_v": return 30;
+         case "grader1_absolutely_1_v": return 31;
+         case "grader1_certainly_1_v": return 32;
+         case "grader1_clearly_1_v": return 33;
+         case "grader1_definitely_1_v": return 34;
+         case "grader1_enough_1_v": return 35;
+         case "grader1_excessively_1_v": return 36;
+         case "grader1_extremely_1_v": return 37;
+         case "grader1_fairly_1_v": return 38;
+         case "grader1_how_1_v": return 39;
+         case "grader1_however_1_v": return 40;
+         case "grader1_incredibly_1_v": return 41;
+         case "grader1_incredibly_2_v": return 42;
+         case "grader1_moderately_1_v": return 43;
+         case "grader1_most_1_v": return 44;
+         case "grader1_obviously_1_v": return 45;
+         case "grader1_possibly_1_v": return 46;
+         case "grader1_probably_1_v": return 47;
+         case "grader1_quite_1_v": return 48;
+         case "grader1_rather_1_v": return 49;
+         case "grader1_relatively_1_v": return 50;
+         case "grader1_slightly_1_v": return 51;
+         case "grader1_somewhat_1_v": return 52;
+         case "grader1_sufficiently_1_v": return 53;
+         case "grader1_surprisingly_1_v": return 54;
+         case "grader2_$$_10_v": return 55;
+         case "grader2_$$_1_v": return 56;
+         case "grader2_$$_2_v": return 57;
+         case "grader2_$$_3_v": return 58;
+         case "grader2_$$_4_v": return 59;
+         case "grader2_$$_5_v": return 60;
+         case "grader2_$$_6_v": return 61;
+         case "grader2_$$_7_v": return 62;
+         case "grader2_$$_8_v": return 63;
+         case "grader2_$$_9_v": return 64;
+         case "grader2_GRADER_1_v": return 65;
+         case "grader2_NEGQUALIFIER_1_v": return 66;
+         case "grader2_QUALIFIER_1_v": return 67;
+         case "quant_vague_$$_1_v": return 68;
+         case "quant_vague_$$_2_v": return 69;
+         case "quant_vague_$$_3_v": return 70;
+         case "quant_vague_$$_4_v": return 71;
+         case "quant_vague_QUANTITY_NP_1_v": return 72;
+         case "quant_vague_QUANTITY_P_1_v": return 73;
+         case "quant_vague_QUANT_VAGUE_1_v": return 74;
+         case "quant_vague_QUANT_VAGUE_N_1_v": return 75;
+         case "quant_vague_THRESH_POST_1_v": return 76;
+         case "quant_vague_bags_1_v": return 77;
+         case "quant_vague_bit_1_v": return 78;
+         case "quant_vague_bit_2_v": return 79;
+         case "quant_vague_couple_1_v": return 80;
+         case "quant_vague_enough_1_v": return 81;
+         case "quant_vague_few_1_v": return 82;
+         case "quant_vague_few_2_v": return 83;
+         case "quant_vague_few_3_v": return 84;
+         case "quant_vague_heaps_1_v": return 85;
+         case "quant_vague_little_1_v": return 86;
+         case "quant_vague_little_3_v": return 87;
+         case "quant_vague_lot_1_v": return 88;
+         case "quant_vague_lots_1_v": return 89;
+         case "quant_vague_many_1_v": return 90;
+         case "quant_vague_much_1_v": return 91;
+         case "quant_vague_piles_1_v": return 92;
+         case "quant_vague_several_1_v": return 93;
+         case "quant_vague_tons_1_v": return 94;
+         case "quantity_np_QUANT_VAGUE_NP_1_v": return 95;
+         case "quantity_p_CARD_P_1_v": return 96;
+         case "quantity_p_QUANTITY_1_v": return 97;
+         case "quantity_p_QUANTITY_P_1_v": return 98;
+         case "quantity_p_QUANT_VAGUE_P_1_v": return 99;
+         default: return -1;
+      }
+   }
+
+   public String action(int index, Object target)
+   {  englishdemo.NpXDemoSemantics s = (englishdemo.NpXDemoSemantics) target;
+      switch (index)
+      {  case 0: return s.cardord_1_1();
+         case 1: return s.cardord_2_1();
+         case 2: return s.cardord_3_1();
+         case 3: return s.cardord_CARDINALNUMBER_1();
+         case 4: return s.cardord_CARDINAL_1();
+         case 5: return s.cardord_CARDINAL_2();
+         case 6: return s.cardord_DECADE_1();
+         case 7: return s.cardord_ORDINAL_1();
+         case 8: return s.cardord_TENPOWER_1();
+         case 9: return s.cardord_a_1();
+         case 10: return s.cardordirp_ARITH_OP_1();
+         case 11: return s.cardordirp_CARD_P1_1();
+         case 12: return s.cardordirp_CARD_P2_1();
+         case 13: return s.cardordirp_ORDINAL_1();
+         case 14: return s.cardordirp_QUALIFIER_P_1();
+         case 15: return s.cardordirp_QUANTITY_1();
+         case 16: return s.cardordirp_a_1();
+         case 17: return s.cardordirp_bakers_1();
+         case 18: return s.cardordirp_last_2();
+         case 19: return s.cardordirp_next_1();
+         case 20: return s.cardordirp_next_2();
+         case 21: return s.cardordirp_preceding_2();
+         case 22: return s.cardordirp_previous_2();
+         case 23: return s.grader2_ATALL();
+         case 24: return s.grader2_GRADER1_1();
+         case 25: return s.grader2_GRADER_LY_1();
+         case 26: return s.grader2_GRADER_P_1();
+         case 27: return s.grader2_GRADER_P_2();
+         case 28: return s.grader2_NEGATIVE_1();
+         case 29: return s.grader2_QUALIFIER1_1();
+         case 30: return s.grader2_QUALIFIER_LY_1();
+         case 31: return s.grader2_QUALIFIER_P_1();
+         case 32: return s.grader2_THRESH_POST_1();
+         case 33: return s.grader2_THRESH_POST_2();
+         case 34: return s.grader2_far_1();
+         case 35: return s.grader2_not_1();
+         case 36: return s.grader2_really_1();
+         case 37: return s.grader2_so_1();
+         case 38: return s.grader2_so_2();
+         case 39: return s.grader2_too_1();
+         case 40: return s.grader2_too_2();
+         case 41: return s.grader2_very_1();
+         case 42: return s.grader2_very_2();
+         case 43: return s.grader2_way_1();
+         case 44: return s.quant_vague_ADJ_OR_NOUN_QUANT_1();
+         case 45: return s.quant_vague_GRADER_P_1();
+         case 46: return s.quant_vague_QUANT_VAGUE_2();
+         case 47: return s.quant_vague_QUANT_VAGUE_N_LARGE_1();
+         case 48: return s.quant_vague_a_1();
+         case 49: return s.quant_vague_quite_2();
+         case 50: return s.quant_vague_rather_1();
+         case 51: return s.quant_vague_such_1();
+         case 52: return s.quant_vague_what_1();
+         case 53: return s.quantity_p_QUALIFIER_P_1();
+         default: throw new IllegalArgumentException("No case " + index);
+      }
+   }
+
+   public Object value(int index, Object target)
+   {  englishdemo.NpXDemoSemantics s = (englishdemo.NpXDemoSemantics) target;
+      switch (index)
+      {  case 0: return s.cardord_$$_1_v();
+         case 1: return s.cardord_$$_2_v();
+         case 2: return s.cardord_$$_3_v();
+         case 3: return s.cardord_CARDINAL_2_v();
+         case 4: return s.cardord_CARDTEEN_1_v();
+         case 5: return s.cardord_NUMBER_1_v();
+         case 6: return s.cardord_ORDINAL_1_v();
+         case 7: return s.cardord_ORDUNIT_1_v();
+         case 8: return s.cardord_ORDUNIT_2_v();
+         case 9: return s.cardord_ORD_1_v();
+         case 10: return s.cardord_ORD_TENPOWER_1_v();
+         case 11: return s.cardord_UNIT_1_v();
+         case 12: return s.cardord_UNIT_2_v();
+         case 13: return s.cardord_nd_1_v();
+         case 14: return s.cardord_rd_1_v();
+         case 15: return s.cardord_st_1_v();
+         case 16: return s.cardord_th_1_v();
+         case 17: return s.cardordirp_$$_1_v();
+         case 18: return s.cardordirp_$$_2_v();
+         case 19: return s.cardordirp_$$_3_v();
+         case 20: return s.cardordirp_$$_4_v();
+         case 21: return s.cardordirp_CARDINAL_1_v();
+         case 22: return s.cardordirp_CARD_P_1_v();
+         case 23: return s.cardordirp_ORDIR_1_v();
+         case 24: return s.cardordirp_ORDIR_P_1_v();
+         case 25: return s.cardordirp_dozen_1_v();
+         case 26: return s.cardordirp_last_1_v();
+         case 27: return s.cardordirp_preceding_1_v();
+         case 28: return s.cardordirp_previous_1_v();
+         case 29: return s.cardordirp_score_1_v();
+         case 30: return s.cardordirp_zero_1_v();
+         case 31: return s.grader1_absolutely_1_v();
+         case 32: return s.grader1_certainly_1_v();
+         case 33: return s.grader1_clearly_1_v();
+         case 34: return s.grader1_definitely_1_v();
+         case 35: return s.grader1_enough_1_v();
+         case 36: return s.grader1_excessively_1_v();
+         case 37: return s.grader1_extremely_1_v();
+         case 38: return s.grader1_fairly_1_v();
+         case 39: return s.grader1_how_1_v();
+         case 40: return s.grader1_however_1_v();
+         case 41: return s.grader1_incredibly_1_v();
+         case 42: return s.grader1_incredibly_2_v();
+         case 43: return s.grader1_moderately_1_v();
+         case 44: return s.grader1_most_1_v();
+         case 45: return s.grader1_obviously_1_v();
+         case 46: return s.grader1_possibly_1_v();
+         case 47: return s.grader1_probably_1_v();
+         case 48: return s.grader1_quite_1_v();
+         case 49: return s.grader1_rather_1_v();
+         case 50: return s.grader1_relatively_1_v();
+         case 51: return s.grader1_slightly_1_v();
+         case 52: return s.grader1_somewhat_1_v();
+         case 53: return s.grader1_sufficiently_1_v();
+         case 54: return s.grader1_surprisingly_1_v();
+         case 55: return s.grader2_$$_10_v();
+         case 56: return s.grader2_$$_1_v();
+         case 57: return s.grader2_$$_2_v();
+         case 58: return s.grader2_$$_3_v();
+         case 59: return s.grader2_$$_4_v();
+         case 60: return s.grader2_$$_5_v();
+         case 61: return s.grader2_$$_6_v();
+         case 62: return s.grader2_$$_7_v();
+         case 63: return s.grader2_$$_8_v();
+         case 64: return s.grader2_$$_9_v();
+         case 65: return s.grader2_GRADER_1_v();
+         case 66: return s.grader2_NEGQUALIFIER_1_v();
+         case 67: return s.grader2_QUALIFIER_1_v();
+         case 68: return s.quant_vague_$$_1_v();
+         case 69: return s.quant_vague_$$_2_v();
+         case 70: return s.quant_vague_$$_3_v();
+         case 71: return s.quant_vague_$$_4_v();
+         case 72: return s.quant_vague_QUANTITY_NP_1_v();
+         case 73: return s.quant_vague_QUANTITY_P_1_v();
+         case 74: return s.quant_vague_QUANT_VAGUE_1_v();
+         case 75: return s.quant_vague_QUANT_VAGUE_N_1_v();
+         case 76: return s.quant_vague_THRESH_POST_1_v();
+         case 77: return s.quant_vague_bags_1_v();
+         case 78: return s.quant_vague_bit_1_v();
+         case 79: return s.quant_vague_bit_2_v();
+         case 80: return s.quant_vague_couple_1_v();
+         case 81: return s.quant_vague_enough_1_v();
+         case 82: return s.quant_vague_few_1_v();
+         case 83: return s.quant_vague_few_2_v();
+         case 84: return s.quant_vague_few_3_v();
+         case 85: return s.quant_vague_heaps_1_v();
+         case 86: return s.quant_vague_little_1_v();
+         case 87: return s.quant_vague_little_3_v();
+         case 88: return s.quant_vague_lot_1_v();
+         case 89: return s.quant_vague_lots_1_v();
+         case 90: return s.quant_vague_many_1_v();
+         case 91: return s.quant_vague_much_1_v();
+         case 92: return s.quant_vague_piles_1_v();
+         case 93: return s.quant_vague_several_1_v();
+         case 94: return s.quant_vague_tons_1_v();
+         case 95: return s.quantity_np_QUANT_VAGUE_NP_1_v();
+         case 96: return s.quantity_p_CARD_P_1_v();
+         case 97: return s.quantity_p_QUANTITY_1_v();
+         case 98: return s.quantity_p_QUANTITY_P_1_v();
+         case 99: return s.quantity_p_QUANT_VAGUE_P_1_v();
+         default: throw new IllegalArgumentException("No case " + index);
+      }
+   }
+} // end class NpXDemoDispatcher
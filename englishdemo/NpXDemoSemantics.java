@@ -1,10 +1,13 @@
 package englishdemo;
 import asd.*;
 
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.StringTokenizer;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import semanticvalues.*;
 import semanticvalues.ModifiableSemantics;
@@ -48,10 +51,28 @@ public class NpXDemoSemantics implements asd.ASDSemantics
    NpXDemoSemantics(Object givenApplication)
    {  application = givenApplication;
       parser = new ASDParser(application, this);
-      parser.useGrammar(GRAMMARNAME);
+      parser.useGrammar(sharedGrammar());
+      parser.bindSemantics(this, NpXDemoDispatcher.INSTANCE);
       expectedTypes = EXPECTEDTYPES;
    }
 
+   /**
+      Returns the grammar in the file named GRAMMARNAME, which is
+      loaded and frozen the first time it is requested and then shared
+      by all instances; null if it cannot be loaded.
+    */
+   private static synchronized ASDGrammar sharedGrammar()
+   {  if (frozenGrammar == null)
+         try
+         {  frozenGrammar
+               = new ASDGrammar(GRAMMARNAME, false, true).freeze();
+         }
+         catch(IOException e)  // also catches ASDInputExceptions
+         {  return null;  // grammar not successfully loaded
+         }
+      return frozenGrammar;
+   } // end sharedGrammar
+
    /**
       Returns a representation of the current phrase structure in
       parenthesized form as provided by the ASD parser.
@@ -65,18 +86,56 @@ public class NpXDemoSemantics implements asd.ASDSemantics
       @return true if successful, false if unsuccessful.
     */
    public boolean completeParse()
-   {  if (utterance == null || utterance.equals(""))
+   {  return completeParse(0, null);
+   }
+
+   /**
+      Attempts to complete a parse of the current phrase structure
+      before a given deadline, and unless it is cancelled.  Both are
+      checked before each advance step, and within the searches for
+      the subphrase cache, whose steps are counted with the others.
+      @param deadlineNanos the value of System.nanoTime() at which to
+      stop; 0 for no deadline
+      @param cancelled a flag which another thread may set to stop the
+      parse; null if it is not to be cancelled
+      @return true if successful, false if unsuccessful.
+    */
+   public boolean completeParse(long deadlineNanos, AtomicBoolean cancelled)
+   {  if (utteranceTokens == null || utteranceTokens.length == 0)
          return false;
       String advanceResult; // SUCCEED, NOADVANCE, or QUIT
       parseCompleted = false;
+      exhausted = false;
       resultMessage = "";
+      long start = parser.parseBegun(deadlineNanos, cancelled);
+      int maxSteps = stepBudget();
 
-      while(steps < MAXSTEPS)
-      {  advanceResult = parser.advance();
+      while(steps < maxSteps)
+      {  if (cancelled != null && cancelled.get())
+         {  resultMessage +=
+               "Parse cancelled after " + steps + " advance steps.";
+            lastSteps = steps;
+            parser.parseEnded(start,
+               ASDParseOutcome.CANCELLED, steps);
+            return false;
+         }
+         if (deadlineNanos != 0 && System.nanoTime() - deadlineNanos >= 0)
+         {  resultMessage +=
+               "Parse timed out after " + steps + " advance steps.";
+            lastSteps = steps;
+            parser.parseEnded(start,
+               ASDParseOutcome.TIMED_OUT, steps);
+            return false;
+         }
+         advanceResult = parser.advance();
+         steps += parser.takeSearchSteps();
+            // the steps of searches for the subphrase cache
          if (advanceResult.equals(parser.QUIT))
          {  resultMessage +=
                "Parse quit after " + steps + " advance steps.";
             parseCompleted = false;
+            lastSteps = steps;
+            parser.parseEnded(start, ASDParseOutcome.QUIT, steps);
             return false;
          }
          else if (advanceResult.equals(parser.SUCCEED))
@@ -85,6 +144,9 @@ public class NpXDemoSemantics implements asd.ASDSemantics
             {  resultMessage +=
                   "Successful parse in " + steps + " advance steps.";
                parseCompleted = true;
+               lastSteps = steps;
+               parser.parseEnded(start, ASDParseOutcome.SUCCEEDED,
+                  steps);
                steps = 0; // prepare for an attempt at an alternative parse
                return true;
             }
@@ -93,9 +155,11 @@ public class NpXDemoSemantics implements asd.ASDSemantics
          {  if (!parser.backup())
             {  if (strict)
                {  // re-initialize for non-strict parse
-                  parser.initialize(utterance, expectedTypes);
-                  steps = 0;
                   strict = false;
+                  useSubphraseCache();
+                  parser.reset();
+                  parser.initialize(utteranceTokens, expectedTypes);
+                  steps = 0;
                   resultMessage =
                      "Re-initialized for non-strict parsing.\n";
                   parseCompleted = false;
@@ -103,6 +167,10 @@ public class NpXDemoSemantics implements asd.ASDSemantics
                else
                {  resultMessage +=
                      "Parse failed after " + steps + " advance steps.";
+                  exhausted = true;
+                  lastSteps = steps;
+                  parser.parseEnded(start,
+                     ASDParseOutcome.EXHAUSTED, steps);
                   steps = 0; // prepare for an attempt at an alternative parse
                   parseCompleted = false;
                   return false;
@@ -114,13 +182,27 @@ public class NpXDemoSemantics implements asd.ASDSemantics
                "Invalid result of ASDParser advance(maxSteps) in "
                + steps + " steps.";
             parseCompleted = false;
+            lastSteps = steps;
+            parser.parseEnded(start, ASDParseOutcome.QUIT, steps);
             return false;
          }
       }
+      resultMessage +=
+         "Parse abandoned after " + steps + " advance steps.";
+      lastSteps = steps;
+      parser.parseEnded(start, ASDParseOutcome.STEP_LIMIT, steps);
       return false;
    } // end completeParse
 
    /**
+      Returns the number of advance steps taken by the most recent
+      invocation of completeParse, as reported in its result message.
+    */
+   int getParseSteps()
+   {  return lastSteps;
+   }
+
+   /**
       Returns the current node in the phrase structure being parsed.
     */
    public ASDPhraseNode currentNode()
@@ -158,12 +240,164 @@ public class NpXDemoSemantics implements asd.ASDSemantics
     */
    public void initializePhrase(String phrase, boolean strictFlag)
    {  originalUtterance = phrase;
-      utterance = morphologicallyAnalyze(originalUtterance);
+      utteranceTokens = morphologicalTokens(originalUtterance);
       strict = strictFlag;
-      parser.initialize(utterance, expectedTypes);
+      steps = 0;
+      useSubphraseCache();
+      parser.reset();  // done with the previous phrase
+      parser.initialize(utteranceTokens, expectedTypes);
    }
 
    /**
+      Finds the parses of a given phrase, up to a given number of them,
+      as initializePhrase followed by repeated calls of completeParse
+      would find them.  If a cache has been given by setParseCache,
+      the parses are taken from it if they are there, and put into it
+      if all of the parses were found.  The cache holds deep copies of
+      the semantic values, and the values returned from it are deep
+      copies too, which the caller may change without affecting it.
+      @param phrase the phrase to be parsed
+      @param strictFlag indicates whether or not to use strict grammar
+      rules first
+      @param maxParses the maximum number of parses to find
+      @return an unmodifiable list of ASDParseResult instances, in the
+      order in which they were found
+    */
+   public List<ASDParseResult> parsePhrase(String phrase,
+      boolean strictFlag, int maxParses)
+   {  String[] tokens = morphologicalTokens(phrase);
+      String key = String.join(" ", tokens);
+      ASDParseCache cache = parseCache;
+      List<ASDParseResult> cached = cache == null ? null
+         : cache.get(parser.lexicon(), key, expectedTypes, strictFlag);
+      ASDParserMetrics metrics = parser.getMetrics();
+      if (cache != null && metrics != null)
+         metrics.recordCacheLookup(GRAMMARNAME, expectedTypes,
+            cached != null);
+      if (cached != null)
+         return copyValues(cached.size() <= maxParses ? cached
+                              : cached.subList(0, maxParses));
+
+      initializePhrase(phrase, strictFlag);
+      ArrayList<ASDParseResult> results = new ArrayList<ASDParseResult>();
+      while (results.size() < maxParses && completeParse())
+      {  ASDPhraseNode top = parser.phraseStructure().nextNode();
+         Object value = cache == null ? top.value() : copyValue(top.value());
+         results.add(new ASDParseResult(parser.bracketPhrase(), top.word(),
+            value, lastSteps, results.size()));
+      }
+      if (cache != null && exhausted)
+         cache.put(parser.lexicon(), key, expectedTypes, strictFlag,
+            results);
+      return cache == null ? Collections.unmodifiableList(results)
+                           : copyValues(results);
+   } // end parsePhrase
+
+   /**
+      Returns a copy of a list of ASDParseResult instances, in which
+      each semantic value that can be changed is a deep copy.
+    */
+   private static List<ASDParseResult> copyValues(
+      List<ASDParseResult> results)
+   {  ArrayList<ASDParseResult> copy
+         = new ArrayList<ASDParseResult>(results.size());
+      for (int j = 0; j < results.size(); ++j)
+      {  ASDParseResult r = results.get(j);
+         copy.add(new ASDParseResult(r.bracketedPhrase(), r.phraseType(),
+            copyValue(r.value()), r.steps(), r.index()));
+      }
+      return Collections.unmodifiableList(copy);
+   } // end copyValues
+
+   /**
+      Returns a deep copy of a given semantic value if it is a
+      SemanticValue, or the value itself otherwise.  It can be given
+      to an ASDSubphraseCache shared by parsers in different threads
+      as its value copier, NpXDemoSemantics::copyValue.
+    */
+   public static Object copyValue(Object value)
+   {  if (value instanceof SemanticValue)
+         return ((SemanticValue) value).deepCopy();
+      return value;
+   }
+
+   /**
+      Sets the cache, which may be shared by other instances, in which
+      parsePhrase keeps the parses it has found.
+      @param cache the cache; null for none
+    */
+   public void setParseCache(ASDParseCache cache)
+   {  parseCache = cache;
+   }
+
+   /**
+      Returns the cache set by setParseCache; null if none.
+    */
+   public ASDParseCache getParseCache()
+   {  return parseCache;
+   }
+
+   /**
+      Sets the cache, which may be shared by other instances, from
+      which the parser splices in subphrases that it has completed
+      before.  Since the semantic actions depend on whether parsing
+      is strict, so does the cache key.  Since the semantic values
+      are mutable, a cache shared with other instances should copy
+      them, with copyValue as its value copier.
+      @param cache the cache; null for none
+    */
+   public void setSubphraseCache(ASDSubphraseCache cache)
+   {  subphraseCache = cache;
+      useSubphraseCache();
+   }
+
+   /**
+      Returns the cache set by setSubphraseCache; null if none.
+    */
+   public ASDSubphraseCache getSubphraseCache()
+   {  return subphraseCache;
+   }
+
+   /**
+      Sets the metrics, which may be shared by other instances, in
+      which the parser records its attempts to parse phrases, and
+      parsePhrase its lookups in the cache set by setParseCache.  The
+      step budget of the metrics, if it is not 0, replaces MAXSTEPS
+      as the maximum number of advance steps for each attempt.
+      @param metrics the metrics; null for none
+    */
+   public void setMetrics(ASDParserMetrics metrics)
+   {  parser.setMetrics(metrics, GRAMMARNAME);
+   }
+
+   /**
+      Returns the metrics set by setMetrics; null if none.
+    */
+   public ASDParserMetrics getMetrics()
+   {  return parser.getMetrics();
+   }
+
+   /**
+      Returns the maximum number of advance steps for an attempt to
+      parse a phrase: the step budget of the metrics, if there are
+      any and it is not 0, or else MAXSTEPS.
+    */
+   private int stepBudget()
+   {  ASDParserMetrics metrics = parser.getMetrics();
+      int budget = metrics == null ? 0 : metrics.getStepBudget();
+      return budget > 0 ? budget : MAXSTEPS;
+   }
+
+   /**
+      Gives the subphrase cache to the parser, with the strictness of
+      parsing as its context.
+    */
+   private void useSubphraseCache()
+   {  parser.setSubphraseCache(subphraseCache,
+         strict ? Boolean.TRUE : Boolean.FALSE);
+   }
+
+   /**
       Does a preliminary analysis of the phrase to be parsed,
       separating punctuation marks, including apostrophes, from
       the words they are adjacent to or imbedded in.  Tokens
@@ -172,27 +406,62 @@ public class NpXDemoSemantics implements asd.ASDSemantics
       @return the result with tokens separated by spaces
     */
    String morphologicallyAnalyze(String phrase)
-   {  String result = "";
-      StringTokenizer tokenizer = new StringTokenizer(phrase,
-         parser.SPACECHARS + parser.SPECIALCHARS, true);
+   {  String[] tokens = morphologicalTokens(phrase);
+      StringBuilder result = new StringBuilder();
+      for (int j = 0; j < tokens.length; ++j)
+         result.append(' ').append(tokens[j]);
+      return result.toString();
+   } // end morphologically Analyze
+
+   /**
+      Does the same preliminary analysis as morphologicallyAnalyze,
+      but returns the tokens of the result instead of joining them,
+      so that they can be passed to the parser without being divided
+      again.  Each token with an apostrophe is expanded by
+      EnglishWord.expandApostrophe, and the words of its expansion
+      become separate tokens.
+      @param phrase the string to be analyzed
+      @return the tokens, in order
+    */
+   String[] morphologicalTokens(String phrase)
+   {  String delimiters = parser.SPACECHARS + parser.SPECIALCHARS;
+      ArrayList<String> tokens = new ArrayList<String>();
+      StringBuilder expansion = new StringBuilder();
+      int length = phrase.length();
+      int position = 0;
       // Punctuation marks must be separated from words before
-      // the EnglishWord.processApostrophe method is applied.
-      while(tokenizer.hasMoreTokens())
-      {  String token = tokenizer.nextToken().trim();
-         if (token.length() == 1) // punctuation or one-letter word
-            result = result + " " + token;
-         else if (token.length() > 1)
-         {   ArrayList apostropheResult
-               = (ArrayList)EnglishWord.processApostrophe(token);
-            if (apostropheResult == null)
-               result = result + " " + token;
-            else
-               result = result + " " + (String)apostropheResult.get(0);
+      // the apostrophes are processed.
+      while (position < length)
+      {  int start = position;
+         if (delimiters.indexOf(phrase.charAt(position)) >= 0)
+            ++position;
+         else
+            do ++position;
+            while (position < length
+                   && delimiters.indexOf(phrase.charAt(position)) < 0);
+         int end = position;
+         while (start < end && phrase.charAt(start) <= ' ') ++start;
+         while (end > start && phrase.charAt(end - 1) <= ' ') --end;
+         if (end - start == 1) // punctuation or one-letter word
+            tokens.add(phrase.substring(start, end));
+         else if (end > start)
+         {  String token = phrase.substring(start, end);
+            expansion.setLength(0);
+            if (EnglishWord.expandApostrophe(token, expansion) == null)
+               tokens.add(token);
+            else // add the words of the expansion
+               for (int from = 0; from < expansion.length(); )
+               {  int to = expansion.indexOf(" ", from);
+                  if (to < 0) to = expansion.length();
+                  if (to > from)
+                     tokens.add(expansion.substring(from, to));
+                  from = to + 1;
+               }
          }
          // whitespace tokens are ignored
       }
-      return result;
-   } // end morphologically Analyze
+      return tokens.toArray(new String[0]);
+   } // end morphologicalTokens
 
    /**
       Returns the value of the current node in the phrase structure
@@ -359,6 +628,14 @@ public class NpXDemoSemantics implements asd.ASDSemantics
    {  parser.setSaveUniquelyParsedSubphrases(save);
    }
 
+   /**
+      Returns the ASDParser being used, so that NpXDemoBenchmark can
+      change how it evaluates semantic actions and values.
+    */
+   ASDParser parser()
+   {  return parser;
+   }
+
    // helping functions to abbreviate calls to parser methods:
 
    private Object get(String feature)
@@ -1741,17 +2018,29 @@ public class NpXDemoSemantics implements asd.ASDSemantics
    private ASDGrammar grammar;
    //private static String GRAMMARNAME = "http://home.asd-networks.com/prj_asd/englishdemoproject/npXdemo.grm";
    private static String GRAMMARNAME = "npXdemo.grm";
+   private static ASDGrammar frozenGrammar = null;
+      // the grammar shared by all instances, once it has been loaded
    
    private ArrayList expectedTypes = null;
    static final ArrayList EXPECTEDTYPES = new ArrayList(3);
    static final int MAXSTEPS = 40000;
    private boolean parseCompleted = false;
    private int steps;
-   private String utterance;
+   private String[] utteranceTokens;
+      // the tokens of the utterance after morphological analysis
    private String originalUtterance;
    private String resultMessage = "";
-   private static boolean strict = true; // indicates whether or not
+   private boolean strict = true; // indicates whether or not
       // parse should follow grammar rules strictly
+   private int lastSteps;
+      // the number of advance steps taken by the latest completeParse
+   private boolean exhausted;
+      // whether the latest completeParse failed because there were
+      // no more parses
+   private ASDParseCache parseCache = null;
+      // the cache used by parsePhrase; null if none
+   private ASDSubphraseCache subphraseCache = null;
+      // the cache of subphrases used by the parser; null if none
    static
    {  EXPECTEDTYPES.add("QUANTITY-P");
       EXPECTEDTYPES.add("QUANTITY-NP");
@@ -27,6 +27,10 @@ public class ProbabilitySemantics extends ModifiableSemantics
          return false;
    }
 
+   public int hashCode()
+   {  return judgment.value;
+   }
+
    public SemanticValue modifyBy(String modifierName,
          SemanticValue modifier)
    {  ModifiableSemantics result = null;
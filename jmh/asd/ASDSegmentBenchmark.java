@@ -0,0 +1,90 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+   ASDSegmentBenchmark holds the JMH benchmarks of ASDParser.segment,
+   which divides an utterance into the chain of ASDPhraseNodes to be
+   parsed, either from a whole string or from tokens already divided
+   by the application.  It is in the package asd because segment is
+   not public, so that nothing else is timed with it.  The words are
+   classified by the grammar npXdemo.grm as they are segmented.
+   <BR><BR>
+   Command-line usage, from the directory containing npXdemo.grm:
+   <BR><tt><b> mvn -P jmh package</b></tt>
+   <BR><tt><b> java -jar target/benchmarks.jar ASDSegmentBenchmark -prof gc</b></tt>
+   @version 1.00 2026 Oct
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ASDSegmentBenchmark
+{
+   @Setup
+   public void setUp() throws java.io.IOException
+   {  // also throws ASDInputExceptions
+      parser.useGrammar(new ASDGrammar(GRAMMARNAME, false, true));
+      // Initializing the parser once looks up the special words of
+      // the grammar, which segment uses to classify the tokens.
+      ArrayList expected = new ArrayList();
+      expected.add("QUANTITY-P");
+      parser.initialize(PHRASES[0], expected);
+      tokens = new String[PHRASES.length][];
+      for (int j = 0; j < PHRASES.length; ++j)
+         tokens[j] = PHRASES[j].split(" ");
+   }
+
+   @Benchmark
+   public ASDPhraseNode segmentString()
+   {  return parser.segment(PHRASES[next()]);
+   }
+
+   @Benchmark
+   public ASDPhraseNode segmentTokens()
+   {  return parser.segment(tokens[next()]);
+   }
+
+   /**
+      Returns the index of the next phrase, cyclically.
+    */
+   private int next()
+   {  int result = position;
+      if (++position == PHRASES.length) position = 0;
+      return result;
+   }
+
+   private static final String GRAMMARNAME = "npXdemo.grm";
+
+   private static final String[] PHRASES = { "a few", "many", "three",
+      "twenty one", "21st", "the last two", "far too many",
+      "very very very far too many", "more than three hundred",
+      "at least 5,000", "so very many", "\"a lot\"", "3 thousand",
+      "two hundred and fifty", "one hundred twenty three",
+      "nine hundred ninety nine thousand", "about 3.5 percent (roughly)" };
+
+   private final ASDParser parser = new ASDParser();
+   private String[][] tokens;
+   private int position = 0;
+} // end class ASDSegmentBenchmark
@@ -0,0 +1,185 @@
+package englishdemo;
+import asd.ASDGrammar;
+import asd.ASDParser;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import semanticvalues.SemanticValue;
+
+/**
+   NpXDemoBenchmark holds the JMH benchmarks of the parts of the ASD
+   parser and of the englishdemo semantics whose performance matters
+   most: loading the grammar npXdemo.grm, dividing phrases into tokens,
+   parsing short, long and ambiguous phrases of the types QUANTITY-P,
+   QUANTITY-NP and ORDIR-P, evaluating semantic actions and values by
+   reflection, through generated lambdas and through NpXDemoDispatcher,
+   and modifying semantic values with modifyBy.  The segmentation of
+   tokens by the parser is benchmarked by asd.ASDSegmentBenchmark.
+   <BR><BR>
+   Each parse benchmark finds all of the parses of one phrase of a
+   corpus, the next one each time, as NPXDemoTester does.  The corpus
+   and the way in which the semantic actions and values are evaluated
+   are the JMH parameters corpus and binding.
+<BR><BR>
+   Command-line usage, from the directory containing npXdemo.grm:
+   <BR><tt><b> mvn -P jmh package</b></tt>
+   <BR><tt><b> java -jar target/benchmarks.jar NpXDemoBenchmark -prof gc</b></tt>
+   <BR>where -prof gc reports the bytes allocated per operation, and
+   for example -p corpus=long -p binding=dispatcher selects some of
+   the parse benchmarks.
+
+   @version 1.00 2026 Oct
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NpXDemoBenchmark
+{
+   @Benchmark
+   public ASDGrammar grammarLoad() throws IOException
+   {  // also throws ASDInputExceptions
+      return new ASDGrammar(GRAMMARNAME, false, true);
+   }
+
+   @Benchmark
+   public String[] tokens(Phrases phrases)
+   {  return phrases.semantics.morphologicalTokens(phrases.next());
+   }
+
+   @Benchmark
+   public int parse(Parses parses)
+   {  NpXDemoSemantics semantics = parses.semantics;
+      int result = 0;
+      semantics.initializePhrase(parses.next(), true);
+      while (semantics.completeParse())
+         ++result;
+      return result;
+   }
+
+   @Benchmark
+   public SemanticValue modifyBySimplified()
+   {  return magnitude.modifyBy(grader, true);
+   }
+
+   @Benchmark
+   public SemanticValue modifyByNamed()
+   {  return magnitude.modifyBy(grader, false);
+   }
+
+   @Benchmark
+   public SemanticValue modifyByQuantity()
+   {  return quantity.modifyBy(grader);
+   }
+
+   /**
+      Instances are the states of benchmarks whose operations each use
+      the next phrase of the whole corpus, cyclically.
+    */
+   @State(Scope.Thread)
+   public static class Phrases
+   {  @Setup
+      public void setUp()
+      {  semantics = new NpXDemoSemantics(this);
+         phrases = ALL;
+         position = 0;
+      }
+
+      /**
+         Returns the next phrase.
+       */
+      String next()
+      {  String result = phrases[position];
+         if (++position == phrases.length) position = 0;
+         return result;
+      }
+
+      NpXDemoSemantics semantics;
+      private String[] phrases;
+      private int position;
+   } // end class Phrases
+
+   /**
+      Instances are the states of the parse benchmarks, whose parsers
+      evaluate the semantic actions and values through
+      NpXDemoDispatcher, through lambdas made when the grammar was
+      loaded, or by reflection, as given by the binding parameter.
+    */
+   @State(Scope.Thread)
+   public static class Parses
+   {  @Param({"short", "long", "ambiguous", "all"})
+      public String corpus;
+
+      @Param({"dispatcher", "lambda", "reflective"})
+      public String binding;
+
+      @Setup
+      public void setUp()
+      {  semantics = new NpXDemoSemantics(this);
+         phrases = corpus(corpus);
+         position = 0;
+         ASDParser parser = semantics.parser();
+         if (binding.equals("lambda"))
+            parser.bindSemantics(semantics, null);
+         else if (binding.equals("reflective"))
+            // The strings are passed to NpXDemoSemantics.semanticAction
+            // and semanticValue, which look the methods up by name.
+            parser.bindSemantics(null);
+         else
+            parser.bindSemantics(semantics, NpXDemoDispatcher.INSTANCE);
+      }
+
+      /**
+         Returns the next phrase.
+       */
+      String next()
+      {  String result = phrases[position];
+         if (++position == phrases.length) position = 0;
+         return result;
+      }
+
+      NpXDemoSemantics semantics;
+      private String[] phrases;
+      private int position;
+   } // end class Parses
+
+   /**
+      Returns the corpus of phrases with a given name.
+    */
+   static String[] corpus(String name)
+   {  if (name.equals("short")) return SHORT;
+      if (name.equals("long")) return LONG;
+      if (name.equals("ambiguous")) return AMBIGUOUS;
+      return ALL;
+   }
+
+   private static final String GRAMMARNAME = "npXdemo.grm";
+
+   private static final String[] SHORT = { "a few", "many", "three",
+      "first", "lots", "most", "few", "several" };
+   private static final String[] LONG = { "very very very far too many",
+      "more than three hundred", "one hundred twenty three",
+      "the last two", "at least five", "almost all" };
+   private static final String[] AMBIGUOUS = {
+      "nine hundred ninety nine thousand", "two hundred and fifty",
+      "so very many", "rather many", "not many", "twenty one" };
+   private static final String[] ALL = { "a few", "many", "three",
+      "twenty one", "21st", "first", "the last two", "far too many",
+      "very very very far too many", "more than three hundred",
+      "at least five", "so very many", "a lot", "lots",
+      "two hundred and fifty", "most", "exactly twelve", "not many",
+      "several", "fifteenth", "a couple", "almost all", "3 thousand",
+      "very few", "way too many", "one hundred twenty three",
+      "the next three", "few", "too few", "rather many",
+      "nine hundred ninety nine thousand" };
+
+   private final MagnitudeSemantics magnitude = new MagnitudeSemantics(3);
+   private final GraderSemantics grader = new GraderSemantics(2);
+   private final SemanticValue quantity
+      = new QuantityVagueSemantics(new MagnitudeSemantics(3));
+} // end class NpXDemoBenchmark
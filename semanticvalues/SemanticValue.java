@@ -18,6 +18,39 @@ public abstract class SemanticValue implements Cloneable
       }
    }
 
+   /**
+      Returns a copy of the instance in which each member variable
+      whose value is a SemanticValue refers to a deep copy of that
+      value, so that the copy can be changed, or kept unchanged,
+      independently of the instance.  Other member variables are
+      copied as by clone.
+      @return the copy
+    */
+   public SemanticValue deepCopy()
+   {  SemanticValue result = (SemanticValue) clone();
+      Class currentClass = getClass();
+      while (currentClass != null && currentClass != SemanticValue.class)
+      {  Field[] fields = currentClass.getDeclaredFields();
+         AccessibleObject.setAccessible(fields, true);
+         for (int j = 0; j < fields.length; j++)
+         {  if (Modifier.isStatic(fields[j].getModifiers())
+                || !SemanticValue.class.isAssignableFrom(
+                       fields[j].getType()))
+               continue;
+            try
+            {  SemanticValue member = (SemanticValue) fields[j].get(result);
+               if (member != null)
+                  fields[j].set(result, member.deepCopy());
+            }
+            catch (IllegalAccessException e) {
+               System.out.println(e);
+               }
+         }
+         currentClass = currentClass.getSuperclass();
+      }
+      return result;
+   } // end deepCopy
+
    /**
       Attempts to assign a given SemanticValue as value to a member
       variable of the same type as the class of the modifier,
@@ -0,0 +1,182 @@
+/*
+
+Copyright 2026 npXEnglishDemo contributors
+
+Licensed under the Apache License, Version 2.0 (the "License"); you may not
+use this file except in compliance with the License. You may obtain a copy
+of the License at
+
+http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+License for the specific language governing permissions and limitations
+under the License.
+
+ */
+
+package asd;
+import java.util.ArrayList;
+import org.junit.Before;
+import org.junit.Test;
+import semanticvalues.SemanticValue;
+import static org.junit.Assert.*;
+
+/**
+   Tests of ASDChartParser with catalan.grm, in which S -> a | S S,
+   so that a string of n a's has as many parses as there are binary
+   trees with n leaves.  The semantic value of every S is a new
+   TestValue, equal to every other, as the values computed by an
+   application for different parses of a subphrase may be.
+ */
+public class ASDChartParserTest
+{
+   @Before
+   public void setUp() throws java.io.IOException
+   {  parser = new ASDParser(null, new TestSemantics());
+      parser.useGrammar(new ASDGrammar(GRAMMAR, false, true));
+      expected = new ArrayList<String>();
+      expected.add("S");
+      chart = new ASDChartParser(parser);
+   }
+
+   @Test
+   public void countsEveryParse()
+   {  long[] catalan = { 1, 1, 2, 5, 14, 42, 132, 429, 1430, 4862 };
+      for (int n = 1; n <= catalan.length; ++n)
+      {  assertTrue(chart.parse(words(n), expected, STEPS) > 0);
+         assertEquals(1, chart.parseCount());
+         assertEquals("parses of " + n + " words",
+            catalan[n - 1], chart.forest().parseCount());
+      }
+   }
+
+   @Test
+   public void mergesEqualValues()
+   {  // one subphrase for each span, not one for each way of parsing it
+      int n = 12;
+      chart.parse(words(n), expected, STEPS);
+      assertEquals(n * (n + 1) / 2, chart.subphraseCount());
+   }
+
+   @Test
+   public void mergesStructurallyEquivalentValues()
+   {  // PlainValues do not override equals, so they are merged only
+      // by an ASDStructuralEquivalence
+      ASDParser plain = new ASDParser(null, new TestSemantics(true));
+      plain.useGrammar(parser.lexicon());
+      int n = 6;
+      ASDChartParser byEquals = new ASDChartParser(plain);
+      byEquals.parse(words(n), expected, STEPS);
+      assertTrue(byEquals.subphraseCount() > n * (n + 1) / 2);
+      ASDChartParser byMembers
+         = new ASDChartParser(plain, new ASDStructuralEquivalence());
+      byMembers.parse(words(n), expected, STEPS);
+      assertEquals(n * (n + 1) / 2, byMembers.subphraseCount());
+      assertEquals(42, byMembers.forest().parseCount());
+   }
+
+   @Test
+   public void stepsGrowPolynomially()
+   {  int previous = chart.parse(words(8), expected, STEPS);
+      for (int n = 16; n <= 64; n *= 2)
+      {  int steps = chart.parse(words(n), expected, STEPS);
+         assertTrue("steps for " + n + " words", steps > 0);
+         // at most cubic: doubling n multiplies the steps by about 8
+         assertTrue("steps for " + n + " words: " + steps + " after "
+            + previous, steps <= 10 * previous);
+         previous = steps;
+      }
+   }
+
+   @Test
+   public void extractsEachParse()
+   {  chart.parse(words(4), expected, STEPS);
+      ASDParseForest forest = chart.forest();
+      java.util.HashSet<String> brackets = new java.util.HashSet<String>();
+      for (long k = 0; k < forest.parseCount(); ++k)
+         brackets.add(parser.bracketPhrase(forest.parse(k).nextNode()));
+      assertEquals(5, brackets.size());
+   }
+
+   @Test
+   public void sharesAmbiguousSubphrases()
+   {  chart.parse(words(2), expected, STEPS);
+      assertEquals(0, chart.forest().ambiguityCount());
+
+      // "a a a" is (a a) a or a (a a): one subphrase for the whole
+      // string, completed at two final items, one for each subphrase
+      // it may end with, "a" or "a a".
+      chart.parse(words(3), expected, STEPS);
+      ASDParseForest forest = chart.forest();
+      assertEquals(1, forest.rootCount());
+      assertEquals(2, forest.parseCount());
+      assertEquals(1, forest.ambiguityCount());
+
+      chart.parse(words(5), expected, STEPS);
+      forest = chart.forest();
+      assertEquals(14, forest.parseCount());
+      assertTrue(forest.ambiguityCount() > 1);
+   }
+
+   /**
+      Returns a string of n a's.
+    */
+   private static String words(int n)
+   {  StringBuilder result = new StringBuilder("a");
+      for (int j = 1; j < n; ++j)
+         result.append(" a");
+      return result.toString();
+   }
+
+   /**
+      Instances evaluate every semantic value as a new TestValue, or
+      PlainValue, and every semantic action as success.
+    */
+   static class TestSemantics implements ASDSemantics
+   {  TestSemantics() { this(false); }
+
+      TestSemantics(boolean givenPlain) { plain = givenPlain; }
+
+      public String semanticAction(String action) { return null; }
+
+      public Object semanticValue(String value)
+      {  return plain ? new PlainValue(value) : new TestValue(value);
+      }
+
+      private final boolean plain;
+   } // end class TestSemantics
+
+   /**
+      Instances are semantic values which are equal if their types are.
+    */
+   public static class TestValue extends SemanticValue
+   {  TestValue(String givenType) { type = givenType; }
+
+      public boolean equals(Object otherObject)
+      {  return otherObject instanceof TestValue
+            && type.equals(((TestValue) otherObject).type);
+      }
+
+      public int hashCode() { return type.hashCode(); }
+
+      String type;
+   } // end class TestValue
+
+   /**
+      Instances are semantic values which do not override equals.
+    */
+   public static class PlainValue extends SemanticValue
+   {  PlainValue(String givenType) { type = givenType; }
+
+      String type;
+   } // end class PlainValue
+
+   private static final String GRAMMAR = "test/asd/catalan.grm";
+   private static final int STEPS = 10000000;
+
+   private ASDParser parser;
+   private ArrayList<String> expected;
+   private ASDChartParser chart;
+} // end class ASDChartParserTest
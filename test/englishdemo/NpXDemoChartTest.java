@@ -0,0 +1,67 @@
+package englishdemo;
+import asd.ASDChartParser;
+import asd.ASDParseForest;
+import asd.ASDParser;
+import asd.ASDStructuralEquivalence;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+   Tests of ASDChartParser with npXdemo.grm and NpXDemoSemantics.
+ */
+public class NpXDemoChartTest
+{
+   /**
+      The steps needed for "very ... very far too many" grow no faster
+      than the square of the number of words: doubling the number of
+      "very"s should multiply them by about 4.
+    */
+   @Test
+   public void veryFarTooManyGrowsPolynomially()
+   {  int previous = steps(4);
+      for (int k = 8; k <= 32; k *= 2)
+      {  int steps = steps(k);
+         assertTrue(k + " verys: " + steps + " steps after " + previous,
+            steps > 0 && steps <= 6 * previous);
+         previous = steps;
+      }
+   }
+
+   /**
+      Without semantics, "two hundred and fifty" has two parses, which
+      differ only in the path through the grammar by which one node
+      is reached, and are packed into one item with two arrivals.
+    */
+   @Test
+   public void packsTheParsesOfAnAmbiguousPhrase()
+   {  ASDParser parser = new ASDParser();
+      assertTrue(parser.useGrammar("npXdemo.grm"));
+      ASDChartParser chart
+         = new ASDChartParser(parser, new ASDStructuralEquivalence());
+      chart.parse("two hundred and fifty", NpXDemoSemantics.EXPECTEDTYPES,
+         STEPS);
+      ASDParseForest forest = chart.forest();
+      assertEquals(1, forest.rootCount());
+      assertEquals(2, forest.parseCount());
+      assertEquals(1, forest.ambiguityCount());
+   }
+
+   /**
+      Returns the number of steps the chart parser needs for "far too
+      many" preceded by k "very"s.
+    */
+   private int steps(int k)
+   {  StringBuilder phrase = new StringBuilder();
+      for (int j = 0; j < k; ++j)
+         phrase.append("very ");
+      phrase.append("far too many");
+      ASDChartParser chart = new ASDChartParser(semantics.parser(),
+         new ASDStructuralEquivalence());
+      return chart.parse(semantics.morphologicallyAnalyze(
+         phrase.toString()), NpXDemoSemantics.EXPECTEDTYPES, STEPS);
+   }
+
+   private static final int STEPS = 10000000;
+
+   private final NpXDemoSemantics semantics = new NpXDemoSemantics(this);
+} // end class NpXDemoChartTest
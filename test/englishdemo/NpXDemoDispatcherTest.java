@@ -0,0 +1,43 @@
+package englishdemo;
+import asd.ASDDispatcherGenerator;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+   Tests that NpXDemoDispatcher is up to date with the grammar that
+   NpXDemoSemantics loads.
+ */
+public class NpXDemoDispatcherTest
+{
+   /**
+      The checked-in source of NpXDemoDispatcher is what
+      ASDDispatcherGenerator generates from npXdemo.grm.  If this
+      fails, the grammar has changed; run the generator again as
+      described in its class comment.
+    */
+   @Test
+   public void matchesTheGeneratedSource() throws java.io.IOException
+   {  ASDDispatcherGenerator generator = new ASDDispatcherGenerator(
+         "englishdemo.NpXDemoSemantics", "englishdemo.NpXDemoDispatcher");
+      generator.addGrammar(GRAMMAR);
+      StringWriter generated = new StringWriter();
+      PrintWriter out = new PrintWriter(generated);
+      generator.write(out);
+      out.close();
+      List<String> checkedIn = Files.readAllLines(Paths.get(SOURCE));
+      String[] lines = generated.toString().split("\\R");
+      for (int j = 0; j < lines.length && j < checkedIn.size(); ++j)
+         assertEquals(SOURCE + " line " + (j + 1), lines[j],
+            checkedIn.get(j));
+      assertEquals(SOURCE + " lines", lines.length, checkedIn.size());
+   }
+
+   private static final String GRAMMAR = "npXdemo.grm";
+      // the grammar file that NpXDemoSemantics loads
+   private static final String SOURCE = "englishdemo/NpXDemoDispatcher.java";
+} // end class NpXDemoDispatcherTest
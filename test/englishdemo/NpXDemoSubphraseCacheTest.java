@@ -0,0 +1,127 @@
+package englishdemo;
+import asd.ASDParseStats;
+import asd.ASDPhraseNode;
+import asd.ASDSubphraseCache;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import org.junit.Test;
+import semanticvalues.SemanticValue;
+import static org.junit.Assert.*;
+
+/**
+   Tests of ASDSubphraseCache with npXdemo.grm and NpXDemoSemantics.
+ */
+public class NpXDemoSubphraseCacheTest
+{
+   /**
+      The subphrases that "far too many" and "far too few" have in
+      common are derived once, and spliced into the second phrase.
+    */
+   @Test
+   public void sharesSubphrasesAcrossPhrases()
+   {  ASDSubphraseCache cache = new ASDSubphraseCache(1000, 5000,
+         NpXDemoSemantics::copyValue);
+      NpXDemoSemantics cached = new NpXDemoSemantics(this);
+      cached.setSubphraseCache(cache);
+      parses(cached, "far too many");
+      long hits = cache.hits();
+      int entries = cache.size();
+      parses(cached, "far too few");
+      assertTrue(cache.hits() > hits);
+      assertTrue(cache.size() - entries < entries);
+   }
+
+   /**
+      The parses found with a cache are those found without one.
+    */
+   @Test
+   public void parsesAsWithoutTheCache()
+   {  NpXDemoSemantics plain = new NpXDemoSemantics(this);
+      NpXDemoSemantics cached = new NpXDemoSemantics(this);
+      cached.setSubphraseCache(new ASDSubphraseCache(1000, 5000,
+         NpXDemoSemantics::copyValue));
+      for (int pass = 0; pass < 2; ++pass)
+         for (int j = 0; j < PHRASES.length; ++j)
+            assertEquals(PHRASES[j], parses(plain, PHRASES[j]),
+               parses(cached, PHRASES[j]));
+   }
+
+   /**
+      The steps of the searches made for a cold cache are counted as
+      steps of the parse, as ASDParseStats counts them, and not the
+      INITIAL advances that cached completions replace.
+    */
+   @Test
+   public void countsTheStepsOfItsSearches()
+   {  NpXDemoSemantics cached = new NpXDemoSemantics(this);
+      cached.setSubphraseCache(new ASDSubphraseCache(1000, 5000,
+         NpXDemoSemantics::copyValue));
+      ASDParseStats stats = new ASDParseStats();
+      cached.parser().setStats(stats);
+      cached.initializePhrase("nine hundred ninety nine thousand", true);
+      assertTrue(cached.completeParse());
+      assertEquals(stats.initialAdvances() + stats.finalAdvances()
+         + stats.dummyAdvances() + stats.nonDummyAdvances(),
+         cached.getParseSteps());
+   }
+
+   /**
+      Parsers sharing a cache with a value copier share none of the
+      semantic values of the subphrases spliced in from it.
+    */
+   @Test
+   public void copiesTheValuesItSplices()
+   {  ASDSubphraseCache cache = new ASDSubphraseCache(1000, 5000,
+         NpXDemoSemantics::copyValue);
+      NpXDemoSemantics first = new NpXDemoSemantics(this);
+      NpXDemoSemantics second = new NpXDemoSemantics(this);
+      first.setSubphraseCache(cache);
+      second.setSubphraseCache(cache);
+      IdentityHashMap<Object, ASDPhraseNode> values
+         = new IdentityHashMap<Object, ASDPhraseNode>();
+      first.initializePhrase("so very many", true);
+      assertTrue(first.completeParse());
+      addValues(first.parser().phraseStructure(), values);
+      second.initializePhrase("so very many", true);
+      assertTrue(second.completeParse());
+      assertTrue(cache.hits() > 0);
+      IdentityHashMap<Object, ASDPhraseNode> shared
+         = new IdentityHashMap<Object, ASDPhraseNode>();
+      addValues(second.parser().phraseStructure(), shared);
+      shared.keySet().retainAll(values.keySet());
+      assertTrue(shared.isEmpty());
+   }
+
+   /**
+      Returns the bracketed phrases and meanings of all of the parses
+      of a given phrase.
+    */
+   private static ArrayList<String> parses(NpXDemoSemantics semantics,
+      String phrase)
+   {  ArrayList<String> result = new ArrayList<String>();
+      semantics.initializePhrase(phrase, true);
+      while (semantics.completeParse())
+         result.add(semantics.bracketPhrase() + " = "
+            + semantics.phraseMeaning());
+      return result;
+   }
+
+   /**
+      Adds the SemanticValues of a given node, of the nodes after it
+      and of the nodes of their subphrases to a given map.
+    */
+   private static void addValues(ASDPhraseNode node,
+      IdentityHashMap<Object, ASDPhraseNode> values)
+   {  for ( ; node != null; node = node.nextNode())
+      {  if (node.value() instanceof SemanticValue)
+            values.put(node.value(), node);
+         addValues(node.subphrase(), values);
+      }
+   }
+
+   private static final String[] PHRASES = { "far too many", "far too few",
+      "very far too many", "very very far too few", "so very many",
+      "too few", "very few", "rather many", "two hundred and fifty",
+      "one hundred twenty three", "nine hundred ninety nine thousand",
+      "more than three hundred", "at least five", "the last two" };
+} // end class NpXDemoSubphraseCacheTest